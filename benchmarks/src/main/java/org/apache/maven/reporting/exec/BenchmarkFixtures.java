@@ -0,0 +1,311 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.lifecycle.LifecycleExecutor;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MavenPluginManager;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.Parameter;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugin.version.PluginVersionResolver;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.classworlds.ClassWorld;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.codehaus.plexus.configuration.PlexusConfiguration;
+import org.codehaus.plexus.configuration.xml.XmlPlexusConfiguration;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+
+/**
+ * Synthetic report plugins and stub Maven components for benchmarks: no artifact is resolved, plugin descriptors are
+ * built in memory and every report goal is implemented by {@link BenchmarkReport}.
+ */
+class BenchmarkFixtures
+{
+    static final String GROUP_ID = "org.apache.maven.reporting.benchmark";
+
+    private final Map<String, PluginDescriptor> pluginDescriptors = new HashMap<>();
+
+    private final ReportPlugin[] reportPlugins;
+
+    private final ClassRealm pluginRealm;
+
+    private final MavenPluginManager mavenPluginManager;
+
+    private final LifecycleExecutor lifecycleExecutor;
+
+    private final MavenProject project = new MavenProject();
+
+    /**
+     * Create fixtures.
+     *
+     * @param plugins the count of report plugins
+     * @param goals the count of report goals for each plugin, a non-report goal is added to them
+     * @param parameters the count of parameters of each goal
+     * @throws Exception on any issue
+     */
+    BenchmarkFixtures( int plugins, int goals, int parameters )
+        throws Exception
+    {
+        pluginRealm = new ClassWorld().newRealm( "benchmark", BenchmarkFixtures.class.getClassLoader() );
+
+        reportPlugins = new ReportPlugin[plugins];
+        for ( int i = 0; i < plugins; i++ )
+        {
+            ReportPlugin reportPlugin = new ReportPlugin();
+            reportPlugin.setGroupId( GROUP_ID );
+            reportPlugin.setArtifactId( "benchmark" + i + "-maven-plugin" );
+            reportPlugin.setVersion( "1.0" );
+            reportPlugin.setConfiguration( newConfiguration( parameters / 2, "plugin" ) );
+            reportPlugins[i] = reportPlugin;
+
+            pluginDescriptors.put( reportPlugin.getArtifactId(),
+                                   newPluginDescriptor( reportPlugin.getArtifactId(), goals, parameters ) );
+        }
+
+        mavenPluginManager = stub( MavenPluginManager.class, new InvocationHandler()
+        {
+            @Override
+            public Object invoke( Object proxy, Method method, Object[] args )
+            {
+                switch ( method.getName() )
+                {
+                    case "getPluginDescriptor":
+                        Plugin plugin = (Plugin) args[0];
+                        PluginDescriptor pluginDescriptor = pluginDescriptors.get( plugin.getArtifactId() );
+                        pluginDescriptor.setPlugin( plugin );
+                        return pluginDescriptor;
+                    case "setupPluginRealm":
+                        ( (PluginDescriptor) args[0] ).setClassRealm( pluginRealm );
+                        return null;
+                    case "getConfiguredMojo":
+                        return new BenchmarkReport();
+                    default:
+                        return null;
+                }
+            }
+        } );
+
+        // no forked execution
+        lifecycleExecutor = stub( LifecycleExecutor.class, null );
+    }
+
+    private static PluginDescriptor newPluginDescriptor( String artifactId, int goals, int parameters )
+        throws Exception
+    {
+        PluginDescriptor pluginDescriptor = new PluginDescriptor();
+        pluginDescriptor.setGroupId( GROUP_ID );
+        pluginDescriptor.setArtifactId( artifactId );
+        pluginDescriptor.setVersion( "1.0" );
+
+        for ( int i = 0; i < goals; i++ )
+        {
+            pluginDescriptor.addMojo( newMojoDescriptor( pluginDescriptor, "report" + i,
+                                                         BenchmarkReport.class.getName(), parameters ) );
+        }
+        // not a report: ignored once classified
+        pluginDescriptor.addMojo( newMojoDescriptor( pluginDescriptor, "help", BenchmarkFixtures.class.getName(),
+                                                     parameters ) );
+
+        return pluginDescriptor;
+    }
+
+    private static MojoDescriptor newMojoDescriptor( PluginDescriptor pluginDescriptor, String goal,
+                                                     String implementation, int parameters )
+        throws Exception
+    {
+        MojoDescriptor mojoDescriptor = new MojoDescriptor();
+        mojoDescriptor.setPluginDescriptor( pluginDescriptor );
+        mojoDescriptor.setGoal( goal );
+        mojoDescriptor.setImplementation( implementation );
+
+        for ( int i = 0; i < parameters; i++ )
+        {
+            Parameter parameter = new Parameter();
+            parameter.setName( "parameter" + i );
+            parameter.setType( "java.lang.String" );
+            parameter.setExpression( "${benchmark.parameter" + i + "}" );
+            mojoDescriptor.addParameter( parameter );
+        }
+        mojoDescriptor.setMojoConfiguration( newConfiguration( parameters, "default" ) );
+
+        return mojoDescriptor;
+    }
+
+    /**
+     * Create a configuration with values for the first parameters.
+     *
+     * @param parameters the count of parameters to configure
+     * @param value the prefix of parameter values
+     * @return the configuration
+     */
+    static PlexusConfiguration newConfiguration( int parameters, String value )
+    {
+        XmlPlexusConfiguration configuration = new XmlPlexusConfiguration( "configuration" );
+        for ( int i = 0; i < parameters; i++ )
+        {
+            XmlPlexusConfiguration child = new XmlPlexusConfiguration( "parameter" + i );
+            child.setValue( value + i );
+            configuration.addChild( child );
+        }
+        return configuration;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static <T> T stub( final Class<T> type, final InvocationHandler handler )
+    {
+        return (T) Proxy.newProxyInstance( BenchmarkFixtures.class.getClassLoader(), new Class<?>[] { type },
+                                           new InvocationHandler()
+        {
+            @Override
+            public Object invoke( Object proxy, Method method, Object[] args )
+                throws Throwable
+            {
+                switch ( method.getName() )
+                {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode( proxy );
+                    case "toString":
+                        return "stub " + type.getSimpleName();
+                    default:
+                        return handler == null ? null : handler.invoke( proxy, method, args );
+                }
+            }
+        } );
+    }
+
+    /**
+     * Create a report executor using the stub components.
+     *
+     * @return the report executor
+     * @throws Exception on any issue
+     */
+    DefaultMavenReportExecutor newMavenReportExecutor()
+        throws Exception
+    {
+        DefaultMavenPluginManagerHelper mavenPluginManagerHelper = newMavenPluginManagerHelper();
+
+        DefaultMavenReportExecutor mavenReportExecutor = new DefaultMavenReportExecutor();
+        inject( mavenReportExecutor, "logger", newLogger() );
+        mavenReportExecutor.mavenPluginManager = mavenPluginManager;
+        mavenReportExecutor.mavenPluginManagerHelper = mavenPluginManagerHelper;
+        mavenReportExecutor.lifecycleExecutor = lifecycleExecutor;
+        mavenReportExecutor.pluginVersionResolver = stub( PluginVersionResolver.class, null );
+        return mavenReportExecutor;
+    }
+
+    /**
+     * Create a plugin manager helper using the stub plugin manager.
+     *
+     * @return the plugin manager helper
+     * @throws Exception on any issue
+     */
+    DefaultMavenPluginManagerHelper newMavenPluginManagerHelper()
+        throws Exception
+    {
+        DefaultMavenPluginManagerHelper mavenPluginManagerHelper = new DefaultMavenPluginManagerHelper();
+        inject( mavenPluginManagerHelper, "logger", newLogger() );
+        mavenPluginManagerHelper.mavenPluginManager = mavenPluginManager;
+        return mavenPluginManagerHelper;
+    }
+
+    private static Logger newLogger()
+    {
+        return new ConsoleLogger( Logger.LEVEL_WARN, "benchmark" );
+    }
+
+    private static void inject( Object component, String name, Object requirement )
+        throws ReflectiveOperationException
+    {
+        Field field = component.getClass().getDeclaredField( name );
+        field.setAccessible( true );
+        field.set( component, requirement );
+    }
+
+    /**
+     * Create a new session, which is a new scope for session caches: like a new build.
+     *
+     * @return the session
+     */
+    MavenSession newSession()
+    {
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        MavenExecutionResult result = new DefaultMavenExecutionResult();
+        MavenSession session = new MavenSession( null, null, request, result );
+        session.setCurrentProject( project );
+        return session;
+    }
+
+    /**
+     * Create a report executor request for every synthetic report plugin.
+     *
+     * @param session the session
+     * @return the request
+     */
+    MavenReportExecutorRequest newRequest( MavenSession session )
+    {
+        MavenReportExecutorRequest request = new MavenReportExecutorRequest();
+        request.setMavenSession( session );
+        request.setProject( project );
+        request.setReportPlugins( reportPlugins );
+        return request;
+    }
+
+    PluginDescriptor getPluginDescriptor( int index )
+    {
+        return pluginDescriptors.get( reportPlugins[index].getArtifactId() );
+    }
+
+    MavenPluginManager getMavenPluginManager()
+    {
+        return mavenPluginManager;
+    }
+
+    List<Plugin> getPlugins()
+    {
+        List<Plugin> plugins = new ArrayList<>( reportPlugins.length );
+        for ( ReportPlugin reportPlugin : reportPlugins )
+        {
+            Plugin plugin = new Plugin();
+            plugin.setGroupId( reportPlugin.getGroupId() );
+            plugin.setArtifactId( reportPlugin.getArtifactId() );
+            plugin.setVersion( reportPlugin.getVersion() );
+            plugins.add( plugin );
+        }
+        return plugins;
+    }
+}
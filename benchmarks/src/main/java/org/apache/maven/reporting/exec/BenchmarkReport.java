@@ -0,0 +1,99 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Locale;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.reporting.MavenReport;
+import org.apache.maven.reporting.MavenReportException;
+import org.codehaus.doxia.sink.Sink;
+
+/**
+ * Synthetic report mojo, used as implementation of the report goals of benchmark plugin descriptors.
+ */
+public class BenchmarkReport
+    extends AbstractMojo
+    implements MavenReport
+{
+    private File reportOutputDirectory;
+
+    @Override
+    public void execute()
+    {
+        // nothing to do
+    }
+
+    @Override
+    public void generate( Sink sink, Locale locale )
+        throws MavenReportException
+    {
+        // nothing to generate
+    }
+
+    @Override
+    public String getOutputName()
+    {
+        return "benchmark";
+    }
+
+    @Override
+    public String getCategoryName()
+    {
+        return CATEGORY_PROJECT_REPORTS;
+    }
+
+    @Override
+    public String getName( Locale locale )
+    {
+        return "Benchmark";
+    }
+
+    @Override
+    public String getDescription( Locale locale )
+    {
+        return "Benchmark report";
+    }
+
+    @Override
+    public void setReportOutputDirectory( File reportOutputDirectory )
+    {
+        this.reportOutputDirectory = reportOutputDirectory;
+    }
+
+    @Override
+    public File getReportOutputDirectory()
+    {
+        return reportOutputDirectory;
+    }
+
+    @Override
+    public boolean isExternalReport()
+    {
+        return false;
+    }
+
+    @Override
+    public boolean canGenerateReport()
+    {
+        return true;
+    }
+}
@@ -0,0 +1,64 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * Run benchmarks with JMH command line options, with GC and allocation profiling (<code>-prof gc</code>) by default.
+ */
+public final class BenchmarkRunner
+{
+    private BenchmarkRunner()
+    {
+        // main only
+    }
+
+    public static void main( String[] args )
+        throws Exception
+    {
+        CommandLineOptions commandLineOptions = new CommandLineOptions( args );
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent( commandLineOptions );
+        if ( !isGcProfiled( commandLineOptions ) )
+        {
+            options.addProfiler( GCProfiler.class );
+        }
+
+        new Runner( options.build() ).run();
+    }
+
+    private static boolean isGcProfiled( CommandLineOptions commandLineOptions )
+    {
+        for ( ProfilerConfig profiler : commandLineOptions.getProfilers() )
+        {
+            if ( "gc".equals( profiler.getKlass() ) || GCProfiler.class.getName().equals( profiler.getKlass() ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
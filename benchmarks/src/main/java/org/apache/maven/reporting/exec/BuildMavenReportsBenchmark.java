@@ -0,0 +1,100 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link DefaultMavenReportExecutor#buildMavenReports(MavenReportExecutorRequest)}, for the first module
+ * of a build and for next modules of the same reactor.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+public class BuildMavenReportsBenchmark
+{
+    @Param( { "1", "10" } )
+    public int plugins;
+
+    @Param( { "false", "true" } )
+    public boolean reactorRealmReuse;
+
+    @Param( { "false", "true" } )
+    public boolean lazyMojoInstantiation;
+
+    private BenchmarkFixtures fixtures;
+
+    private DefaultMavenReportExecutor mavenReportExecutor;
+
+    private MavenReportExecutorRequest nextModuleRequest;
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        fixtures = new BenchmarkFixtures( plugins, 5, 20 );
+        mavenReportExecutor = fixtures.newMavenReportExecutor();
+        nextModuleRequest = newRequest();
+    }
+
+    private MavenReportExecutorRequest newRequest()
+    {
+        MavenReportExecutorRequest request = fixtures.newRequest( fixtures.newSession() );
+        request.setReactorRealmReuse( reactorRealmReuse );
+        request.setLazyMojoInstantiation( lazyMojoInstantiation );
+        return request;
+    }
+
+    /**
+     * Prepare reports in a new session: session caches are empty.
+     */
+    @Benchmark
+    public List<MavenReportExecution> firstModule()
+        throws Exception
+    {
+        return mavenReportExecutor.buildMavenReports( newRequest() );
+    }
+
+    /**
+     * Prepare reports again in the same session: session caches are populated.
+     */
+    @Benchmark
+    public List<MavenReportExecution> nextModule()
+        throws Exception
+    {
+        return mavenReportExecutor.buildMavenReports( nextModuleRequest );
+    }
+}
@@ -0,0 +1,108 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.codehaus.plexus.configuration.PlexusConfiguration;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of report configuration merge and conversion, done for every report goal of every module.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+public class ConfigurationMergerBenchmark
+{
+    @Param( { "5", "50" } )
+    public int parameters;
+
+    private PlexusConfiguration mojoConfiguration;
+
+    private Xpp3Dom pluginManagementConfiguration;
+
+    private PlexusConfiguration pluginConfiguration;
+
+    private PlexusConfiguration reportSetConfiguration;
+
+    private Set<String> parameterNames;
+
+    private ConfigurationMerger configurationMerger;
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        MojoDescriptor mojoDescriptor =
+            new BenchmarkFixtures( 1, 1, parameters ).getPluginDescriptor( 0 ).getMojo( "report0" );
+
+        mojoConfiguration = mojoDescriptor.getMojoConfiguration();
+        pluginManagementConfiguration =
+            ConfigurationMerger.convert( BenchmarkFixtures.newConfiguration( parameters / 4, "management" ) );
+        pluginConfiguration = BenchmarkFixtures.newConfiguration( parameters / 2, "plugin" );
+        reportSetConfiguration = BenchmarkFixtures.newConfiguration( parameters / 3, "reportSet" );
+        parameterNames = mojoDescriptor.getParameterMap().keySet();
+
+        configurationMerger = new ConfigurationMerger();
+    }
+
+    /**
+     * Merge the same configurations again, like for every module of a reactor.
+     */
+    @Benchmark
+    public Xpp3Dom merge()
+    {
+        return configurationMerger.merge( mojoConfiguration, pluginManagementConfiguration, pluginConfiguration,
+                                          reportSetConfiguration, parameterNames );
+    }
+
+    /**
+     * Merge configurations for the first time (includes the creation of an empty merger).
+     */
+    @Benchmark
+    public Xpp3Dom firstMerge()
+    {
+        return new ConfigurationMerger().merge( mojoConfiguration, pluginManagementConfiguration, pluginConfiguration,
+                                                reportSetConfiguration, parameterNames );
+    }
+
+    @Benchmark
+    public Xpp3Dom convert()
+    {
+        return ConfigurationMerger.convert( mojoConfiguration );
+    }
+}
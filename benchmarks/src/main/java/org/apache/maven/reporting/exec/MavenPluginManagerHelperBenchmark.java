@@ -0,0 +1,158 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MavenPluginManager;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link DefaultMavenPluginManagerHelper} calls, with a reflective call of
+ * <code>MavenPluginManager.setupPluginRealm(...)</code> as baseline for the method handle call.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+public class MavenPluginManagerHelperBenchmark
+{
+    private static final List<String> IMPORTS = Collections.singletonList( "org.apache.maven.reporting.MavenReport" );
+
+    private static final List<String> EXCLUDES = Arrays.asList( "doxia-site-renderer", "doxia-sink-api",
+                                                                "maven-reporting-api" );
+
+    private BenchmarkFixtures fixtures;
+
+    private DefaultMavenPluginManagerHelper mavenPluginManagerHelper;
+
+    private MavenPluginManager mavenPluginManager;
+
+    private Method setupPluginRealm;
+
+    private MavenSession session;
+
+    private Plugin plugin;
+
+    private PluginDescriptor pluginDescriptor;
+
+    private ClassLoader parent;
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        fixtures = new BenchmarkFixtures( 1, 5, 20 );
+        mavenPluginManagerHelper = fixtures.newMavenPluginManagerHelper();
+        mavenPluginManager = fixtures.getMavenPluginManager();
+        session = fixtures.newSession();
+        plugin = fixtures.getPlugins().get( 0 );
+        pluginDescriptor = fixtures.getPluginDescriptor( 0 );
+        parent = Thread.currentThread().getContextClassLoader();
+
+        for ( Method m : MavenPluginManager.class.getMethods() )
+        {
+            if ( "setupPluginRealm".equals( m.getName() ) )
+            {
+                setupPluginRealm = m;
+            }
+        }
+
+        // populate the session cache
+        mavenPluginManagerHelper.getPluginDescriptor( plugin, session );
+    }
+
+    /**
+     * Get a plugin descriptor already cached in the session.
+     */
+    @Benchmark
+    public PluginDescriptor getPluginDescriptor()
+        throws Exception
+    {
+        return mavenPluginManagerHelper.getPluginDescriptor( plugin, session );
+    }
+
+    /**
+     * Get a plugin descriptor in a new session: the stub plugin manager is called.
+     */
+    @Benchmark
+    public PluginDescriptor getPluginDescriptorNewSession()
+        throws Exception
+    {
+        return mavenPluginManagerHelper.getPluginDescriptor( plugin, fixtures.newSession() );
+    }
+
+    @Benchmark
+    public String getPluginKey()
+    {
+        return DefaultMavenPluginManagerHelper.getPluginKey( plugin, session.getCurrentProject()
+            .getRemotePluginRepositories() );
+    }
+
+    /**
+     * Setup the plugin realm through the method handle.
+     */
+    @Benchmark
+    public PluginDescriptor setupPluginRealm()
+        throws Exception
+    {
+        mavenPluginManagerHelper.setupPluginRealm( pluginDescriptor, session, parent, IMPORTS, EXCLUDES );
+        return pluginDescriptor;
+    }
+
+    /**
+     * Setup the plugin realm through reflection, like before method handles were used.
+     */
+    @Benchmark
+    public PluginDescriptor setupPluginRealmReflection()
+        throws Exception
+    {
+        setupPluginRealm.invoke( mavenPluginManager, pluginDescriptor, session, parent, IMPORTS,
+                                 newExclusionsDependencyFilter() );
+        return pluginDescriptor;
+    }
+
+    private Object newExclusionsDependencyFilter()
+    {
+        if ( setupPluginRealm.getParameterTypes()[4].getName().startsWith( "org.sonatype.aether" ) )
+        {
+            return new org.sonatype.aether.util.filter.ExclusionsDependencyFilter( EXCLUDES );
+        }
+        return new org.eclipse.aether.util.filter.ExclusionsDependencyFilter( EXCLUDES );
+    }
+}
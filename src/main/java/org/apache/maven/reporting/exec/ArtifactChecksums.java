@@ -0,0 +1,108 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * SHA-1 checksums of artifact files, memoized as long as file length and last modification time don't change: only
+ * for immutable files, like resolved plugin artifacts.
+ */
+class ArtifactChecksums
+{
+    private final ConcurrentMap<String, String> checksums = new ConcurrentHashMap<>();
+
+    /**
+     * Get the SHA-1 checksum of a file.
+     *
+     * @param file the file
+     * @return the checksum, as hexadecimal
+     * @throws IOException if the file can't be read
+     */
+    public String getChecksum( File file )
+        throws IOException
+    {
+        String key = file.getAbsolutePath() + '@' + file.length() + '@' + file.lastModified();
+
+        String checksum = checksums.get( key );
+        if ( checksum == null )
+        {
+            checksum = sha1( file );
+            checksums.put( key, checksum );
+        }
+        return checksum;
+    }
+
+    /**
+     * Calculate the SHA-1 checksum of a file without memoizing it, for files that can be rewritten within the file
+     * system time granularity, like sources or generated output.
+     *
+     * @param file the file
+     * @return the checksum, as hexadecimal
+     * @throws IOException if the file can't be read
+     */
+    static String sha1( File file )
+        throws IOException
+    {
+        MessageDigest digest = newSha1();
+
+        byte[] buffer = new byte[8192];
+        try ( InputStream in = new FileInputStream( file ) )
+        {
+            int read;
+            while ( ( read = in.read( buffer ) ) >= 0 )
+            {
+                digest.update( buffer, 0, read );
+            }
+        }
+
+        return toHex( digest.digest() );
+    }
+
+    static MessageDigest newSha1()
+        throws IOException
+    {
+        try
+        {
+            return MessageDigest.getInstance( "SHA-1" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IOException( e );
+        }
+    }
+
+    static String toHex( byte[] bytes )
+    {
+        StringBuilder hex = new StringBuilder( bytes.length * 2 );
+        for ( byte b : bytes )
+        {
+            hex.append( Character.forDigit( ( b >> 4 ) & 0xf, 16 ) ).append( Character.forDigit( b & 0xf, 16 ) );
+        }
+        return hex.toString();
+    }
+}
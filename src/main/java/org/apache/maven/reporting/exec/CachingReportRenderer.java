@@ -0,0 +1,202 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.reporting.MavenReport;
+
+/**
+ * Report renderer restoring report output from a {@link ReportOutputCache} when the report
+ * {@link MavenReportExecution#getCacheKey(File, Locale) cache key} is known and cached, calling the delegate renderer
+ * otherwise and storing its output.
+ * <p>
+ * Report output is the page <code>outputName.html</code>, every file in the directory of the output name for an
+ * {@link MavenReport#isExternalReport() external report}, and every file of the output directory created or modified
+ * while the report was rendered, like images, stylesheets or source cross-references written next to the page. Since
+ * files can't be attributed to a report when reports are rendered concurrently, output of a report rendered while
+ * another report is rendered by the same renderer is not stored.
+ * <p>
+ * The site decoration, i.e. the site descriptor and the skin, isn't known to the cache key: when rendered pages are
+ * decorated, the site descriptor and the skin artifact files must be declared as
+ * {@link MavenReportExecution#setInputFiles(List) input files} of the report, or restored pages may show an outdated
+ * decoration.
+ *
+ * @since 1.6
+ */
+public class CachingReportRenderer
+    implements ReportRenderer
+{
+    private final ReportRenderer delegate;
+
+    private final ReportOutputCache cache;
+
+    private final File outputDirectory;
+
+    private final Locale locale;
+
+    /** Number of reports being rendered, guarded by <code>this</code>. */
+    private int renderings;
+
+    /** Number of reports whose rendering started, guarded by <code>this</code>. */
+    private long startedRenderings;
+
+    /**
+     * Create a caching renderer.
+     *
+     * @param delegate the renderer actually rendering reports
+     * @param cache the report output cache
+     * @param outputDirectory the directory reports are rendered to
+     * @param locale the locale reports are rendered in
+     */
+    public CachingReportRenderer( ReportRenderer delegate, ReportOutputCache cache, File outputDirectory,
+                                  Locale locale )
+    {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.outputDirectory = outputDirectory;
+        this.locale = locale;
+    }
+
+    @Override
+    public void render( MavenReportExecution mavenReportExecution )
+        throws Exception
+    {
+        // every rendering counts, even without a cache key, since it writes to the output directory
+        boolean alone;
+        long rendering;
+        synchronized ( this )
+        {
+            alone = renderings++ == 0;
+            rendering = ++startedRenderings;
+        }
+        try
+        {
+            String key = mavenReportExecution.getCacheKey( outputDirectory, locale );
+            if ( key == null )
+            {
+                delegate.render( mavenReportExecution );
+            }
+            else if ( !cache.restore( key, outputDirectory ) )
+            {
+                renderAndStore( mavenReportExecution, key, alone, rendering );
+            }
+        }
+        finally
+        {
+            synchronized ( this )
+            {
+                renderings--;
+            }
+        }
+    }
+
+    private void renderAndStore( MavenReportExecution mavenReportExecution, String key, boolean alone,
+                                 long rendering )
+        throws Exception
+    {
+        Map<String, String> before = new HashMap<>();
+        snapshot( outputDirectory, "", before );
+
+        delegate.render( mavenReportExecution );
+
+        Map<String, String> after = new HashMap<>();
+        snapshot( outputDirectory, "", after );
+
+        synchronized ( this )
+        {
+            // another report started rendering meanwhile
+            alone &= rendering == startedRenderings;
+        }
+        if ( !alone )
+        {
+            return;
+        }
+
+        Set<String> paths = getOutputPaths( mavenReportExecution.getMavenReport(), after );
+        for ( Map.Entry<String, String> file : after.entrySet() )
+        {
+            if ( !file.getValue().equals( before.get( file.getKey() ) ) )
+            {
+                paths.add( file.getKey() );
+            }
+        }
+        if ( !paths.isEmpty() )
+        {
+            cache.store( key, outputDirectory, paths );
+        }
+    }
+
+    private static Set<String> getOutputPaths( MavenReport mavenReport, Map<String, String> files )
+    {
+        Set<String> paths = new LinkedHashSet<>();
+        String outputName = mavenReport.getOutputName();
+        if ( mavenReport.isExternalReport() )
+        {
+            int index = outputName.lastIndexOf( '/' );
+            String directory = ( index < 0 ) ? "" : outputName.substring( 0, index + 1 );
+            if ( !directory.isEmpty() )
+            {
+                for ( String path : files.keySet() )
+                {
+                    if ( path.startsWith( directory ) )
+                    {
+                        paths.add( path );
+                    }
+                }
+            }
+        }
+        else if ( files.containsKey( outputName + ".html" ) )
+        {
+            paths.add( outputName + ".html" );
+        }
+        return paths;
+    }
+
+    /**
+     * Record the length and last modification time of every file in a directory, by path relative to the output
+     * directory.
+     */
+    private static void snapshot( File directory, String prefix, Map<String, String> files )
+    {
+        File[] children = directory.listFiles();
+        if ( children == null )
+        {
+            return;
+        }
+        for ( File child : children )
+        {
+            if ( child.isDirectory() )
+            {
+                snapshot( child, prefix + child.getName() + '/', files );
+            }
+            else
+            {
+                files.put( prefix + child.getName(), child.length() + "@" + child.lastModified() );
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.MojoExecutionException;
+
+/**
+ * Helper to render report executions concurrently: {@link MavenReportExecution#isThreadSafe() thread-safe} reports
+ * are rendered by a pool of threads, then reports that are not thread-safe are rendered one after the other by the
+ * calling thread. Each report is rendered with its {@link MavenReportExecution#getClassLoader() class loader} as
+ * thread context class loader, then {@link MavenReportExecution#markGenerated() marked as generated}.
+ * <p>
+ * Reports rendered concurrently are {@link MavenReportExecution#getMavenReport() created} by the calling thread
+ * first, one after the other: a lazily configured report mojo and a deferred forked execution use the session, whose
+ * current project is changed while a forked execution runs.
+ *
+ * @since 1.6
+ */
+public class ConcurrentReportRenderer
+{
+    private final int threadCount;
+
+    /**
+     * Create a renderer.
+     *
+     * @param threadCount the number of threads rendering thread-safe reports, <code>1</code> to render every report
+     *            serially
+     */
+    public ConcurrentReportRenderer( int threadCount )
+    {
+        this.threadCount = threadCount;
+    }
+
+    public int getThreadCount()
+    {
+        return threadCount;
+    }
+
+    /**
+     * Render report executions.
+     *
+     * @param mavenReportExecutions the report executions to render
+     * @param renderer the rendering of a report execution
+     * @throws MojoExecutionException on first rendering failure, in report executions order for thread-safe reports
+     */
+    public void render( List<MavenReportExecution> mavenReportExecutions, final ReportRenderer renderer )
+        throws MojoExecutionException
+    {
+        List<MavenReportExecution> threadSafeReports = new ArrayList<>();
+        List<MavenReportExecution> serialReports = new ArrayList<>();
+        for ( MavenReportExecution mavenReportExecution : mavenReportExecutions )
+        {
+            if ( threadCount > 1 && mavenReportExecution.isThreadSafe() )
+            {
+                threadSafeReports.add( mavenReportExecution );
+            }
+            else
+            {
+                serialReports.add( mavenReportExecution );
+            }
+        }
+
+        if ( threadSafeReports.size() == 1 )
+        {
+            // no need for a thread
+            serialReports.add( 0, threadSafeReports.remove( 0 ) );
+        }
+
+        if ( !threadSafeReports.isEmpty() )
+        {
+            for ( MavenReportExecution mavenReportExecution : threadSafeReports )
+            {
+                prepare( mavenReportExecution );
+            }
+            renderConcurrently( threadSafeReports, renderer );
+        }
+
+        for ( MavenReportExecution mavenReportExecution : serialReports )
+        {
+            try
+            {
+                render( mavenReportExecution, renderer );
+            }
+            catch ( Exception e )
+            {
+                throw new MojoExecutionException( "failed to render " + getDescription( mavenReportExecution ), e );
+            }
+        }
+    }
+
+    private void renderConcurrently( List<MavenReportExecution> mavenReportExecutions, final ReportRenderer renderer )
+        throws MojoExecutionException
+    {
+        ExecutorService executorService =
+            Executors.newFixedThreadPool( Math.min( threadCount, mavenReportExecutions.size() ), new ThreadFactory()
+            {
+                private final AtomicInteger threadNumber = new AtomicInteger();
+
+                @Override
+                public Thread newThread( Runnable r )
+                {
+                    Thread thread = new Thread( r, "report-rendering-" + threadNumber.incrementAndGet() );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+        try
+        {
+            List<Future<Void>> futures = new ArrayList<>( mavenReportExecutions.size() );
+            for ( final MavenReportExecution mavenReportExecution : mavenReportExecutions )
+            {
+                futures.add( executorService.submit( new Callable<Void>()
+                {
+                    @Override
+                    public Void call()
+                        throws Exception
+                    {
+                        render( mavenReportExecution, renderer );
+                        return null;
+                    }
+                } ) );
+            }
+
+            for ( int i = 0; i < futures.size(); i++ )
+            {
+                String description = getDescription( mavenReportExecutions.get( i ) );
+                try
+                {
+                    futures.get( i ).get();
+                }
+                catch ( ExecutionException e )
+                {
+                    throw new MojoExecutionException( "failed to render " + description, e.getCause() );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    throw new MojoExecutionException( "interrupted while rendering " + description, e );
+                }
+            }
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Create the report, configuring its mojo and running its forked execution if they have been deferred.
+     */
+    private static void prepare( MavenReportExecution mavenReportExecution )
+        throws MojoExecutionException
+    {
+        Thread currentThread = Thread.currentThread();
+        ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+        if ( mavenReportExecution.getClassLoader() != null )
+        {
+            currentThread.setContextClassLoader( mavenReportExecution.getClassLoader() );
+        }
+        try
+        {
+            mavenReportExecution.getMavenReport();
+        }
+        catch ( IllegalStateException e )
+        {
+            throw new MojoExecutionException( "failed to prepare " + getDescription( mavenReportExecution ), e );
+        }
+        finally
+        {
+            currentThread.setContextClassLoader( originalClassLoader );
+        }
+    }
+
+    private static void render( MavenReportExecution mavenReportExecution, ReportRenderer renderer )
+        throws Exception
+    {
+        Thread currentThread = Thread.currentThread();
+        ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+        if ( mavenReportExecution.getClassLoader() != null )
+        {
+            currentThread.setContextClassLoader( mavenReportExecution.getClassLoader() );
+        }
+        try
+        {
+            renderer.render( mavenReportExecution );
+            mavenReportExecution.markGenerated();
+        }
+        finally
+        {
+            currentThread.setContextClassLoader( originalClassLoader );
+        }
+    }
+
+    private static String getDescription( MavenReportExecution mavenReportExecution )
+    {
+        return ( mavenReportExecution.getPlugin() == null ) ? mavenReportExecution.getGoal() + " report"
+                        : mavenReportExecution.getPlugin().getArtifactId() + ':' + mavenReportExecution.getGoal()
+                            + " report";
+    }
+}
@@ -0,0 +1,270 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.codehaus.plexus.configuration.PlexusConfiguration;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.codehaus.plexus.util.xml.Xpp3DomUtils;
+
+/**
+ * Merge engine for report mojo configuration. Every configuration is filtered to supported parameters before
+ * merging, then only useful elements are converted and merged. Merged configurations are memoized, using the
+ * structural equality of filtered configurations as key: identical configurations used by many modules of a reactor
+ * are merged only once.
+ */
+class ConfigurationMerger
+{
+    private static final int MAX_ENTRIES = 512;
+
+    private final CacheStatistics statistics = new CacheStatistics();
+
+    private final Map<MergeKey, Xpp3Dom> mergedConfigurations = new LinkedHashMap<MergeKey, Xpp3Dom>( 16, 0.75f, true )
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<MergeKey, Xpp3Dom> eldest )
+        {
+            if ( size() > MAX_ENTRIES )
+            {
+                statistics.recordEviction();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Merge plugin configuration and reportset configuration to mojo configuration to get effective
+     * mojo configuration.
+     *
+     * @param mojoConf configuration done at mojo descriptor level
+     * @param pluginMgmtConfig configuration done at build.pluginManagement level
+     * @param pluginConf configuration done at reporting plugin level
+     * @param reportSetConf configuration done at reportSet level
+     * @param parameters set of supported parameters: any other parameter will be removed
+     * @return the effective configuration to be used, that can be modified by the caller
+     */
+    public Xpp3Dom merge( PlexusConfiguration mojoConf, Xpp3Dom pluginMgmtConfig, PlexusConfiguration pluginConf,
+                          PlexusConfiguration reportSetConf, Set<String> parameters )
+    {
+        if ( pluginMgmtConfig == null && pluginConf == null && reportSetConf == null )
+        {
+            // nothing to merge: mojo configuration is used as is
+            return ( mojoConf != null ) ? convert( mojoConf ) : new Xpp3Dom( "configuration" );
+        }
+
+        MergeKey key = new MergeKey( convert( mojoConf, parameters ), filter( pluginMgmtConfig, parameters ),
+                                     convert( pluginConf, parameters ), convert( reportSetConf, parameters ) );
+
+        Xpp3Dom mergedConfig;
+        synchronized ( mergedConfigurations )
+        {
+            mergedConfig = mergedConfigurations.get( key );
+        }
+
+        if ( mergedConfig == null )
+        {
+            statistics.recordMiss();
+
+            mergedConfig = merge( key );
+
+            synchronized ( mergedConfigurations )
+            {
+                mergedConfigurations.put( key, mergedConfig );
+            }
+        }
+        else
+        {
+            statistics.recordHit();
+        }
+
+        return new Xpp3Dom( mergedConfig );
+    }
+
+    public CacheStatistics getStatistics()
+    {
+        return statistics;
+    }
+
+    private static Xpp3Dom merge( MergeKey key )
+    {
+        // merging modifies dominant configurations: work on copies, since key configurations must not change
+        Xpp3Dom mojoConfig =
+            ( key.configurations[0] == null ) ? new Xpp3Dom( "configuration" ) : copy( key.configurations[0] );
+        Xpp3Dom pluginMgmtConfig = copy( key.configurations[1] );
+        Xpp3Dom pluginConfig =
+            ( key.configurations[2] == null ) ? new Xpp3Dom( "fake" ) : copy( key.configurations[2] );
+        Xpp3Dom reportSetConfig = copy( key.configurations[3] );
+
+        // merge pluginConf into reportSetConf
+        Xpp3Dom mergedConfig = Xpp3DomUtils.mergeXpp3Dom( reportSetConfig, pluginConfig );
+        // then merge pluginMgmtConfig
+        mergedConfig = Xpp3DomUtils.mergeXpp3Dom( mergedConfig, pluginMgmtConfig );
+        // then merge mojoConf
+        mergedConfig = Xpp3DomUtils.mergeXpp3Dom( mergedConfig, mojoConfig );
+
+        // every configuration was already filtered to supported parameters
+        Xpp3Dom cleanedConfig = new Xpp3Dom( "configuration" );
+        if ( mergedConfig.getChildren() != null )
+        {
+            for ( Xpp3Dom parameter : mergedConfig.getChildren() )
+            {
+                cleanedConfig.addChild( parameter );
+            }
+        }
+        return cleanedConfig;
+    }
+
+    /**
+     * Convert a Plexus configuration to an Xpp3Dom.
+     *
+     * @param config the Plexus configuration
+     * @return the Xpp3Dom, or <code>null</code> if config is <code>null</code>
+     */
+    static Xpp3Dom convert( PlexusConfiguration config )
+    {
+        if ( config == null )
+        {
+            return null;
+        }
+
+        Xpp3Dom dom = new Xpp3Dom( config.getName() );
+        dom.setValue( config.getValue( null ) );
+
+        for ( String attrib : config.getAttributeNames() )
+        {
+            dom.setAttribute( attrib, config.getAttribute( attrib, null ) );
+        }
+
+        for ( int n = config.getChildCount(), i = 0; i < n; i++ )
+        {
+            dom.addChild( convert( config.getChild( i ) ) );
+        }
+
+        return dom;
+    }
+
+    /**
+     * Convert a Plexus configuration to an Xpp3Dom, keeping only children that are supported parameters.
+     *
+     * @param config the Plexus configuration
+     * @param parameters the supported parameters
+     * @return the filtered Xpp3Dom, or <code>null</code> if config is <code>null</code>
+     */
+    private static Xpp3Dom convert( PlexusConfiguration config, Set<String> parameters )
+    {
+        if ( config == null )
+        {
+            return null;
+        }
+
+        Xpp3Dom dom = new Xpp3Dom( config.getName() );
+        dom.setValue( config.getValue( null ) );
+
+        for ( String attrib : config.getAttributeNames() )
+        {
+            dom.setAttribute( attrib, config.getAttribute( attrib, null ) );
+        }
+
+        for ( int n = config.getChildCount(), i = 0; i < n; i++ )
+        {
+            PlexusConfiguration child = config.getChild( i );
+            if ( parameters.contains( child.getName() ) )
+            {
+                dom.addChild( convert( child ) );
+            }
+        }
+
+        return dom;
+    }
+
+    /**
+     * Copy an Xpp3Dom, keeping only children that are supported parameters.
+     *
+     * @param config the Xpp3Dom
+     * @param parameters the supported parameters
+     * @return the filtered copy, or <code>null</code> if config is <code>null</code>
+     */
+    private static Xpp3Dom filter( Xpp3Dom config, Set<String> parameters )
+    {
+        if ( config == null )
+        {
+            return null;
+        }
+
+        Xpp3Dom dom = new Xpp3Dom( config.getName() );
+        dom.setValue( config.getValue() );
+
+        for ( String attrib : config.getAttributeNames() )
+        {
+            dom.setAttribute( attrib, config.getAttribute( attrib ) );
+        }
+
+        for ( Xpp3Dom child : config.getChildren() )
+        {
+            if ( parameters.contains( child.getName() ) )
+            {
+                dom.addChild( new Xpp3Dom( child ) );
+            }
+        }
+
+        return dom;
+    }
+
+    private static Xpp3Dom copy( Xpp3Dom dom )
+    {
+        return ( dom == null ) ? null : new Xpp3Dom( dom );
+    }
+
+    /**
+     * Memoization key: filtered mojo, pluginManagement, plugin and reportSet configurations, compared structurally.
+     */
+    private static class MergeKey
+    {
+        private final Xpp3Dom[] configurations;
+
+        private final int hashCode;
+
+        MergeKey( Xpp3Dom... configurations )
+        {
+            this.configurations = configurations;
+            this.hashCode = Arrays.hashCode( configurations );
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            return ( obj instanceof MergeKey ) && hashCode == ( (MergeKey) obj ).hashCode
+                && Arrays.equals( configurations, ( (MergeKey) obj ).configurations );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
@@ -19,18 +19,22 @@ package org.apache.maven.reporting.exec;
  * under the License.
  */
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.maven.artifact.ArtifactUtils;
 import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Exclusion;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.InvalidPluginDescriptorException;
 import org.apache.maven.plugin.MavenPluginManager;
 import org.apache.maven.plugin.PluginContainerException;
 import org.apache.maven.plugin.PluginDescriptorParsingException;
 import org.apache.maven.plugin.PluginResolutionException;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
 import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.codehaus.plexus.component.repository.ComponentDescriptor;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.Logger;
@@ -50,52 +54,7 @@ public class DefaultMavenPluginManagerHelper
 
     private Boolean isEclipseAether;
 
-    private Method setupPluginRealm;
-
-    private Method getPluginDescriptor;
-
-    private Method getRepositorySession;
-
-    /**
-     * <p>Constructor for DefaultMavenPluginManagerHelper.</p>
-     */
-    public DefaultMavenPluginManagerHelper()
-    {
-        try
-        {
-            for ( Method m : MavenPluginManager.class.getMethods() )
-            {
-                if ( "setupPluginRealm".equals( m.getName() ) )
-                {
-                    setupPluginRealm = m;
-                }
-                else if ( "getPluginDescriptor".equals( m.getName() ) )
-                {
-                    getPluginDescriptor = m;
-                }
-            }
-        }
-        catch ( SecurityException e )
-        {
-            logger.warn( "unable to find MavenPluginManager.setupPluginRealm() method", e );
-        }
-
-        try
-        {
-            for ( Method m : MavenSession.class.getMethods() )
-            {
-                if ( "getRepositorySession".equals( m.getName() ) )
-                {
-                    getRepositorySession = m;
-                    break;
-                }
-            }
-        }
-        catch ( SecurityException e )
-        {
-            logger.warn( "unable to find MavenSession.getRepositorySession() method", e );
-        }
-    }
+    private final SessionScopedCache<String, PluginDescriptor> pluginDescriptorCache = new SessionScopedCache<>();
 
     private boolean isEclipseAether()
     {
@@ -128,51 +87,119 @@ public class DefaultMavenPluginManagerHelper
         }
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Plugin descriptors are cached for the session: the cache key is calculated by
+     * {@link #getPluginKey(Plugin, List)}, since the same report plugins are resolved again and again for every
+     * module of the reactor. Like in Maven core plugin descriptor cache, each call gets its own copy of the cached
+     * descriptor, since the plugin realm is then set up in the descriptor for the calling project.
+     * </p>
+     */
     @Override
     public PluginDescriptor getPluginDescriptor( Plugin plugin, MavenSession session )
         throws PluginResolutionException, PluginDescriptorParsingException, InvalidPluginDescriptorException
     {
-        try
+        List<?> remoteRepositories = session.getCurrentProject().getRemotePluginRepositories();
+        String pluginKey = getPluginKey( plugin, remoteRepositories );
+
+        PluginDescriptor pluginDescriptor = pluginDescriptorCache.get( session, pluginKey );
+        if ( pluginDescriptor == null )
         {
-            Object repositorySession = getRepositorySession.invoke( session );
-            List<?> remoteRepositories = session.getCurrentProject().getRemotePluginRepositories();
+            pluginDescriptor = resolvePluginDescriptor( plugin, session, remoteRepositories );
+            if ( pluginDescriptor == null )
+            {
+                return null;
+            }
+            pluginDescriptor = pluginDescriptorCache.putIfAbsent( session, pluginKey, pluginDescriptor );
+        }
+
+        // like MavenPluginManager, associate a copy of the descriptor with the requested plugin
+        PluginDescriptor copy = copy( pluginDescriptor );
+        copy.setPlugin( plugin );
+        return copy;
+    }
+
+    /**
+     * Copy a plugin descriptor and its mojo descriptors, without realm, the same way as Maven core plugin descriptor
+     * cache does.
+     *
+     * @param original the plugin descriptor to copy
+     * @return the copy
+     */
+    static PluginDescriptor copy( PluginDescriptor original )
+    {
+        PluginDescriptor copy = new PluginDescriptor();
+        copy.setGroupId( original.getGroupId() );
+        copy.setArtifactId( original.getArtifactId() );
+        copy.setVersion( original.getVersion() );
+        copy.setGoalPrefix( original.getGoalPrefix() );
+        copy.setInheritedByDefault( original.isInheritedByDefault() );
+        copy.setName( original.getName() );
+        copy.setDescription( original.getDescription() );
+        copy.setRequiredMavenVersion( original.getRequiredMavenVersion() );
+        copy.setPluginArtifact( ArtifactUtils.copyArtifactSafe( original.getPluginArtifact() ) );
+        copy.setId( original.getId() );
+        copy.setIsolatedRealm( original.isIsolatedRealm() );
+        copy.setSource( original.getSource() );
+        copy.setDependencies( original.getDependencies() );
+
+        if ( original.getMojos() != null )
+        {
+            List<ComponentDescriptor<?>> mojos = new ArrayList<>( original.getMojos().size() );
+            for ( MojoDescriptor mojo : original.getMojos() )
+            {
+                MojoDescriptor mojoCopy = mojo.clone();
+                mojoCopy.setPluginDescriptor( copy );
+                mojos.add( mojoCopy );
+            }
+            copy.setComponents( mojos );
+        }
+        return copy;
+    }
 
-            return (PluginDescriptor) getPluginDescriptor.invoke( mavenPluginManager, plugin, remoteRepositories,
-                                                                  repositorySession );
+    private PluginDescriptor resolvePluginDescriptor( Plugin plugin, MavenSession session, List<?> remoteRepositories )
+        throws PluginResolutionException, PluginDescriptorParsingException, InvalidPluginDescriptorException
+    {
+        if ( MavenPluginManagerMethods.GET_PLUGIN_DESCRIPTOR == null
+            || MavenPluginManagerMethods.GET_REPOSITORY_SESSION == null )
+        {
+            logger.warn( "unable to find MavenPluginManager.getPluginDescriptor() method" );
+            return null;
         }
-        catch ( IllegalArgumentException e )
+
+        Object repositorySession = null;
+        try
         {
-            logger.warn( "IllegalArgumentException during MavenPluginManager.getPluginDescriptor() call", e );
+            repositorySession =
+                (Object) MavenPluginManagerMethods.GET_REPOSITORY_SESSION.invokeExact( (Object) session );
+
+            return (PluginDescriptor) (Object) MavenPluginManagerMethods.GET_PLUGIN_DESCRIPTOR.invokeExact(
+                (Object) mavenPluginManager, (Object) plugin, (Object) remoteRepositories, repositorySession );
         }
-        catch ( IllegalAccessException e )
+        catch ( PluginResolutionException | PluginDescriptorParsingException | InvalidPluginDescriptorException e )
         {
-            logger.warn( "IllegalAccessException during MavenPluginManager.getPluginDescriptor() call", e );
+            throw e;
         }
-        catch ( InvocationTargetException e )
+        catch ( ClassCastException e )
         {
-            Throwable target = e.getTargetException();
-            if ( target instanceof PluginResolutionException )
+            if ( MavenPluginManagerMethods.isApplicable( MavenPluginManager.class, "getPluginDescriptor",
+                                                         mavenPluginManager, plugin, remoteRepositories,
+                                                         repositorySession ) )
             {
-                throw (PluginResolutionException) target;
+                // thrown by the method itself
+                throw e;
             }
-            if ( target instanceof PluginDescriptorParsingException )
-            {
-                throw (PluginDescriptorParsingException) target;
-            }
-            if ( target instanceof InvalidPluginDescriptorException )
-            {
-                throw (InvalidPluginDescriptorException) target;
-            }
-            if ( target instanceof RuntimeException )
-            {
-                throw (RuntimeException) target;
-            }
-            if ( target instanceof Error )
-            {
-                throw (Error) target;
-            }
-            logger.warn( "Exception during MavenPluginManager.getPluginDescriptor() call", e );
+            // like IllegalArgumentException from reflective call
+            logger.warn( "wrong argument type in MavenPluginManager.getPluginDescriptor() call", e );
+        }
+        catch ( RuntimeException | Error e )
+        {
+            throw e;
+        }
+        catch ( Throwable t )
+        {
+            logger.warn( "Exception during MavenPluginManager.getPluginDescriptor() call", t );
         }
 
         return null;
@@ -184,39 +211,91 @@ public class DefaultMavenPluginManagerHelper
                                   List<String> imports, List<String> excludeArtifactIds )
         throws PluginResolutionException, PluginContainerException
     {
-        try
+        if ( MavenPluginManagerMethods.SETUP_PLUGIN_REALM == null )
         {
-            setupPluginRealm.invoke( mavenPluginManager, pluginDescriptor, session, parent, imports,
-                                     createExclusionsDependencyFilter( excludeArtifactIds ) );
+            logger.warn( "unable to find MavenPluginManager.setupPluginRealm() method" );
+            return;
         }
-        catch ( IllegalArgumentException e )
+
+        Object dependencyFilter = createExclusionsDependencyFilter( excludeArtifactIds );
+        try
         {
-            logger.warn( "IllegalArgumentException during MavenPluginManager.setupPluginRealm() call", e );
+            MavenPluginManagerMethods.SETUP_PLUGIN_REALM.invokeExact( (Object) mavenPluginManager,
+                                                                      (Object) pluginDescriptor, (Object) session,
+                                                                      (Object) parent, (Object) imports,
+                                                                      dependencyFilter );
         }
-        catch ( IllegalAccessException e )
+        catch ( PluginResolutionException | PluginContainerException e )
         {
-            logger.warn( "IllegalAccessException during MavenPluginManager.setupPluginRealm() call", e );
+            throw e;
         }
-        catch ( InvocationTargetException e )
+        catch ( ClassCastException e )
         {
-            Throwable target = e.getTargetException();
-            if ( target instanceof PluginResolutionException )
+            if ( MavenPluginManagerMethods.isApplicable( MavenPluginManager.class, "setupPluginRealm",
+                                                         mavenPluginManager, pluginDescriptor, session, parent,
+                                                         imports, dependencyFilter ) )
             {
-                throw (PluginResolutionException) target;
+                // thrown by the method itself
+                throw e;
             }
-            if ( target instanceof PluginContainerException )
+            // like IllegalArgumentException from reflective call
+            logger.warn( "wrong argument type in MavenPluginManager.setupPluginRealm() call", e );
+        }
+        catch ( RuntimeException | Error e )
+        {
+            throw e;
+        }
+        catch ( Throwable t )
+        {
+            logger.warn( "Exception during MavenPluginManager.setupPluginRealm() call", t );
+        }
+    }
+
+    /**
+     * Get statistics of the plugin descriptor cache.
+     *
+     * @return the plugin descriptor cache statistics
+     * @since 1.6
+     */
+    public CacheStatistics getPluginDescriptorCacheStatistics()
+    {
+        return pluginDescriptorCache.getStatistics();
+    }
+
+    /**
+     * Calculate a canonical key for a plugin: plugin coordinates, dependencies added to the plugin (for example
+     * from build.pluginManagement) and remote repositories the plugin is resolved from.
+     *
+     * @param plugin the plugin
+     * @param remoteRepositories the remote repositories
+     * @return the plugin key
+     */
+    static String getPluginKey( Plugin plugin, List<?> remoteRepositories )
+    {
+        StringBuilder key = new StringBuilder( plugin.getId() );
+
+        for ( Dependency dependency : plugin.getDependencies() )
+        {
+            key.append( '|' ).append( dependency.getManagementKey() ).append( ':' ).append( dependency.getVersion() );
+            key.append( ':' ).append( dependency.getScope() );
+            if ( dependency.isOptional() )
             {
-                throw (PluginContainerException) target;
+                key.append( ":optional" );
             }
-            if ( target instanceof RuntimeException )
+            for ( Exclusion exclusion : dependency.getExclusions() )
             {
-                throw (RuntimeException) target;
+                key.append( '!' ).append( exclusion.getGroupId() ).append( ':' ).append( exclusion.getArtifactId() );
             }
-            if ( target instanceof Error )
+        }
+
+        if ( remoteRepositories != null )
+        {
+            for ( Object remoteRepository : remoteRepositories )
             {
-                throw (Error) target;
+                key.append( '@' ).append( remoteRepository );
             }
-            logger.warn( "Exception during MavenPluginManager.setupPluginRealm() call", e );
         }
+
+        return key.toString();
     }
 }
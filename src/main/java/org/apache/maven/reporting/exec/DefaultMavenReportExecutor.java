@@ -19,16 +19,36 @@ package org.apache.maven.reporting.exec;
  * under the License.
  */
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Set;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.lifecycle.LifecycleExecutionException;
 import org.apache.maven.lifecycle.LifecycleExecutor;
-import org.apache.maven.model.Build;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.MavenPluginManager;
 import org.apache.maven.plugin.Mojo;
@@ -37,22 +57,23 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoNotFoundException;
 import org.apache.maven.plugin.PluginConfigurationException;
 import org.apache.maven.plugin.PluginContainerException;
+import org.apache.maven.plugin.PluginParameterExpressionEvaluator;
+import org.apache.maven.plugin.PluginResolutionException;
 import org.apache.maven.plugin.descriptor.MojoDescriptor;
 import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugin.version.DefaultPluginVersionRequest;
 import org.apache.maven.plugin.version.PluginVersionRequest;
 import org.apache.maven.plugin.version.PluginVersionResolutionException;
 import org.apache.maven.plugin.version.PluginVersionResolver;
-import org.apache.maven.plugin.version.PluginVersionResult;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.reporting.MavenReport;
 import org.apache.maven.shared.utils.StringUtils;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.component.repository.ComponentDescriptor;
 import org.codehaus.plexus.configuration.PlexusConfiguration;
 import org.codehaus.plexus.logging.Logger;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
-import org.codehaus.plexus.util.xml.Xpp3DomUtils;
 
 /**
  * <p>
@@ -78,7 +99,9 @@ import org.codehaus.plexus.util.xml.Xpp3DomUtils;
  * <li>get {@link PluginDescriptor} from the {@link MavenPluginManager} (through
  * {@link MavenPluginManagerHelper#getPluginDescriptor(Plugin, org.apache.maven.execution.MavenSession)
  * MavenPluginManagerHelper.getPluginDescriptor(...)} to protect from core API change)</li>
- * <li>setup a {@link ClassLoader}, with the Site plugin classloader as parent for the report execution. <br>
+ * <li>setup a {@link ClassLoader} once for every goal of the plugin, with the Site plugin classloader as parent for
+ * the report execution (or reuse the one set up for a previous module of the reactor, if
+ * {@link MavenReportExecutorRequest#isReactorRealmReuse() requested}). <br>
  * Notice that some classes are imported from the current Site plugin ClassRealm: see {@link #IMPORTS}. Corresponding
  * artifacts are excluded from the artifact resolution: <code>doxia-site-renderer</code>, <code>doxia-sink-api</code>
  *  and <code>maven-reporting-api</code>.<br>
@@ -96,7 +119,7 @@ import org.codehaus.plexus.util.xml.Xpp3DomUtils;
  */
 @Component( role = MavenReportExecutor.class )
 public class DefaultMavenReportExecutor
-    implements MavenReportExecutor
+    implements StreamingMavenReportExecutor
 {
     @Requirement
     private Logger logger;
@@ -126,9 +149,49 @@ public class DefaultMavenReportExecutor
     private static final List<String> EXCLUDES = Arrays.asList( "doxia-site-renderer", "doxia-sink-api",
                                                                 "maven-reporting-api" );
 
+    private final SessionScopedCache<PluginRealmKey, PluginRealm> pluginRealmCache = new SessionScopedCache<>();
+
+    private final MavenReportClassifier mavenReportClassifier = new MavenReportClassifier();
+
+    private final SessionScopedCache<String, FutureTask<String>> pluginVersionCache = new SessionScopedCache<>();
+
+    private final SessionScopedCache<String, Object> pluginVersionWarnings = new SessionScopedCache<>();
+
+    private final ConfigurationMerger configurationMerger = new ConfigurationMerger();
+
+    private final ArtifactChecksums artifactChecksums = new ArtifactChecksums();
+
+    private final ReportClassificationCache reportClassificationCache =
+        new ReportClassificationCache( artifactChecksums );
+
+    private final ReportFingerprints reportFingerprints = new ReportFingerprints( artifactChecksums );
+
+    private final ReportCacheKeyStrategy reportCacheKeyStrategy = new DefaultReportCacheKeyStrategy();
+
+    /**
+     * System property enabling the report preparation trace: its value is the trace file, written in Chrome trace
+     * event format, or in JSON lines format if the file name ends with <code>.jsonl</code>.
+     *
+     * @since 1.6
+     */
+    public static final String TRACE_PROPERTY = "maven.reporting.exec.trace";
+
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private final CopyOnWriteArrayList<ReportPreparationListener> reportPreparationListeners =
+        new CopyOnWriteArrayList<>();
+
     @Override
     public List<MavenReportExecution> buildMavenReports( MavenReportExecutorRequest mavenReportExecutorRequest )
         throws MojoExecutionException
+    {
+        return buildMavenReports( mavenReportExecutorRequest, null );
+    }
+
+    @Override
+    public List<MavenReportExecution> buildMavenReports( MavenReportExecutorRequest mavenReportExecutorRequest,
+                                                         MavenReportExecutionListener listener )
+        throws MojoExecutionException
     {
         if ( mavenReportExecutorRequest.getReportPlugins() == null )
         {
@@ -136,14 +199,62 @@ public class DefaultMavenReportExecutor
         }
         getLog().debug( "DefaultMavenReportExecutor.buildMavenReports()" );
 
+        checkReportFilter( mavenReportExecutorRequest );
+
+        ReportPreparationTraceRecorder recorder = openTraceRecorder();
+        try
+        {
+            long start = startStage();
+            List<MavenReportExecution> reportExecutions;
+            if ( mavenReportExecutorRequest.getThreadCount() > 1
+                && mavenReportExecutorRequest.getReportPlugins().length > 1 )
+            {
+                reportExecutions = buildReportPluginsConcurrently( mavenReportExecutorRequest, listener );
+            }
+            else
+            {
+                reportExecutions = buildReportPluginsSerially( mavenReportExecutorRequest, listener );
+            }
+            stageDone( ReportPreparationStage.PROJECT_REPORTS, mavenReportExecutorRequest, null, null, start );
+
+            return reportExecutions;
+        }
+        finally
+        {
+            closeTraceRecorder( recorder );
+        }
+    }
+
+    /**
+     * Prepare report plugins one after the other, after resolving them concurrently if
+     * {@link MavenReportExecutorRequest#getPrefetchThreadCount() requested}.
+     *
+     * @param mavenReportExecutorRequest the current report execution context
+     * @param listener the listener notified of each prepared report execution, or <code>null</code>
+     * @return the report executions, in declaration order
+     * @throws MojoExecutionException on first report plugin failure
+     */
+    private List<MavenReportExecution> buildReportPluginsSerially(
+        MavenReportExecutorRequest mavenReportExecutorRequest, MavenReportExecutionListener listener )
+        throws MojoExecutionException
+    {
         Set<String> reportPluginKeys = new HashSet<>();
         List<MavenReportExecution> reportExecutions = new ArrayList<>();
+        ConcurrentMap<String, FutureTask<Void>> forks = new ConcurrentHashMap<>();
+        ReportPreparedNotifier notifier = new ReportPreparedNotifier( listener );
+
+        ReportPlugin[] reportPlugins = mavenReportExecutorRequest.getReportPlugins();
+        if ( mavenReportExecutorRequest.getPrefetchThreadCount() > 1 && reportPlugins.length > 1 )
+        {
+            prefetchPluginDescriptors( mavenReportExecutorRequest );
+        }
 
         String pluginKey = "";
         try
         {
-            for ( ReportPlugin reportPlugin : mavenReportExecutorRequest.getReportPlugins() )
+            for ( int i = 0; i < reportPlugins.length; i++ )
             {
+                ReportPlugin reportPlugin = reportPlugins[i];
                 pluginKey = reportPlugin.getGroupId() + ':' + reportPlugin.getArtifactId();
 
                 if ( !reportPluginKeys.add( pluginKey ) )
@@ -151,221 +262,1204 @@ public class DefaultMavenReportExecutor
                     logger.info( "plugin " + pluginKey + " will be executed more than one time" );
                 }
 
-                reportExecutions.addAll( buildReportPlugin( mavenReportExecutorRequest, reportPlugin ) );
+                reportExecutions.addAll( buildReportPlugin( mavenReportExecutorRequest, reportPlugin,
+                                                            new ForkedExecutions( mavenReportExecutorRequest,
+                                                                                  forks, false, i,
+                                                                                  notifier ) ) );
             }
         }
         catch ( Exception e )
         {
+            closeReportExecutions( reportExecutions );
             throw new MojoExecutionException( "failed to get report for " + pluginKey, e );
         }
 
         return reportExecutions;
     }
 
-    protected List<MavenReportExecution> buildReportPlugin( MavenReportExecutorRequest mavenReportExecutorRequest,
-                                                            ReportPlugin reportPlugin )
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Report plugins are planned one after the other, after resolving them concurrently if
+     * {@link MavenReportExecutorRequest#getPrefetchThreadCount() requested}. Plugin realms are only set up for goals
+     * not found in the {@link MavenReportExecutorRequest#isClassificationCache() classification cache}.
+     * Incremental reporting is ignored: the plan is the same as with every report plugin prepared.
+     * </p>
+     */
+    @Override
+    public MavenReportPlan planMavenReports( MavenReportExecutorRequest mavenReportExecutorRequest )
+        throws MojoExecutionException
+    {
+        MavenProject project = mavenReportExecutorRequest.getProject();
+        String projectId = ( project == null ) ? null : project.getId();
+        List<MavenReportPlan.PlannedReport> plannedReports = new ArrayList<>();
+
+        ReportPlugin[] reportPlugins = mavenReportExecutorRequest.getReportPlugins();
+        if ( reportPlugins == null )
+        {
+            return new MavenReportPlan( projectId, plannedReports );
+        }
+        getLog().debug( "DefaultMavenReportExecutor.planMavenReports()" );
+
+        checkReportFilter( mavenReportExecutorRequest );
+
+        ReportPreparationTraceRecorder recorder = openTraceRecorder();
+        String pluginKey = "";
+        try
+        {
+            if ( mavenReportExecutorRequest.getPrefetchThreadCount() > 1 && reportPlugins.length > 1 )
+            {
+                prefetchPluginDescriptors( mavenReportExecutorRequest );
+            }
+
+            for ( ReportPlugin reportPlugin : reportPlugins )
+            {
+                pluginKey = reportPlugin.getGroupId() + ':' + reportPlugin.getArtifactId();
+                planReportPlugin( mavenReportExecutorRequest, reportPlugin, plannedReports );
+            }
+        }
+        catch ( Exception e )
+        {
+            throw new MojoExecutionException( "failed to plan report for " + pluginKey, e );
+        }
+        finally
+        {
+            closeTraceRecorder( recorder );
+        }
+
+        return new MavenReportPlan( projectId, plannedReports );
+    }
+
+    /**
+     * Plan the reports of a report plugin, with the same steps as
+     * {@link #buildReportPlugin(MavenReportExecutorRequest, ReportPlugin, ForkedExecutions)} but without
+     * configuring report mojos nor running forked executions.
+     *
+     * @param mavenReportExecutorRequest the current report execution context
+     * @param reportPlugin the report plugin
+     * @param plannedReports the planned reports, to add the reports of the report plugin to
+     * @throws Exception on any issue
+     */
+    private void planReportPlugin( MavenReportExecutorRequest mavenReportExecutorRequest, ReportPlugin reportPlugin,
+                                   List<MavenReportPlan.PlannedReport> plannedReports )
         throws Exception
     {
-        // step 1: prepare the plugin
+        ReportFilter reportFilter = mavenReportExecutorRequest.getReportFilter();
+        if ( reportFilter != null
+            && !reportFilter.includesPlugin( reportPlugin.getGroupId(), reportPlugin.getArtifactId() ) )
+        {
+            return;
+        }
+
         Plugin plugin = new Plugin();
         plugin.setGroupId( reportPlugin.getGroupId() );
         plugin.setArtifactId( reportPlugin.getArtifactId() );
+        long start = startStage();
         plugin.setVersion( resolvePluginVersion( reportPlugin, mavenReportExecutorRequest ) );
-        logger.info( "configuring report plugin " + plugin.getId() );
+        stageDone( ReportPreparationStage.VERSION_RESOLUTION, mavenReportExecutorRequest, plugin.getKey(), null,
+                   start );
 
         mergePluginToReportPlugin( mavenReportExecutorRequest, plugin, reportPlugin );
 
+        start = startStage();
         PluginDescriptor pluginDescriptor =
             mavenPluginManagerHelper.getPluginDescriptor( plugin, mavenReportExecutorRequest.getMavenSession() );
+        stageDone( ReportPreparationStage.DESCRIPTOR_RESOLUTION, mavenReportExecutorRequest, plugin.getKey(), null,
+                   start );
 
-        // step 2: prepare the goals
         List<GoalWithConf> goalsWithConfiguration = new ArrayList<>();
         boolean hasUserDefinedReports = prepareGoals( reportPlugin, pluginDescriptor, goalsWithConfiguration );
+        if ( reportFilter != null )
+        {
+            removeExcludedGoals( reportFilter, plugin, goalsWithConfiguration );
+        }
 
-        // step 3: prepare the reports
-        List<MavenReportExecution> reports = new ArrayList<>( goalsWithConfiguration.size() );
+        File classificationCacheDirectory = getClassificationCacheDirectory( mavenReportExecutorRequest );
+        if ( !hasUserDefinedReports && classificationCacheDirectory != null )
+        {
+            removeNonReportGoals( mavenReportExecutorRequest.getMavenSession(), classificationCacheDirectory,
+                                  pluginDescriptor, goalsWithConfiguration );
+        }
+
+        MavenProject project = mavenReportExecutorRequest.getProject();
+        boolean realmSetUp = false;
         for ( GoalWithConf report : goalsWithConfiguration )
         {
-            MavenReportExecution mavenReportExecution =
-                prepareReportExecution( mavenReportExecutorRequest, report, hasUserDefinedReports );
+            MojoDescriptor mojoDescriptor = pluginDescriptor.getMojo( report.getGoal() );
+            if ( mojoDescriptor == null )
+            {
+                throw new MojoNotFoundException( report.getGoal(), pluginDescriptor );
+            }
 
-            if ( mavenReportExecution != null )
+            if ( !hasUserDefinedReports && mojoDescriptor.isAggregator() && !canAggregate( project ) )
             {
-                // ok, report is ready to generate
-                reports.add( mavenReportExecution );
+                // aggregator mojos automatically added from plugin are only run at execution root
+                continue;
             }
-        }
 
-        if ( !reports.isEmpty() )
-        {
-            // log reports, either configured or detected
-            StringBuilder buff = new StringBuilder();
-            for ( MavenReportExecution mre : reports )
+            Boolean isMavenReport = null;
+            if ( classificationCacheDirectory != null )
             {
-                if ( buff.length() > 0 )
+                isMavenReport = getCachedClassification( mavenReportExecutorRequest.getMavenSession(),
+                                                         classificationCacheDirectory, pluginDescriptor,
+                                                         report.getGoal() );
+            }
+            if ( isMavenReport == null )
+            {
+                // classification from class files requires the realm
+                if ( !realmSetUp )
                 {
-                    buff.append( ", " );
+                    start = startStage();
+                    setupPluginRealm( mavenReportExecutorRequest, pluginDescriptor );
+                    stageDone( ReportPreparationStage.REALM_SETUP, mavenReportExecutorRequest, plugin.getKey(),
+                               null, start );
+                    realmSetUp = true;
                 }
-                buff.append( mre.getGoal() );
-            }
-            logger.info( reports.size() + " report" + ( reports.size() > 1 ? "s" : "" ) + " "
-                + ( hasUserDefinedReports ? "configured" : "detected" ) + " for " + plugin.getArtifactId() + ":"
-                + plugin.getVersion() + ": " + buff );
-        }
 
-        return reports;
-    }
+                MojoExecution mojoExecution =
+                    new MojoExecution( pluginDescriptor.getPlugin(), report.getGoal(), null );
+                mojoExecution.setMojoDescriptor( mojoDescriptor );
 
-    private boolean prepareGoals( ReportPlugin reportPlugin, PluginDescriptor pluginDescriptor,
-                               List<GoalWithConf> goalsWithConfiguration )
-    {
-        if ( reportPlugin.getReportSets().isEmpty() && reportPlugin.getReports().isEmpty() )
-        {
-            // by default, use every goal, which will be filtered later to only keep reporting goals
-            List<MojoDescriptor> mojoDescriptors = pluginDescriptor.getMojos();
-            for ( MojoDescriptor mojoDescriptor : mojoDescriptors )
-            {
-                goalsWithConfiguration.add( new GoalWithConf( reportPlugin, pluginDescriptor, mojoDescriptor.getGoal(),
-                                                              mojoDescriptor.getConfiguration() ) );
+                start = startStage();
+                isMavenReport = isMavenReport( mavenReportExecutorRequest, mojoExecution, pluginDescriptor );
+                stageDone( ReportPreparationStage.REPORT_CLASSIFICATION, mavenReportExecutorRequest,
+                           plugin.getKey(), report.getGoal(), start );
             }
 
-            return false;
+            if ( isMavenReport )
+            {
+                plannedReports.add( new MavenReportPlan.PlannedReport( plugin.getGroupId(),
+                                                                       plugin.getArtifactId(),
+                                                                       plugin.getVersion(), report.getGoal(),
+                                                                       hasUserDefinedReports,
+                                                                       mojoDescriptor.isAggregator(),
+                                                                       getForkKey( pluginDescriptor,
+                                                                                   mojoDescriptor ) ) );
+            }
         }
 
-        Set<String> goals = new HashSet<>();
-        for ( String report : reportPlugin.getReports() )
+        if ( classificationCacheDirectory != null && realmSetUp )
         {
-            if ( goals.add( report ) )
+            try
             {
-                goalsWithConfiguration.add( new GoalWithConf( reportPlugin, pluginDescriptor, report,
-                                                              reportPlugin.getConfiguration() ) );
+                reportClassificationCache.store( mavenReportExecutorRequest.getMavenSession(),
+                                                 classificationCacheDirectory, pluginDescriptor );
             }
-            else
+            catch ( IOException e )
             {
-                logger.warn( report + " report is declared twice in default reports" );
+                getLog().warn( "unable to store report classification of " + plugin.getId() + ": " + e.getMessage() );
             }
         }
+    }
 
-        for ( ReportSet reportSet : reportPlugin.getReportSets() )
+    private Boolean getCachedClassification( MavenSession session, File classificationCacheDirectory,
+                                             PluginDescriptor pluginDescriptor, String goal )
+    {
+        try
         {
-            goals = new HashSet<>();
-            for ( String report : reportSet.getReports() )
-            {
-                if ( goals.add( report ) )
-                {
-                    goalsWithConfiguration.add( new GoalWithConf( reportPlugin, pluginDescriptor, report,
-                                                                  reportSet.getConfiguration() ) );
-                }
-                else
-                {
-                    logger.warn( report + " report is declared twice in " + reportSet.getId() + " reportSet" );
-                }
-            }
+            return reportClassificationCache.isMavenReport( session, classificationCacheDirectory, pluginDescriptor,
+                                                            goal );
+        }
+        catch ( IOException e )
+        {
+            getLog().warn( "unable to use report classification of " + pluginDescriptor.getId() + ": "
+                + e.getMessage() );
+            return null;
         }
-
-        return true;
     }
 
-    private MavenReportExecution prepareReportExecution( MavenReportExecutorRequest mavenReportExecutorRequest,
-                                                         GoalWithConf report, boolean hasUserDefinedReports )
-        throws Exception
+    /**
+     * Parse include and exclude patterns of the request, and warn about include patterns matching no report plugin.
+     *
+     * @param mavenReportExecutorRequest the request
+     * @throws MojoExecutionException if a pattern is invalid
+     */
+    private void checkReportFilter( MavenReportExecutorRequest mavenReportExecutorRequest )
+        throws MojoExecutionException
     {
-        ReportPlugin reportPlugin = report.getReportPlugin();
-        PluginDescriptor pluginDescriptor = report.getPluginDescriptor();
+        ReportFilter reportFilter;
+        try
+        {
+            reportFilter = mavenReportExecutorRequest.getReportFilter();
+        }
+        catch ( IllegalArgumentException e )
+        {
+            throw new MojoExecutionException( e.getMessage(), e );
+        }
 
-        MojoDescriptor mojoDescriptor = pluginDescriptor.getMojo( report.getGoal() );
-        if ( mojoDescriptor == null )
+        if ( reportFilter != null )
         {
-            throw new MojoNotFoundException( report.getGoal(), pluginDescriptor );
+            for ( String warning : reportFilter.checkIncludes( mavenReportExecutorRequest.getReportPlugins() ) )
+            {
+                getLog().warn( warning );
+            }
         }
+    }
 
-        MavenProject project = mavenReportExecutorRequest.getProject();
-        if ( !hasUserDefinedReports && mojoDescriptor.isAggregator() && !canAggregate( project ) )
+    /**
+     * Open the trace recorder for a top-level call if the {@value #TRACE_PROPERTY} system property is set: nested calls
+     * and concurrent calls share the recorder, which is closed by the last one.
+     *
+     * @return the recorder to close at the end of the call, or <code>null</code> if no trace is recorded
+     */
+    private ReportPreparationTraceRecorder openTraceRecorder()
+    {
+        String trace = System.getProperty( TRACE_PROPERTY );
+        if ( StringUtils.isEmpty( trace ) )
         {
-            // aggregator mojos automatically added from plugin are only run at execution root
             return null;
         }
 
-        MojoExecution mojoExecution = new MojoExecution( pluginDescriptor.getPlugin(), report.getGoal(), null );
+        ReportPreparationTraceRecorder recorder = ReportPreparationTraceRecorder.open( new File( trace ) );
+        if ( reportPreparationListeners.addIfAbsent( recorder ) && getLog().isDebugEnabled() )
+        {
+            getLog().debug( "recording report preparation trace to " + recorder.getFile() );
+        }
+        return recorder;
+    }
 
-        mojoExecution.setMojoDescriptor( mojoDescriptor );
+    private void closeTraceRecorder( ReportPreparationTraceRecorder recorder )
+    {
+        if ( recorder != null && recorder.close() )
+        {
+            reportPreparationListeners.remove( recorder );
+        }
+    }
 
-        mavenPluginManagerHelper.setupPluginRealm( pluginDescriptor, mavenReportExecutorRequest.getMavenSession(),
-                                                   Thread.currentThread().getContextClassLoader(), IMPORTS,
-                                                   EXCLUDES );
+    /**
+     * Build the {@link org.apache.maven.reporting.MavenReport}s of many projects sharing the same session, with
+     * associated forked executions if necessary.
+     * <p>
+     * Projects are prepared one after the other, each one being the session current project while it is prepared.
+     * Session scoped caches (plugin versions, plugin descriptors and, with reactor realm reuse, plugin realms) are
+     * shared by every project, as are report classifications and merged configurations. If the reports of a project
+     * can't be prepared, the report executions of the previous projects are closed.
+     * </p>
+     *
+     * @param mavenReportExecutorBatchRequest the batch request
+     * @return the prepared Maven report executions of each project, in the order projects were added to the batch
+     * @throws MojoExecutionException on report execution issue
+     * @since 1.6
+     */
+    public Map<MavenProject, List<MavenReportExecution>> buildMavenReports(
+        MavenReportExecutorBatchRequest mavenReportExecutorBatchRequest )
+        throws MojoExecutionException
+    {
+        MavenSession session = mavenReportExecutorBatchRequest.getMavenSession();
+        MavenProject currentProject = session.getCurrentProject();
 
-        if ( !isMavenReport( mojoExecution, pluginDescriptor ) )
+        Map<MavenProject, List<MavenReportExecution>> reportExecutions = new LinkedHashMap<>();
+        // one trace recorder for every project
+        ReportPreparationTraceRecorder recorder = openTraceRecorder();
+        boolean prepared = false;
+        try
         {
-            if ( hasUserDefinedReports )
+            for ( MavenProject project : mavenReportExecutorBatchRequest.getProjects() )
             {
-                // reports were explicitly written in the POM
-                logger.warn( "ignoring " + mojoExecution.getPlugin().getId() + ':' + report.getGoal()
-                    + " goal since it is not a report: should be removed from reporting configuration in POM" );
+                getLog().debug( "preparing reports for " + project.getId() );
+
+                session.setCurrentProject( project );
+                reportExecutions.put( project,
+                                      buildMavenReports( mavenReportExecutorBatchRequest.newRequest( project ) ) );
             }
-            return null;
+            prepared = true;
         }
-
-        Xpp3Dom pluginMgmtConfiguration = null;
-        if ( project.getBuild() != null && project.getBuild().getPluginManagement() != null )
+        finally
         {
-            Plugin pluginMgmt = find( reportPlugin, project.getBuild().getPluginManagement().getPlugins() );
-
-            if ( pluginMgmt != null )
+            if ( !prepared )
             {
-                pluginMgmtConfiguration = (Xpp3Dom) pluginMgmt.getConfiguration();
+                for ( List<MavenReportExecution> projectReportExecutions : reportExecutions.values() )
+                {
+                    closeReportExecutions( projectReportExecutions );
+                }
             }
+            session.setCurrentProject( currentProject );
+            closeTraceRecorder( recorder );
         }
 
-        mojoExecution.setConfiguration( mergeConfiguration( mojoDescriptor.getMojoConfiguration(),
-                                                            pluginMgmtConfiguration,
-                                                            reportPlugin.getConfiguration(),
-                                                            report.getConfiguration(),
-                                                            mojoDescriptor.getParameterMap().keySet() ) );
-
-        MavenReport mavenReport =
-            getConfiguredMavenReport( mojoExecution, pluginDescriptor, mavenReportExecutorRequest );
-
-        MavenReportExecution mavenReportExecution =
-            new MavenReportExecution( report.getGoal(), mojoExecution.getPlugin(), mavenReport,
-                                      pluginDescriptor.getClassRealm() );
+        return reportExecutions;
+    }
 
-        lifecycleExecutor.calculateForkedExecutions( mojoExecution,
-                                                     mavenReportExecutorRequest.getMavenSession() );
+    /**
+     * Prepare report plugins concurrently, using {@link MavenReportExecutorRequest#getThreadCount()} threads.
+     * Forked executions modify the session current project, then they can't run while other report plugins are
+     * prepared: they are deferred until every report plugin has been prepared, then executed in declaration order.
+     * On failure, report plugins not started yet are skipped, and every report execution prepared is closed once
+     * the report plugins already started are done: they are not interrupted, to be left in a state that can be closed.
+     *
+     * @param mavenReportExecutorRequest the current report execution context
+     * @param listener the listener notified of each prepared report execution, or <code>null</code>
+     * @return the report executions, in declaration order
+     * @throws MojoExecutionException on first report plugin failure, in declaration order
+     */
+    private List<MavenReportExecution> buildReportPluginsConcurrently(
+        final MavenReportExecutorRequest mavenReportExecutorRequest, MavenReportExecutionListener listener )
+        throws MojoExecutionException
+    {
+        ReportPlugin[] reportPlugins = mavenReportExecutorRequest.getReportPlugins();
+        String[] pluginKeys = new String[reportPlugins.length];
 
-        if ( !mojoExecution.getForkedExecutions().isEmpty() )
+        Set<String> reportPluginKeys = new HashSet<>();
+        for ( int i = 0; i < reportPlugins.length; i++ )
         {
-            String reportDescription = pluginDescriptor.getArtifactId() + ":" + report.getGoal() + " report";
+            pluginKeys[i] = reportPlugins[i].getGroupId() + ':' + reportPlugins[i].getArtifactId();
 
-            String execution;
-            if ( StringUtils.isNotEmpty( mojoDescriptor.getExecutePhase() ) )
-            {
-                // forked phase
-                execution = "'"
-                    + ( StringUtils.isEmpty( mojoDescriptor.getExecuteLifecycle() ) ? ""
-                                    : ( '[' + mojoDescriptor.getExecuteLifecycle() + ']' ) )
-                    + mojoDescriptor.getExecutePhase() + "' forked phase execution";
-            }
-            else
+            if ( !reportPluginKeys.add( pluginKeys[i] ) )
             {
-                // forked goal
-                execution = "'" + mojoDescriptor.getExecuteGoal() + "' forked goal execution";
+                logger.info( "plugin " + pluginKeys[i] + " will be executed more than one time" );
             }
+        }
 
-            logger.info( "preparing " + reportDescription + " requires " + execution );
+        int threadCount = Math.min( mavenReportExecutorRequest.getThreadCount(), reportPlugins.length );
+        getLog().debug( "preparing " + reportPlugins.length + " report plugins with " + threadCount + " threads" );
 
-            lifecycleExecutor.executeForkedExecutions( mojoExecution,
-                                                       mavenReportExecutorRequest.getMavenSession() );
+        // the site plugin realm is used as parent for report plugins realms
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
 
-            logger.info( execution + " for " + reportDescription + " preparation done" );
-        }
+        MavenSession session = mavenReportExecutorRequest.getMavenSession();
+        MavenProject currentProject = session.getCurrentProject();
 
-        return mavenReportExecution;
-    }
+        // forks are executed by this thread only, once every report plugin has been prepared
+        ConcurrentMap<String, FutureTask<Void>> forks = new ConcurrentHashMap<>();
+        ReportPreparedNotifier notifier = new ReportPreparedNotifier( listener );
+        List<ForkedExecutions> forkedExecutions = new ArrayList<>( reportPlugins.length );
+        List<Future<List<MavenReportExecution>>> futures = new ArrayList<>( reportPlugins.length );
 
-    private boolean canAggregate( MavenProject project )
-    {
-        return project.isExecutionRoot() && "pom".equals( project.getPackaging() ) && ( project.getModules() != null )
-            && !project.getModules().isEmpty();
+        List<MavenReportExecution> reportExecutions = new ArrayList<>();
+        int collected = 0;
+        boolean prepared = false;
+        final AtomicBoolean aborted = new AtomicBoolean();
+
+        ExecutorService executorService =
+            Executors.newFixedThreadPool( threadCount, newThreadFactory( "report-preparation-", contextClassLoader ) );
+        try
+        {
+            for ( int i = 0; i < reportPlugins.length; i++ )
+            {
+                final ReportPlugin reportPlugin = reportPlugins[i];
+                final ForkedExecutions pluginForkedExecutions =
+                    new ForkedExecutions( mavenReportExecutorRequest, forks, true, i, notifier );
+                forkedExecutions.add( pluginForkedExecutions );
+
+                Callable<List<MavenReportExecution>> task = new Callable<List<MavenReportExecution>>()
+                {
+                    @Override
+                    public List<MavenReportExecution> call()
+                        throws Exception
+                    {
+                        if ( aborted.get() )
+                        {
+                            return Collections.emptyList();
+                        }
+                        return buildReportPlugin( mavenReportExecutorRequest, reportPlugin, pluginForkedExecutions );
+                    }
+                };
+                futures.add( executorService.submit( new CurrentProjectTask<>( session, currentProject, task ) ) );
+            }
+
+            for ( int i = 0; i < reportPlugins.length; i++ )
+            {
+                try
+                {
+                    reportExecutions.addAll( futures.get( i ).get() );
+                    collected++;
+                }
+                catch ( ExecutionException e )
+                {
+                    throw new MojoExecutionException( "failed to get report for " + pluginKeys[i], e.getCause() );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    throw new MojoExecutionException( "interrupted while preparing report for " + pluginKeys[i], e );
+                }
+            }
+
+            // every report plugin is prepared: forked executions can be run
+            for ( int i = 0; i < reportPlugins.length; i++ )
+            {
+                try
+                {
+                    forkedExecutions.get( i ).executeDeferred();
+                }
+                catch ( Exception e )
+                {
+                    throw new MojoExecutionException( "failed to get report for " + pluginKeys[i], e );
+                }
+            }
+
+            prepared = true;
+            return reportExecutions;
+        }
+        finally
+        {
+            aborted.set( !prepared );
+            executorService.shutdown();
+            if ( !prepared )
+            {
+                closeReportExecutions( reportExecutions );
+                for ( Future<List<MavenReportExecution>> future : futures.subList( collected, futures.size() ) )
+                {
+                    closeReportExecutions( future );
+                }
+            }
+        }
+    }
+
+    /**
+     * Close the report executions of a report plugin prepared concurrently, once it is done.
+     *
+     * @param future the report plugin preparation
+     */
+    private void closeReportExecutions( Future<List<MavenReportExecution>> future )
+    {
+        try
+        {
+            closeReportExecutions( future.get() );
+        }
+        catch ( ExecutionException e )
+        {
+            // failed: nothing to close
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            getLog().debug( "interrupted before report executions could be closed" );
+        }
+    }
+
+    /**
+     * Close report executions already prepared when another report can't be prepared, to release their report mojos.
+     *
+     * @param reportExecutions the report executions to close
+     */
+    private void closeReportExecutions( Collection<MavenReportExecution> reportExecutions )
+    {
+        for ( MavenReportExecution reportExecution : reportExecutions )
+        {
+            try
+            {
+                reportExecution.close();
+            }
+            catch ( RuntimeException e )
+            {
+                getLog().debug( "unable to close report execution of " + reportExecution.getPlugin().getId() + ": "
+                    + e.getMessage() );
+            }
+        }
+    }
+
+    /**
+     * Resolve versions and descriptors of report plugins concurrently, using
+     * {@link MavenReportExecutorRequest#getPrefetchThreadCount()} threads, before they are prepared serially: the
+     * plugin POMs and JARs are downloaded in parallel, and resolved descriptors are kept in the session cache of
+     * {@link MavenPluginManagerHelper}. Failures are only logged in debug, since preparing the plugin reports them.
+     *
+     * @param mavenReportExecutorRequest the current report execution context
+     */
+    private void prefetchPluginDescriptors( final MavenReportExecutorRequest mavenReportExecutorRequest )
+    {
+        ReportPlugin[] reportPlugins = mavenReportExecutorRequest.getReportPlugins();
+        int threadCount = Math.min( mavenReportExecutorRequest.getPrefetchThreadCount(), reportPlugins.length );
+        getLog().debug( "prefetching " + reportPlugins.length + " report plugins with " + threadCount + " threads" );
+
+        final MavenSession session = mavenReportExecutorRequest.getMavenSession();
+        ReportFilter reportFilter = mavenReportExecutorRequest.getReportFilter();
+        List<Callable<Void>> tasks = new ArrayList<>( reportPlugins.length );
+        Set<String> reportPluginKeys = new HashSet<>();
+        for ( final ReportPlugin reportPlugin : reportPlugins )
+        {
+            if ( reportFilter != null
+                && !reportFilter.includesPlugin( reportPlugin.getGroupId(), reportPlugin.getArtifactId() ) )
+            {
+                continue;
+            }
+            if ( !reportPluginKeys.add( reportPlugin.getGroupId() + ':' + reportPlugin.getArtifactId() ) )
+            {
+                // a plugin executed more than one time is resolved once
+                continue;
+            }
+
+            tasks.add( new CurrentProjectTask<>( session, session.getCurrentProject(), new Callable<Void>()
+            {
+                @Override
+                public Void call()
+                {
+                    Plugin plugin = new Plugin();
+                    plugin.setGroupId( reportPlugin.getGroupId() );
+                    plugin.setArtifactId( reportPlugin.getArtifactId() );
+                    try
+                    {
+                        plugin.setVersion( resolvePluginVersion( reportPlugin, mavenReportExecutorRequest ) );
+                        mergePluginToReportPlugin( mavenReportExecutorRequest, plugin, reportPlugin );
+                        mavenPluginManagerHelper.getPluginDescriptor( plugin, session );
+                    }
+                    catch ( Exception e )
+                    {
+                        getLog().debug( "unable to prefetch report plugin " + plugin.getId() + ": " + e.getMessage() );
+                    }
+                    return null;
+                }
+            } ) );
+        }
+
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        ExecutorService executorService =
+            Executors.newFixedThreadPool( threadCount, newThreadFactory( "report-prefetch-", contextClassLoader ) );
+        try
+        {
+            // wait for every prefetch, since descriptors are shared once cached
+            executorService.invokeAll( tasks );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Create the factory of threads used to prepare report plugins.
+     *
+     * @param prefix the thread name prefix
+     * @param contextClassLoader the context classloader of the threads, used as parent for report plugins realms
+     * @return the thread factory
+     */
+    private static ThreadFactory newThreadFactory( final String prefix, final ClassLoader contextClassLoader )
+    {
+        return new ThreadFactory()
+        {
+            private final AtomicInteger threadNumber = new AtomicInteger();
+
+            @Override
+            public Thread newThread( Runnable r )
+            {
+                Thread thread = new Thread( r, prefix + threadNumber.incrementAndGet() );
+                thread.setDaemon( true );
+                thread.setContextClassLoader( contextClassLoader );
+                return thread;
+            }
+        };
+    }
+
+    protected List<MavenReportExecution> buildReportPlugin( MavenReportExecutorRequest mavenReportExecutorRequest,
+                                                            ReportPlugin reportPlugin )
+        throws Exception
+    {
+        return buildReportPlugin( mavenReportExecutorRequest, reportPlugin,
+                                  new ForkedExecutions( mavenReportExecutorRequest,
+                                                        new ConcurrentHashMap<String, FutureTask<Void>>(),
+                                                        false, 0, new ReportPreparedNotifier( null ) ) );
+    }
+
+    /**
+     * Build report executions for a report plugin.
+     *
+     * @param mavenReportExecutorRequest the current report execution context
+     * @param reportPlugin the report plugin
+     * @param forkedExecutions the forked executions of the report plugin, run immediately or deferred, that notify
+     *            reports prepared
+     * @return the report executions for the report plugin
+     * @throws Exception on any issue
+     */
+    private List<MavenReportExecution> buildReportPlugin( MavenReportExecutorRequest mavenReportExecutorRequest,
+                                                          ReportPlugin reportPlugin,
+                                                          ForkedExecutions forkedExecutions )
+        throws Exception
+    {
+        long start = startStage();
+        List<MavenReportExecution> reports =
+            prepareReportPlugin( mavenReportExecutorRequest, reportPlugin, forkedExecutions );
+        stageDone( ReportPreparationStage.REPORT_PLUGIN, mavenReportExecutorRequest,
+                   reportPlugin.getGroupId() + ':' + reportPlugin.getArtifactId(), null, start );
+        return reports;
+    }
+
+    private List<MavenReportExecution> prepareReportPlugin( MavenReportExecutorRequest mavenReportExecutorRequest,
+                                                            ReportPlugin reportPlugin,
+                                                            ForkedExecutions forkedExecutions )
+        throws Exception
+    {
+        ReportFilter reportFilter = mavenReportExecutorRequest.getReportFilter();
+        if ( reportFilter != null
+            && !reportFilter.includesPlugin( reportPlugin.getGroupId(), reportPlugin.getArtifactId() ) )
+        {
+            logger.debug( "skipping report plugin " + reportPlugin + ": excluded" );
+            return Collections.emptyList();
+        }
+
+        // step 1: prepare the plugin
+        Plugin plugin = new Plugin();
+        plugin.setGroupId( reportPlugin.getGroupId() );
+        plugin.setArtifactId( reportPlugin.getArtifactId() );
+        long start = startStage();
+        plugin.setVersion( resolvePluginVersion( reportPlugin, mavenReportExecutorRequest ) );
+        stageDone( ReportPreparationStage.VERSION_RESOLUTION, mavenReportExecutorRequest, plugin.getKey(), null,
+                   start );
+        logger.info( "configuring report plugin " + plugin.getId() );
+
+        mergePluginToReportPlugin( mavenReportExecutorRequest, plugin, reportPlugin );
+
+        start = startStage();
+        PluginDescriptor pluginDescriptor =
+            mavenPluginManagerHelper.getPluginDescriptor( plugin, mavenReportExecutorRequest.getMavenSession() );
+        stageDone( ReportPreparationStage.DESCRIPTOR_RESOLUTION, mavenReportExecutorRequest, plugin.getKey(), null,
+                   start );
+
+        // incremental reporting: reuse previous output if inputs have not changed
+        File fingerprintFile = null;
+        String fingerprint = null;
+        if ( mavenReportExecutorRequest.isIncremental() )
+        {
+            try
+            {
+                fingerprintFile = reportFingerprints.getFile( mavenReportExecutorRequest.getProject(), reportPlugin );
+                fingerprint = ( fingerprintFile == null ) ? null
+                                : reportFingerprints.fingerprint( mavenReportExecutorRequest.getMavenSession(),
+                                                                  mavenReportExecutorRequest.getProject(),
+                                                                  reportPlugin, plugin, pluginDescriptor );
+                if ( fingerprint != null )
+                {
+                    List<String> previousReports = reportFingerprints.getPreviousReports( fingerprintFile,
+                                                                                          fingerprint );
+                    if ( previousReports != null )
+                    {
+                        return reusePreviousOutput( plugin, filterGoals( reportFilter, plugin, previousReports ),
+                                                    forkedExecutions );
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                getLog().warn( "unable to check fingerprint of " + plugin.getId() + ": " + e.getMessage() );
+                fingerprint = null;
+            }
+        }
+
+        // step 2: prepare the goals
+        List<GoalWithConf> goalsWithConfiguration = new ArrayList<>();
+        boolean hasUserDefinedReports = prepareGoals( reportPlugin, pluginDescriptor, goalsWithConfiguration );
+        if ( reportFilter != null )
+        {
+            removeExcludedGoals( reportFilter, plugin, goalsWithConfiguration );
+
+            // stored reports would be a subset of the reports of the plugin
+            fingerprint = null;
+        }
+
+        File classificationCacheDirectory = getClassificationCacheDirectory( mavenReportExecutorRequest );
+        if ( !hasUserDefinedReports && classificationCacheDirectory != null )
+        {
+            // goals detected from the plugin: skip those already known as not reports before setting up the realm
+            removeNonReportGoals( mavenReportExecutorRequest.getMavenSession(), classificationCacheDirectory,
+                                  pluginDescriptor, goalsWithConfiguration );
+        }
+
+        // step 3: setup the plugin realm, once for every goal
+        if ( !goalsWithConfiguration.isEmpty() )
+        {
+            start = startStage();
+            setupPluginRealm( mavenReportExecutorRequest, pluginDescriptor );
+            stageDone( ReportPreparationStage.REALM_SETUP, mavenReportExecutorRequest, plugin.getKey(), null, start );
+        }
+
+        // step 4: prepare the reports
+        List<MavenReportExecution> reports = new ArrayList<>( goalsWithConfiguration.size() );
+        for ( GoalWithConf report : goalsWithConfiguration )
+        {
+            int deferredCount = forkedExecutions.getDeferredCount();
+
+            start = startStage();
+            MavenReportExecution mavenReportExecution =
+                prepareReportExecution( mavenReportExecutorRequest, report, hasUserDefinedReports,
+                                        forkedExecutions );
+            stageDone( ReportPreparationStage.REPORT_GOAL, mavenReportExecutorRequest, plugin.getKey(),
+                       report.getGoal(), start );
+
+            if ( mavenReportExecution != null )
+            {
+                // ok, report is ready to generate
+                reports.add( mavenReportExecution );
+
+                // unless its forked execution has been deferred
+                forkedExecutions.reportPrepared( reports.size() - 1, mavenReportExecution,
+                                                 forkedExecutions.getDeferredCount() > deferredCount );
+            }
+        }
+
+        if ( fingerprint != null )
+        {
+            // stored once every report has been generated
+            reportFingerprints.pending( fingerprintFile, fingerprint, reports, getLog() );
+        }
+
+        if ( classificationCacheDirectory != null )
+        {
+            try
+            {
+                reportClassificationCache.store( mavenReportExecutorRequest.getMavenSession(),
+                                                 classificationCacheDirectory, pluginDescriptor );
+            }
+            catch ( IOException e )
+            {
+                getLog().warn( "unable to store report classification of " + plugin.getId() + ": " + e.getMessage() );
+            }
+        }
+
+        if ( !reports.isEmpty() )
+        {
+            // log reports, either configured or detected
+            StringBuilder buff = new StringBuilder();
+            for ( MavenReportExecution mre : reports )
+            {
+                if ( buff.length() > 0 )
+                {
+                    buff.append( ", " );
+                }
+                buff.append( mre.getGoal() );
+            }
+            logger.info( reports.size() + " report" + ( reports.size() > 1 ? "s" : "" ) + " "
+                + ( hasUserDefinedReports ? "configured" : "detected" ) + " for " + plugin.getArtifactId() + ":"
+                + plugin.getVersion() + ": " + buff );
+        }
+
+        return reports;
+    }
+
+    /**
+     * Create report executions reusing previous output, for a report plugin with unchanged inputs.
+     *
+     * @param plugin the report plugin
+     * @param previousReports the goals of the reports prepared in previous build
+     * @param forkedExecutions the forked executions of the report plugin, that notify reports prepared
+     * @return the report executions
+     */
+    private List<MavenReportExecution> reusePreviousOutput( Plugin plugin, List<String> previousReports,
+                                                            ForkedExecutions forkedExecutions )
+    {
+        logger.info( "report plugin " + plugin.getId() + " inputs have not changed: reusing previous output of "
+            + previousReports );
+
+        List<MavenReportExecution> reports = new ArrayList<>( previousReports.size() );
+        for ( String goal : previousReports )
+        {
+            MavenReportExecution mavenReportExecution = new MavenReportExecution( goal, plugin, null, null );
+            mavenReportExecution.setReusePreviousOutput( true );
+            reports.add( mavenReportExecution );
+
+            forkedExecutions.reportPrepared( reports.size() - 1, mavenReportExecution, false );
+        }
+        return reports;
+    }
+
+    /**
+     * Setup the plugin realm, with the current thread context classloader as parent. If reactor realm reuse is
+     * enabled, a realm already set up in the session for the same plugin, dependencies, remote repositories and
+     * parent classloader is reused without asking {@link MavenPluginManager}.
+     *
+     * @param mavenReportExecutorRequest the current report execution context
+     * @param pluginDescriptor the plugin descriptor
+     * @throws PluginResolutionException on resolution issue
+     * @throws PluginContainerException on issue with configuration
+     * @see MavenReportExecutorRequest#isReactorRealmReuse()
+     */
+    private void setupPluginRealm( MavenReportExecutorRequest mavenReportExecutorRequest,
+                                   PluginDescriptor pluginDescriptor )
+        throws PluginResolutionException, PluginContainerException
+    {
+        MavenSession session = mavenReportExecutorRequest.getMavenSession();
+        ClassLoader parent = Thread.currentThread().getContextClassLoader();
+
+        if ( !mavenReportExecutorRequest.isReactorRealmReuse() )
+        {
+            mavenPluginManagerHelper.setupPluginRealm( pluginDescriptor, session, parent, IMPORTS, EXCLUDES );
+            return;
+        }
+
+        PluginRealmKey key =
+            new PluginRealmKey( DefaultMavenPluginManagerHelper.getPluginKey( pluginDescriptor.getPlugin(),
+                                    session.getCurrentProject().getRemotePluginRepositories() ), parent );
+
+        PluginRealm pluginRealm = pluginRealmCache.get( session, key );
+        if ( pluginRealm == null )
+        {
+            mavenPluginManagerHelper.setupPluginRealm( pluginDescriptor, session, parent, IMPORTS, EXCLUDES );
+
+            if ( pluginDescriptor.getClassRealm() != null )
+            {
+                pluginRealmCache.putIfAbsent( session, key, new PluginRealm( pluginDescriptor.getClassRealm(),
+                                                                            pluginDescriptor.getArtifacts() ) );
+            }
+        }
+        else
+        {
+            if ( getLog().isDebugEnabled() )
+            {
+                getLog().debug( "reusing realm " + pluginRealm.getClassRealm().getId() + " for "
+                    + pluginDescriptor.getId() );
+            }
+
+            // same as MavenPluginManager when its own realm cache is hit
+            pluginDescriptor.setClassRealm( pluginRealm.getClassRealm() );
+            pluginDescriptor.setArtifacts( pluginRealm.getArtifacts() );
+            for ( ComponentDescriptor<?> componentDescriptor : pluginDescriptor.getComponents() )
+            {
+                componentDescriptor.setRealm( pluginRealm.getClassRealm() );
+            }
+        }
+    }
+
+    /**
+     * Add a listener notified each time a report preparation stage is done. When no listener is registered, stages
+     * are not timed. Adding an already registered listener has no effect.
+     *
+     * @param listener the listener to add
+     * @since 1.6
+     */
+    public void addReportPreparationListener( ReportPreparationListener listener )
+    {
+        reportPreparationListeners.addIfAbsent( listener );
+    }
+
+    /**
+     * Remove a listener previously added.
+     *
+     * @param listener the listener to remove
+     * @since 1.6
+     */
+    public void removeReportPreparationListener( ReportPreparationListener listener )
+    {
+        reportPreparationListeners.remove( listener );
+    }
+
+    private long startStage()
+    {
+        return reportPreparationListeners.isEmpty() ? NOT_TIMED : System.nanoTime();
+    }
+
+    private void stageDone( ReportPreparationStage stage, MavenReportExecutorRequest mavenReportExecutorRequest,
+                            String pluginKey, String goal, long start )
+    {
+        if ( start == NOT_TIMED )
+        {
+            // no listener when the stage started
+            return;
+        }
+
+        ReportPreparationEvent event = new ReportPreparationEvent( stage, pluginKey, goal,
+                                                                   mavenReportExecutorRequest.getProject(), start,
+                                                                   System.nanoTime() - start );
+        for ( ReportPreparationListener listener : reportPreparationListeners )
+        {
+            try
+            {
+                listener.stageDone( event );
+            }
+            catch ( RuntimeException e )
+            {
+                logger.warn( "report preparation listener " + listener + " failed on " + event, e );
+            }
+        }
+    }
+
+    /**
+     * Get statistics of the reactor realm reuse.
+     *
+     * @return the realm reuse statistics
+     * @since 1.6
+     */
+    public CacheStatistics getPluginRealmCacheStatistics()
+    {
+        return pluginRealmCache.getStatistics();
+    }
+
+    /**
+     * Get statistics of the merged configurations memoization.
+     *
+     * @return the merged configuration cache statistics
+     * @since 1.6
+     */
+    public CacheStatistics getConfigurationCacheStatistics()
+    {
+        return configurationMerger.getStatistics();
+    }
+
+    /**
+     * Get statistics of the plugin version cache, used for report plugins without version.
+     *
+     * @return the plugin version cache statistics
+     * @since 1.6
+     */
+    public CacheStatistics getPluginVersionCacheStatistics()
+    {
+        return pluginVersionCache.getStatistics();
+    }
+
+    private boolean prepareGoals( ReportPlugin reportPlugin, PluginDescriptor pluginDescriptor,
+                               List<GoalWithConf> goalsWithConfiguration )
+    {
+        if ( reportPlugin.getReportSets().isEmpty() && reportPlugin.getReports().isEmpty() )
+        {
+            // by default, use every goal, which will be filtered later to only keep reporting goals
+            List<MojoDescriptor> mojoDescriptors = pluginDescriptor.getMojos();
+            for ( MojoDescriptor mojoDescriptor : mojoDescriptors )
+            {
+                goalsWithConfiguration.add( new GoalWithConf( reportPlugin, pluginDescriptor, mojoDescriptor.getGoal(),
+                                                              mojoDescriptor.getConfiguration() ) );
+            }
+
+            return false;
+        }
+
+        Set<String> goals = new HashSet<>();
+        for ( String report : reportPlugin.getReports() )
+        {
+            if ( goals.add( report ) )
+            {
+                goalsWithConfiguration.add( new GoalWithConf( reportPlugin, pluginDescriptor, report,
+                                                              reportPlugin.getConfiguration() ) );
+            }
+            else
+            {
+                logger.warn( report + " report is declared twice in default reports" );
+            }
+        }
+
+        for ( ReportSet reportSet : reportPlugin.getReportSets() )
+        {
+            goals = new HashSet<>();
+            for ( String report : reportSet.getReports() )
+            {
+                if ( goals.add( report ) )
+                {
+                    goalsWithConfiguration.add( new GoalWithConf( reportPlugin, pluginDescriptor, report,
+                                                                  reportSet.getConfiguration() ) );
+                }
+                else
+                {
+                    logger.warn( report + " report is declared twice in " + reportSet.getId() + " reportSet" );
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private MavenReportExecution prepareReportExecution( final MavenReportExecutorRequest mavenReportExecutorRequest,
+                                                         GoalWithConf report, boolean hasUserDefinedReports,
+                                                         final ForkedExecutions forkedExecutions )
+        throws Exception
+    {
+        ReportPlugin reportPlugin = report.getReportPlugin();
+        final PluginDescriptor pluginDescriptor = report.getPluginDescriptor();
+
+        MojoDescriptor mojoDescriptor = pluginDescriptor.getMojo( report.getGoal() );
+        if ( mojoDescriptor == null )
+        {
+            throw new MojoNotFoundException( report.getGoal(), pluginDescriptor );
+        }
+
+        MavenProject project = mavenReportExecutorRequest.getProject();
+        if ( !hasUserDefinedReports && mojoDescriptor.isAggregator() && !canAggregate( project ) )
+        {
+            // aggregator mojos automatically added from plugin are only run at execution root
+            return null;
+        }
+
+        final MojoExecution mojoExecution = new MojoExecution( pluginDescriptor.getPlugin(), report.getGoal(), null );
+
+        mojoExecution.setMojoDescriptor( mojoDescriptor );
+
+        long start = startStage();
+        boolean isMavenReport = isMavenReport( mavenReportExecutorRequest, mojoExecution, pluginDescriptor );
+        stageDone( ReportPreparationStage.REPORT_CLASSIFICATION, mavenReportExecutorRequest,
+                   pluginDescriptor.getPluginLookupKey(), report.getGoal(), start );
+        if ( !isMavenReport )
+        {
+            if ( hasUserDefinedReports )
+            {
+                // reports were explicitly written in the POM
+                logger.warn( "ignoring " + mojoExecution.getPlugin().getId() + ':' + report.getGoal()
+                    + " goal since it is not a report: should be removed from reporting configuration in POM" );
+            }
+            return null;
+        }
+
+        Xpp3Dom pluginMgmtConfiguration = null;
+        Plugin pluginMgmt = ProjectPluginIndex.get( project ).findManagedPlugin( reportPlugin );
+        if ( pluginMgmt != null )
+        {
+            pluginMgmtConfiguration = (Xpp3Dom) pluginMgmt.getConfiguration();
+        }
+
+        start = startStage();
+        mojoExecution.setConfiguration( mergeConfiguration( mojoDescriptor.getMojoConfiguration(),
+                                                            pluginMgmtConfiguration,
+                                                            reportPlugin.getConfiguration(),
+                                                            report.getConfiguration(),
+                                                            mojoDescriptor.getParameterMap().keySet() ) );
+        stageDone( ReportPreparationStage.CONFIGURATION_MERGE, mavenReportExecutorRequest,
+                   pluginDescriptor.getPluginLookupKey(), report.getGoal(), start );
+
+        MavenReportExecution mavenReportExecution;
+        if ( mavenReportExecutorRequest.isLazyMojoInstantiation() )
+        {
+            mavenReportExecution = new MavenReportExecution( report.getGoal(), mojoExecution.getPlugin(), null,
+                                                             pluginDescriptor.getClassRealm() );
+            mavenReportExecution.setMavenReportFactory( new Callable<MavenReport>()
+            {
+                @Override
+                public MavenReport call()
+                    throws Exception
+                {
+                    return getConfiguredMavenReportLater( mojoExecution, pluginDescriptor,
+                                                          mavenReportExecutorRequest );
+                }
+            } );
+        }
+        else
+        {
+            MavenReport mavenReport =
+                getConfiguredMavenReport( mojoExecution, pluginDescriptor, mavenReportExecutorRequest );
+
+            mavenReportExecution = new MavenReportExecution( report.getGoal(), mojoExecution.getPlugin(),
+                                                             mavenReport, pluginDescriptor.getClassRealm() );
+        }
+
+        mavenReportExecution.setThreadSafe( mojoDescriptor.isThreadSafe() );
+        mavenReportExecution.setProjectId( project.getId() );
+        mavenReportExecution.setConfiguration( mojoExecution.getConfiguration() );
+        mavenReportExecution.setExpressionEvaluator(
+            new PluginParameterExpressionEvaluator( mavenReportExecutorRequest.getMavenSession(), mojoExecution ) );
+        mavenReportExecution.setCacheKeyStrategy( reportCacheKeyStrategy );
+
+        mavenReportExecution.setMavenReportReleaser( new MavenReportReleaser()
+        {
+            @Override
+            public void release( MavenReport mavenReport )
+            {
+                try
+                {
+                    mavenPluginManager.releaseMojo( mavenReport, mojoExecution );
+                }
+                catch ( RuntimeException e )
+                {
+                    logger.warn( "failed to release " + mojoExecution.getPlugin().getId() + ':'
+                        + mojoExecution.getGoal() + " report: " + e.getMessage() );
+                }
+            }
+        } );
+
+        lifecycleExecutor.calculateForkedExecutions( mojoExecution,
+                                                     mavenReportExecutorRequest.getMavenSession() );
+
+        if ( !mojoExecution.getForkedExecutions().isEmpty() )
+        {
+            String reportDescription = pluginDescriptor.getArtifactId() + ":" + report.getGoal() + " report";
+
+            String execution;
+            if ( StringUtils.isNotEmpty( mojoDescriptor.getExecutePhase() ) )
+            {
+                // forked phase
+                execution = "'"
+                    + ( StringUtils.isEmpty( mojoDescriptor.getExecuteLifecycle() ) ? ""
+                                    : ( '[' + mojoDescriptor.getExecuteLifecycle() + ']' ) )
+                    + mojoDescriptor.getExecutePhase() + "' forked phase execution";
+            }
+            else
+            {
+                // forked goal
+                execution = "'" + mojoDescriptor.getExecuteGoal() + "' forked goal execution";
+            }
+            String forkKey = getForkKey( pluginDescriptor, mojoDescriptor );
+
+            final ForkedExecution forkedExecution =
+                new ForkedExecution( mojoExecution, forkKey, reportDescription, execution );
+
+            if ( mavenReportExecutorRequest.isLazyForkedExecution() )
+            {
+                mavenReportExecution.setForkedExecution( new Callable<Void>()
+                {
+                    @Override
+                    public Void call()
+                        throws Exception
+                    {
+                        forkedExecutions.executeLater( forkedExecution );
+                        return null;
+                    }
+                } );
+            }
+            else
+            {
+                forkedExecutions.add( forkedExecution );
+            }
+        }
+
+        return mavenReportExecution;
+    }
+
+    private void executeForkedExecution( MavenReportExecutorRequest mavenReportExecutorRequest,
+                                         ForkedExecution forkedExecution )
+        throws LifecycleExecutionException
+    {
+        logger.info( "preparing " + forkedExecution.getReportDescription() + " requires "
+            + forkedExecution.getExecution() );
+
+        // lazy forked executions are run after buildMavenReports() returned
+        ReportPreparationTraceRecorder recorder = openTraceRecorder();
+        long start = System.nanoTime();
+        try
+        {
+            lifecycleExecutor.executeForkedExecutions( forkedExecution.getMojoExecution(),
+                                                       mavenReportExecutorRequest.getMavenSession() );
+            if ( !reportPreparationListeners.isEmpty() )
+            {
+                stageDone( ReportPreparationStage.FORKED_EXECUTION, mavenReportExecutorRequest,
+                           forkedExecution.getMojoExecution().getPlugin().getKey(),
+                           forkedExecution.getMojoExecution().getGoal(), start );
+            }
+        }
+        finally
+        {
+            closeTraceRecorder( recorder );
+        }
+
+        logger.info( forkedExecution.getExecution() + " for " + forkedExecution.getReportDescription()
+            + " preparation done in " + TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ) + " ms" );
+    }
+
+    /**
+     * Get the key of the forked execution required by a report, identifying forks that can be run once for every
+     * report requiring them.
+     *
+     * @param pluginDescriptor the report plugin descriptor
+     * @param mojoDescriptor the report mojo descriptor
+     * @return <code>phase:</code> or <code>goal:</code> fork key, or <code>null</code> if no fork is required
+     */
+    private static String getForkKey( PluginDescriptor pluginDescriptor, MojoDescriptor mojoDescriptor )
+    {
+        if ( StringUtils.isNotEmpty( mojoDescriptor.getExecutePhase() ) )
+        {
+            // a custom lifecycle is specific to the plugin defining it
+            return "phase:"
+                + ( StringUtils.isEmpty( mojoDescriptor.getExecuteLifecycle() ) ? ""
+                                : ( pluginDescriptor.getId() + '[' + mojoDescriptor.getExecuteLifecycle() + ']' ) )
+                + mojoDescriptor.getExecutePhase();
+        }
+        if ( StringUtils.isNotEmpty( mojoDescriptor.getExecuteGoal() ) )
+        {
+            return "goal:" + pluginDescriptor.getId() + ':' + mojoDescriptor.getExecuteGoal();
+        }
+        return null;
+    }
+
+    private boolean canAggregate( MavenProject project )
+    {
+        return project.isExecutionRoot() && "pom".equals( project.getPackaging() ) && ( project.getModules() != null )
+            && !project.getModules().isEmpty();
     }
 
     private MavenReport getConfiguredMavenReport( MojoExecution mojoExecution, PluginDescriptor pluginDescriptor,
@@ -374,9 +1468,12 @@ public class DefaultMavenReportExecutor
     {
         try
         {
+            long start = startStage();
             Mojo mojo =
                 mavenPluginManager.getConfiguredMojo( Mojo.class, mavenReportExecutorRequest.getMavenSession(),
                                                       mojoExecution );
+            stageDone( ReportPreparationStage.MOJO_CONFIGURATION, mavenReportExecutorRequest,
+                       pluginDescriptor.getPluginLookupKey(), mojoExecution.getGoal(), start );
 
             return (MavenReport) mojo;
         }
@@ -394,20 +1491,202 @@ public class DefaultMavenReportExecutor
             if ( e.getCause() != null && e.getCause() instanceof NoClassDefFoundError
                 && e.getMessage().contains( "PluginRegistry" ) )
             {
-                getLog().warn( "skip NoClassDefFoundError with PluginRegistry " );
-                // too noisy, only in debug mode + e.getMessage() );
-                if ( getLog().isDebugEnabled() )
+                getLog().warn( "skip NoClassDefFoundError with PluginRegistry " );
+                // too noisy, only in debug mode + e.getMessage() );
+                if ( getLog().isDebugEnabled() )
+                {
+                    getLog().debug( e.getMessage(), e );
+                }
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Configure the report mojo after report preparation, on first use of the report execution: the session
+     * current project is switched to the report project during configuration, since the session may have moved to
+     * another project since preparation.
+     */
+    private MavenReport getConfiguredMavenReportLater( MojoExecution mojoExecution, PluginDescriptor pluginDescriptor,
+                                                       MavenReportExecutorRequest mavenReportExecutorRequest )
+        throws PluginContainerException, PluginConfigurationException
+    {
+        MavenSession session = mavenReportExecutorRequest.getMavenSession();
+        synchronized ( session )
+        {
+            MavenProject currentProject = session.getCurrentProject();
+            session.setCurrentProject( mavenReportExecutorRequest.getProject() );
+            try
+            {
+                return getConfiguredMavenReport( mojoExecution, pluginDescriptor, mavenReportExecutorRequest );
+            }
+            finally
+            {
+                session.setCurrentProject( currentProject );
+            }
+        }
+    }
+
+    /**
+     * Get the directory of the persistent report classification cache.
+     *
+     * @param mavenReportExecutorRequest the current report execution context
+     * @return the cache directory, or <code>null</code> if the cache is not enabled
+     * @see MavenReportExecutorRequest#isClassificationCache()
+     */
+    private File getClassificationCacheDirectory( MavenReportExecutorRequest mavenReportExecutorRequest )
+    {
+        if ( !mavenReportExecutorRequest.isClassificationCache() )
+        {
+            return null;
+        }
+
+        if ( mavenReportExecutorRequest.getClassificationCacheDirectory() != null )
+        {
+            return mavenReportExecutorRequest.getClassificationCacheDirectory();
+        }
+
+        ArtifactRepository localRepository = mavenReportExecutorRequest.getLocalRepository();
+        if ( localRepository == null )
+        {
+            localRepository = mavenReportExecutorRequest.getMavenSession().getLocalRepository();
+        }
+        return ( localRepository == null ) ? null
+                        : new File( localRepository.getBasedir(), ".cache/maven-reporting-exec/classification" );
+    }
+
+    /**
+     * Remove the goals excluded by the request include/exclude patterns.
+     *
+     * @param reportFilter the report filter
+     * @param plugin the report plugin
+     * @param goalsWithConfiguration the goals to filter
+     */
+    private void removeExcludedGoals( ReportFilter reportFilter, Plugin plugin,
+                                      List<GoalWithConf> goalsWithConfiguration )
+    {
+        for ( Iterator<GoalWithConf> it = goalsWithConfiguration.iterator(); it.hasNext(); )
+        {
+            String goal = it.next().getGoal();
+            if ( !reportFilter.includes( plugin.getGroupId(), plugin.getArtifactId(), goal ) )
+            {
+                logger.debug( "skipping " + plugin.getArtifactId() + ':' + goal + ": excluded" );
+                it.remove();
+            }
+        }
+    }
+
+    private List<String> filterGoals( ReportFilter reportFilter, Plugin plugin, List<String> goals )
+    {
+        if ( reportFilter == null )
+        {
+            return goals;
+        }
+
+        List<String> includedGoals = new ArrayList<>( goals.size() );
+        for ( String goal : goals )
+        {
+            if ( reportFilter.includes( plugin.getGroupId(), plugin.getArtifactId(), goal ) )
+            {
+                includedGoals.add( goal );
+            }
+        }
+        return includedGoals;
+    }
+
+    private void removeNonReportGoals( MavenSession session, File classificationCacheDirectory,
+                                       PluginDescriptor pluginDescriptor, List<GoalWithConf> goalsWithConfiguration )
+    {
+        try
+        {
+            Iterator<GoalWithConf> goals = goalsWithConfiguration.iterator();
+            while ( goals.hasNext() )
+            {
+                String goal = goals.next().getGoal();
+                if ( Boolean.FALSE.equals( reportClassificationCache.isMavenReport( session,
+                                                                                    classificationCacheDirectory,
+                                                                                    pluginDescriptor, goal ) ) )
+                {
+                    if ( getLog().isDebugEnabled() )
+                    {
+                        getLog().debug( "skip non MavenReport " + pluginDescriptor.getId() + ':' + goal
+                            + " (from classification cache)" );
+                    }
+                    goals.remove();
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            getLog().warn( "unable to read report classification of " + pluginDescriptor.getId() + ": "
+                + e.getMessage() );
+        }
+    }
+
+    /**
+     * Check if a goal is a report, from the persistent report classification cache if enabled, and record the result
+     * in the cache.
+     */
+    private boolean isMavenReport( MavenReportExecutorRequest mavenReportExecutorRequest, MojoExecution mojoExecution,
+                                   PluginDescriptor pluginDescriptor )
+    {
+        File classificationCacheDirectory = getClassificationCacheDirectory( mavenReportExecutorRequest );
+        if ( classificationCacheDirectory == null )
+        {
+            return Boolean.TRUE.equals( isMavenReport( mojoExecution, pluginDescriptor ) );
+        }
+
+        try
+        {
+            MavenSession session = mavenReportExecutorRequest.getMavenSession();
+            Boolean cached = reportClassificationCache.isMavenReport( session, classificationCacheDirectory,
+                                                                      pluginDescriptor, mojoExecution.getGoal() );
+            if ( cached != null )
+            {
+                return cached;
+            }
+
+            Boolean isMavenReport = isMavenReport( mojoExecution, pluginDescriptor );
+            if ( isMavenReport != null )
+            {
+                reportClassificationCache.record( session, classificationCacheDirectory, pluginDescriptor,
+                                                  mojoExecution.getGoal(), isMavenReport );
+            }
+            return Boolean.TRUE.equals( isMavenReport );
+        }
+        catch ( IOException e )
+        {
+            getLog().warn( "unable to use report classification of " + pluginDescriptor.getId() + ": "
+                + e.getMessage() );
+            return Boolean.TRUE.equals( isMavenReport( mojoExecution, pluginDescriptor ) );
+        }
+    }
+
+    /**
+     * Check if a goal is a report.
+     *
+     * @return <code>TRUE</code> or <code>FALSE</code>, or <code>null</code> if the mojo class can't be loaded
+     */
+    private Boolean isMavenReport( MojoExecution mojoExecution, PluginDescriptor pluginDescriptor )
+    {
+        // first try to classify from class files, without loading the mojo class
+        Boolean scanned = mavenReportClassifier.isMavenReport( pluginDescriptor.getClassRealm(),
+                                                               mojoExecution.getMojoDescriptor().getImplementation() );
+        if ( scanned != null )
+        {
+            if ( getLog().isDebugEnabled() )
+            {
+                getLog().debug( "class " + mojoExecution.getMojoDescriptor().getImplementation()
+                    + " isMavenReport (from class files): " + scanned );
+                if ( !scanned )
                 {
-                    getLog().debug( e.getMessage(), e );
+                    getLog().debug( "skip non MavenReport " + mojoExecution.getMojoDescriptor().getId() );
                 }
-                return null;
             }
-            throw e;
+            return scanned;
         }
-    }
 
-    private boolean isMavenReport( MojoExecution mojoExecution, PluginDescriptor pluginDescriptor )
-    {
         ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
 
         // get the plugin's goal Mojo class
@@ -423,7 +1702,7 @@ public class DefaultMavenReportExecutor
         {
             getLog().warn( "skip ClassNotFoundException mojoExecution.goal '" + mojoExecution.getGoal() + "': "
                                + e.getMessage(), e );
-            return false;
+            return null;
         }
         finally
         {
@@ -458,7 +1737,7 @@ public class DefaultMavenReportExecutor
         {
             getLog().warn( "skip LinkageError mojoExecution.goal '" + mojoExecution.getGoal() + "': " + e.getMessage(),
                            e );
-            return false;
+            return null;
         }
         finally
         {
@@ -481,59 +1760,7 @@ public class DefaultMavenReportExecutor
                                         PlexusConfiguration pluginConf, PlexusConfiguration reportSetConf,
                                         Set<String> parameters )
     {
-        Xpp3Dom mojoConfig = ( mojoConf != null ) ? convert( mojoConf ) : new Xpp3Dom( "configuration" );
-
-        if ( pluginMgmtConfig != null || pluginConf != null || reportSetConf != null )
-        {
-            Xpp3Dom pluginConfig = ( pluginConf == null ) ? new Xpp3Dom( "fake" ) : convert( pluginConf );
-
-            // merge pluginConf into reportSetConf
-            Xpp3Dom mergedConfig = Xpp3DomUtils.mergeXpp3Dom( convert( reportSetConf ), pluginConfig );
-            // then merge pluginMgmtConfig
-            mergedConfig = Xpp3DomUtils.mergeXpp3Dom( mergedConfig, pluginMgmtConfig );
-            // then merge mojoConf
-            mergedConfig = Xpp3DomUtils.mergeXpp3Dom( mergedConfig, mojoConfig );
-
-            // clean result
-            Xpp3Dom cleanedConfig = new Xpp3Dom( "configuration" );
-            if ( mergedConfig.getChildren() != null )
-            {
-                for ( Xpp3Dom parameter : mergedConfig.getChildren() )
-                {
-                    if ( parameters.contains( parameter.getName() ) )
-                    {
-                        cleanedConfig.addChild( parameter );
-                    }
-                }
-            }
-
-            mojoConfig = cleanedConfig;
-        }
-
-        return mojoConfig;
-    }
-
-    private Xpp3Dom convert( PlexusConfiguration config )
-    {
-        if ( config == null )
-        {
-            return null;
-        }
-
-        Xpp3Dom dom = new Xpp3Dom( config.getName() );
-        dom.setValue( config.getValue( null ) );
-
-        for ( String attrib : config.getAttributeNames() )
-        {
-            dom.setAttribute( attrib, config.getAttribute( attrib, null ) );
-        }
-
-        for ( int n = config.getChildCount(), i = 0; i < n; i++ )
-        {
-            dom.addChild( convert( config.getChild( i ) ) );
-        }
-
-        return dom;
+        return configurationMerger.merge( mojoConf, pluginMgmtConfig, pluginConf, reportSetConf, parameters );
     }
 
     private Logger getLog()
@@ -578,85 +1805,137 @@ public class DefaultMavenReportExecutor
             return reportPlugin.getVersion();
         }
 
-        MavenProject project = mavenReportExecutorRequest.getProject();
+        ProjectPluginIndex pluginIndex = ProjectPluginIndex.get( mavenReportExecutorRequest.getProject() );
 
         // search in the build section
-        if ( project.getBuild() != null )
+        Plugin plugin = pluginIndex.findBuildPlugin( reportPlugin );
+        if ( plugin != null && plugin.getVersion() != null )
         {
-            Plugin plugin = find( reportPlugin, project.getBuild().getPlugins() );
-
-            if ( plugin != null && plugin.getVersion() != null )
+            if ( getLog().isDebugEnabled() )
             {
-                if ( getLog().isDebugEnabled() )
-                {
-                    logger.debug( "resolved " + reportPluginKey + " version from the build.plugins section: "
-                        + plugin.getVersion() );
-                }
-                return plugin.getVersion();
+                logger.debug( "resolved " + reportPluginKey + " version from the build.plugins section: "
+                    + plugin.getVersion() );
             }
+            return plugin.getVersion();
         }
 
         // search in pluginManagement section
-        if ( project.getBuild() != null && project.getBuild().getPluginManagement() != null )
+        plugin = pluginIndex.findManagedPlugin( reportPlugin );
+        if ( plugin != null && plugin.getVersion() != null )
         {
-            Plugin plugin = find( reportPlugin, project.getBuild().getPluginManagement().getPlugins() );
-
-            if ( plugin != null && plugin.getVersion() != null )
+            if ( getLog().isDebugEnabled() )
             {
-                if ( getLog().isDebugEnabled() )
-                {
-                    logger.debug( "resolved " + reportPluginKey
-                        + " version from the build.pluginManagement.plugins section: " + plugin.getVersion() );
-                }
-                return plugin.getVersion();
+                logger.debug( "resolved " + reportPluginKey
+                    + " version from the build.pluginManagement.plugins section: " + plugin.getVersion() );
             }
+            return plugin.getVersion();
         }
 
-        logger.warn( "Report plugin " + reportPluginKey + " has an empty version." );
-        logger.warn( "" );
-        logger.warn( "It is highly recommended to fix these problems"
-            + " because they threaten the stability of your build." );
-        logger.warn( "" );
-        logger.warn( "For this reason, future Maven versions might no"
-            + " longer support building such malformed projects." );
+        return resolvePluginVersionFromRepository( reportPlugin, mavenReportExecutorRequest );
+    }
 
-        Plugin plugin = new Plugin();
-        plugin.setGroupId( reportPlugin.getGroupId() );
-        plugin.setArtifactId( reportPlugin.getArtifactId() );
+    /**
+     * Ask {@link PluginVersionResolver} for a plugin version. Resolved versions are cached for the session, keyed by
+     * plugin groupId and artifactId and effective plugin repositories: concurrent callers for the same key share one
+     * resolution. The warning about the empty version is displayed only once per plugin groupId and artifactId,
+     * whatever the plugin repositories.
+     *
+     * @param reportPlugin the report plugin to resolve the version
+     * @param mavenReportExecutorRequest the current report execution context
+     * @return the report plugin version
+     * @throws PluginVersionResolutionException on plugin version resolution issue
+     */
+    private String resolvePluginVersionFromRepository( ReportPlugin reportPlugin,
+                                                       final MavenReportExecutorRequest mavenReportExecutorRequest )
+        throws PluginVersionResolutionException
+    {
+        String reportPluginKey = reportPlugin.getGroupId() + ':' + reportPlugin.getArtifactId();
+        MavenSession session = mavenReportExecutorRequest.getMavenSession();
 
-        PluginVersionRequest pluginVersionRequest =
-            new DefaultPluginVersionRequest( plugin, mavenReportExecutorRequest.getMavenSession() );
+        Object warning = new Object();
+        if ( pluginVersionWarnings.putIfAbsent( session, reportPluginKey, warning ) == warning )
+        {
+            logger.warn( "Report plugin " + reportPluginKey + " has an empty version." );
+            logger.warn( "" );
+            logger.warn( "It is highly recommended to fix these problems"
+                + " because they threaten the stability of your build." );
+            logger.warn( "" );
+            logger.warn( "For this reason, future Maven versions might no"
+                + " longer support building such malformed projects." );
+        }
 
-        PluginVersionResult result = pluginVersionResolver.resolve( pluginVersionRequest );
-        if ( getLog().isDebugEnabled() )
+        StringBuilder key = new StringBuilder( reportPluginKey );
+        List<?> remoteRepositories = mavenReportExecutorRequest.getProject().getRemotePluginRepositories();
+        if ( remoteRepositories != null )
         {
-            getLog().debug( "resolved " + reportPluginKey + " version from repository: " + result.getVersion() );
+            for ( Object remoteRepository : remoteRepositories )
+            {
+                key.append( '@' ).append( remoteRepository );
+            }
         }
-        return result.getVersion();
-    }
 
-    /**
-     * Search similar (same groupId and artifactId) plugin as a given report plugin.
-     * 
-     * @param reportPlugin the report plugin to search for a similar plugin
-     * @param plugins the candidate plugins
-     * @return the first similar plugin
-     */
-    private Plugin find( ReportPlugin reportPlugin, List<Plugin> plugins )
-    {
-        if ( plugins == null )
+        FutureTask<String> resolution = pluginVersionCache.get( session, key.toString() );
+        if ( resolution == null )
         {
-            return null;
+            final Plugin plugin = new Plugin();
+            plugin.setGroupId( reportPlugin.getGroupId() );
+            plugin.setArtifactId( reportPlugin.getArtifactId() );
+
+            FutureTask<String> newResolution = new FutureTask<>( new Callable<String>()
+            {
+                @Override
+                public String call()
+                    throws PluginVersionResolutionException
+                {
+                    PluginVersionRequest pluginVersionRequest =
+                        new DefaultPluginVersionRequest( plugin, mavenReportExecutorRequest.getMavenSession() );
+
+                    return pluginVersionResolver.resolve( pluginVersionRequest ).getVersion();
+                }
+            } );
+
+            resolution = pluginVersionCache.putIfAbsent( session, key.toString(), newResolution );
+            if ( resolution == newResolution )
+            {
+                newResolution.run();
+            }
         }
-        for ( Plugin plugin : plugins )
+
+        try
         {
-            if ( Objects.equals( plugin.getArtifactId(), reportPlugin.getArtifactId() )
-                && Objects.equals( plugin.getGroupId(), reportPlugin.getGroupId() ) )
+            String version = resolution.get();
+            if ( getLog().isDebugEnabled() )
             {
-                return plugin;
+                getLog().debug( "resolved " + reportPluginKey + " version from repository: " + version );
             }
+            return version;
+        }
+        catch ( ExecutionException e )
+        {
+            // don't cache failures
+            pluginVersionCache.remove( session, key.toString(), resolution );
+
+            Throwable cause = e.getCause();
+            if ( cause instanceof PluginVersionResolutionException )
+            {
+                throw (PluginVersionResolutionException) cause;
+            }
+            if ( cause instanceof RuntimeException )
+            {
+                throw (RuntimeException) cause;
+            }
+            if ( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException( cause );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new PluginVersionResolutionException( reportPlugin.getGroupId(), reportPlugin.getArtifactId(),
+                                                        "interrupted while resolving version" );
         }
-        return null;
     }
 
     /**
@@ -677,11 +1956,11 @@ public class DefaultMavenReportExecutor
     private void mergePluginToReportPlugin( MavenReportExecutorRequest mavenReportExecutorRequest, Plugin buildPlugin,
                                             ReportPlugin reportPlugin )
     {
-        Build build = mavenReportExecutorRequest.getProject().getBuild();
-        Plugin configuredPlugin = find( reportPlugin, build.getPlugins() );
-        if ( configuredPlugin == null && build.getPluginManagement() != null )
+        ProjectPluginIndex pluginIndex = ProjectPluginIndex.get( mavenReportExecutorRequest.getProject() );
+        Plugin configuredPlugin = pluginIndex.findBuildPlugin( reportPlugin );
+        if ( configuredPlugin == null )
         {
-            configuredPlugin = find( reportPlugin, build.getPluginManagement().getPlugins() );
+            configuredPlugin = pluginIndex.findManagedPlugin( reportPlugin );
         }
         if ( configuredPlugin != null )
         {
@@ -692,6 +1971,51 @@ public class DefaultMavenReportExecutor
         }
     }
 
+    /**
+     * A task run by a report preparation thread with the caller current project: the session current project is
+     * thread local since Maven 3.9, then it is null in new threads.
+     *
+     * @param <V> the type of the task result
+     */
+    private static class CurrentProjectTask<V>
+        implements Callable<V>
+    {
+        private final MavenSession session;
+
+        private final MavenProject currentProject;
+
+        private final Callable<V> task;
+
+        CurrentProjectTask( MavenSession session, MavenProject currentProject, Callable<V> task )
+        {
+            this.session = session;
+            this.currentProject = currentProject;
+            this.task = task;
+        }
+
+        @Override
+        public V call()
+            throws Exception
+        {
+            boolean threadLocalCurrentProject = currentProject != null && session.getCurrentProject() == null;
+            if ( threadLocalCurrentProject )
+            {
+                session.setCurrentProject( currentProject );
+            }
+            try
+            {
+                return task.call();
+            }
+            finally
+            {
+                if ( threadLocalCurrentProject )
+                {
+                    session.setCurrentProject( null );
+                }
+            }
+        }
+    }
+
     private static class GoalWithConf
     {
         private final String goal;
@@ -731,4 +2055,276 @@ public class DefaultMavenReportExecutor
             return configuration;
         }
     }
+
+    /**
+     * A forked execution required by a report, with descriptions used for logging.
+     */
+    private static class ForkedExecution
+    {
+        private final MojoExecution mojoExecution;
+
+        private final String key;
+
+        private final String reportDescription;
+
+        private final String execution;
+
+        ForkedExecution( MojoExecution mojoExecution, String key, String reportDescription, String execution )
+        {
+            this.mojoExecution = mojoExecution;
+            this.key = key;
+            this.reportDescription = reportDescription;
+            this.execution = execution;
+        }
+
+        public MojoExecution getMojoExecution()
+        {
+            return mojoExecution;
+        }
+
+        /**
+         * Key of the fork: equivalent forks (same lifecycle and phase, or same goal) have the same key.
+         *
+         * @return the fork key
+         */
+        public String getKey()
+        {
+            return key;
+        }
+
+        public String getReportDescription()
+        {
+            return reportDescription;
+        }
+
+        public String getExecution()
+        {
+            return execution;
+        }
+    }
+
+    /**
+     * Forked executions of a report plugin, run immediately or deferred. A fork equivalent to one already executed for
+     * the same request (then for the same project) is not executed again: the forked project of the first execution
+     * is already available as execution project. A fork running in another thread is waited for, and a failed fork is
+     * forgotten to be run again by next report requiring it. Reports prepared are notified once their forked execution
+     * is done.
+     */
+    private class ForkedExecutions
+    {
+        private final MavenReportExecutorRequest mavenReportExecutorRequest;
+
+        private final ConcurrentMap<String, FutureTask<Void>> forks;
+
+        private final List<ForkedExecution> deferredForkedExecutions;
+
+        private final int pluginIndex;
+
+        private final ReportPreparedNotifier notifier;
+
+        private final List<Integer> deferredReportIndexes = new ArrayList<>();
+
+        private final List<MavenReportExecution> deferredReports = new ArrayList<>();
+
+        ForkedExecutions( MavenReportExecutorRequest mavenReportExecutorRequest,
+                          ConcurrentMap<String, FutureTask<Void>> forks, boolean deferred, int pluginIndex,
+                          ReportPreparedNotifier notifier )
+        {
+            this.mavenReportExecutorRequest = mavenReportExecutorRequest;
+            this.forks = forks;
+            this.deferredForkedExecutions = deferred ? new ArrayList<ForkedExecution>() : null;
+            this.pluginIndex = pluginIndex;
+            this.notifier = notifier;
+        }
+
+        public int getDeferredCount()
+        {
+            return deferredForkedExecutions == null ? 0 : deferredForkedExecutions.size();
+        }
+
+        /**
+         * Notify a prepared report, or keep it to be notified after deferred forked executions have been run.
+         */
+        public void reportPrepared( int reportIndex, MavenReportExecution mavenReportExecution,
+                                    boolean forkedExecutionDeferred )
+        {
+            if ( forkedExecutionDeferred )
+            {
+                deferredReportIndexes.add( reportIndex );
+                deferredReports.add( mavenReportExecution );
+            }
+            else
+            {
+                notifier.reportPrepared( pluginIndex, reportIndex, mavenReportExecution );
+            }
+        }
+
+        public void add( ForkedExecution forkedExecution )
+            throws LifecycleExecutionException
+        {
+            if ( deferredForkedExecutions == null )
+            {
+                execute( forkedExecution );
+            }
+            else
+            {
+                deferredForkedExecutions.add( forkedExecution );
+            }
+        }
+
+        public void executeDeferred()
+            throws LifecycleExecutionException
+        {
+            for ( ForkedExecution forkedExecution : deferredForkedExecutions )
+            {
+                execute( forkedExecution );
+            }
+
+            for ( int i = 0; i < deferredReports.size(); i++ )
+            {
+                notifier.reportPrepared( pluginIndex, deferredReportIndexes.get( i ), deferredReports.get( i ) );
+            }
+        }
+
+        /**
+         * Execute a deferred forked execution after report executions have been built, with the project of the request
+         * as current project of the session.
+         */
+        public void executeLater( ForkedExecution forkedExecution )
+            throws LifecycleExecutionException
+        {
+            MavenSession session = mavenReportExecutorRequest.getMavenSession();
+            synchronized ( session )
+            {
+                MavenProject currentProject = session.getCurrentProject();
+                session.setCurrentProject( mavenReportExecutorRequest.getProject() );
+                try
+                {
+                    execute( forkedExecution );
+                }
+                finally
+                {
+                    session.setCurrentProject( currentProject );
+                }
+            }
+        }
+
+        private void execute( final ForkedExecution forkedExecution )
+            throws LifecycleExecutionException
+        {
+            FutureTask<Void> newFork = new FutureTask<>( new Callable<Void>()
+            {
+                @Override
+                public Void call()
+                    throws LifecycleExecutionException
+                {
+                    executeForkedExecution( mavenReportExecutorRequest, forkedExecution );
+                    return null;
+                }
+            } );
+
+            FutureTask<Void> fork = forks.putIfAbsent( forkedExecution.getKey(), newFork );
+            if ( fork == null )
+            {
+                fork = newFork;
+                fork.run();
+            }
+
+            try
+            {
+                fork.get();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new LifecycleExecutionException( "interrupted while waiting for " + forkedExecution.getExecution()
+                    + " for " + forkedExecution.getReportDescription(), e );
+            }
+            catch ( ExecutionException e )
+            {
+                // don't keep failures: next report requiring this fork will run it again
+                forks.remove( forkedExecution.getKey(), fork );
+
+                Throwable cause = e.getCause();
+                if ( cause instanceof LifecycleExecutionException )
+                {
+                    throw (LifecycleExecutionException) cause;
+                }
+                if ( cause instanceof RuntimeException )
+                {
+                    throw (RuntimeException) cause;
+                }
+                if ( cause instanceof Error )
+                {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException( cause );
+            }
+
+            if ( fork != newFork )
+            {
+                logger.info( forkedExecution.getExecution() + " for " + forkedExecution.getReportDescription()
+                    + " already done for a previous report: reusing it" );
+            }
+        }
+    }
+
+    /**
+     * Notifies prepared reports to a listener, serializing calls from the threads preparing report plugins.
+     */
+    private static class ReportPreparedNotifier
+    {
+        private final MavenReportExecutionListener listener;
+
+        ReportPreparedNotifier( MavenReportExecutionListener listener )
+        {
+            this.listener = listener;
+        }
+
+        public synchronized void reportPrepared( int pluginIndex, int reportIndex,
+                                                 MavenReportExecution mavenReportExecution )
+        {
+            if ( listener != null )
+            {
+                listener.reportPrepared( pluginIndex, reportIndex, mavenReportExecution );
+            }
+        }
+    }
+
+    /**
+     * Key of a plugin realm reused across the reactor: the plugin key and the parent classloader.
+     */
+    private static class PluginRealmKey
+    {
+        private final String pluginKey;
+
+        private final ClassLoader parent;
+
+        PluginRealmKey( String pluginKey, ClassLoader parent )
+        {
+            this.pluginKey = pluginKey;
+            this.parent = parent;
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof PluginRealmKey ) )
+            {
+                return false;
+            }
+            PluginRealmKey other = (PluginRealmKey) obj;
+            return parent == other.parent && pluginKey.equals( other.pluginKey );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * pluginKey.hashCode() + System.identityHashCode( parent );
+        }
+    }
 }
@@ -0,0 +1,242 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluationException;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluator;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Default report cache key: SHA-1 of the project id, the plugin coordinates, the report goal, the merged mojo
+ * configuration, the output directory, the locale and the content of the declared input files. Reports from SNAPSHOT
+ * plugins and reports without declared input files are not cached.
+ * <p>
+ * Configuration values and attributes are taken as the mojo sees them, with their expressions evaluated when the
+ * report execution knows an expression evaluator: a report with an expression that can't be evaluated is not cached.
+ * Only values stable from one build to the next are taken into account: strings, primitive wrappers, enums, files
+ * (relative to the project base directory when inside it) and collections or arrays of them, and projects by their
+ * id. Other objects, like the session, the settings or components, are skipped since their string representation
+ * changes on every build. Values read by the report from elsewhere, like the site decoration, must be declared as
+ * input files.
+ *
+ * @since 1.6
+ */
+public class DefaultReportCacheKeyStrategy
+    implements ReportCacheKeyStrategy
+{
+    @Override
+    public String getCacheKey( MavenReportExecution mavenReportExecution, File outputDirectory, Locale locale )
+        throws IOException
+    {
+        Plugin plugin = mavenReportExecution.getPlugin();
+        if ( plugin == null || plugin.getVersion() == null || plugin.getVersion().endsWith( "-SNAPSHOT" )
+            || mavenReportExecution.getInputFiles() == null )
+        {
+            return null;
+        }
+
+        StringBuilder inputs = new StringBuilder();
+        inputs.append( "project=" ).append( mavenReportExecution.getProjectId() ).append( '\n' );
+        inputs.append( "plugin=" ).append( plugin.getId() ).append( '\n' );
+        inputs.append( "goal=" ).append( mavenReportExecution.getGoal() ).append( '\n' );
+        inputs.append( "outputDirectory=" );
+        inputs.append( ( outputDirectory == null ) ? null : outputDirectory.getAbsolutePath() ).append( '\n' );
+        inputs.append( "locale=" ).append( locale ).append( '\n' );
+
+        inputs.append( "configuration=" );
+        try
+        {
+            ExpressionEvaluator evaluator = mavenReportExecution.getExpressionEvaluator();
+            appendConfiguration( mavenReportExecution.getConfiguration(), evaluator, getBasedir( evaluator ), inputs );
+        }
+        catch ( ExpressionEvaluationException e )
+        {
+            return null;
+        }
+        inputs.append( '\n' );
+
+        List<File> files = new ArrayList<>();
+        for ( File inputFile : mavenReportExecution.getInputFiles() )
+        {
+            addFiles( inputFile.getAbsoluteFile(), files );
+        }
+        Collections.sort( files );
+        for ( File file : files )
+        {
+            inputs.append( "input=" ).append( file.getPath() ).append( '=' );
+            inputs.append( file.isFile() ? ArtifactChecksums.sha1( file ) : "missing" ).append( '\n' );
+        }
+
+        MessageDigest digest = ArtifactChecksums.newSha1();
+        return ArtifactChecksums.toHex( digest.digest( inputs.toString().getBytes( StandardCharsets.UTF_8 ) ) );
+    }
+
+    /**
+     * Append a configuration element, with its attributes and value or children, every string being length-prefixed
+     * to keep the serialization unambiguous.
+     */
+    private static void appendConfiguration( Xpp3Dom dom, ExpressionEvaluator evaluator, String basedir,
+                                             StringBuilder inputs )
+        throws ExpressionEvaluationException
+    {
+        if ( dom == null )
+        {
+            inputs.append( '-' );
+            return;
+        }
+
+        append( dom.getName(), inputs );
+        inputs.append( '[' );
+        String[] attributeNames = dom.getAttributeNames();
+        Arrays.sort( attributeNames );
+        for ( String attributeName : attributeNames )
+        {
+            append( attributeName, inputs );
+            appendValue( evaluate( dom.getAttribute( attributeName ), evaluator ), basedir, inputs );
+        }
+        inputs.append( ']' );
+
+        if ( dom.getChildCount() == 0 )
+        {
+            appendValue( evaluate( dom.getValue(), evaluator ), basedir, inputs );
+            return;
+        }
+
+        inputs.append( '(' );
+        for ( Xpp3Dom child : dom.getChildren() )
+        {
+            appendConfiguration( child, evaluator, basedir, inputs );
+        }
+        inputs.append( ')' );
+    }
+
+    private static Object evaluate( String value, ExpressionEvaluator evaluator )
+        throws ExpressionEvaluationException
+    {
+        return ( value == null || evaluator == null ) ? value : evaluator.evaluate( value );
+    }
+
+    private static String getBasedir( ExpressionEvaluator evaluator )
+        throws ExpressionEvaluationException
+    {
+        Object basedir = evaluate( "${basedir}", evaluator );
+        if ( basedir instanceof File )
+        {
+            return ( (File) basedir ).getAbsolutePath();
+        }
+        return ( basedir instanceof String ) ? new File( (String) basedir ).getAbsolutePath() : null;
+    }
+
+    /**
+     * Append an evaluated configuration value, skipping objects without a stable string representation.
+     */
+    private static void appendValue( Object value, String basedir, StringBuilder inputs )
+    {
+        if ( value == null || value instanceof String )
+        {
+            append( (String) value, inputs );
+        }
+        else if ( value instanceof Number || value instanceof Boolean || value instanceof Character )
+        {
+            inputs.append( 'v' );
+            append( value.toString(), inputs );
+        }
+        else if ( value instanceof Enum )
+        {
+            inputs.append( 'e' );
+            append( ( (Enum<?>) value ).name(), inputs );
+        }
+        else if ( value instanceof File )
+        {
+            String path = ( (File) value ).getAbsolutePath();
+            if ( basedir != null && path.startsWith( basedir + File.separator ) )
+            {
+                path = path.substring( basedir.length() + 1 ).replace( File.separatorChar, '/' );
+            }
+            inputs.append( 'f' );
+            append( path, inputs );
+        }
+        else if ( value instanceof MavenProject )
+        {
+            inputs.append( 'p' );
+            append( ( (MavenProject) value ).getId(), inputs );
+        }
+        else if ( value instanceof Collection || value instanceof Object[] )
+        {
+            Collection<?> values =
+                ( value instanceof Collection ) ? (Collection<?>) value : Arrays.asList( (Object[]) value );
+            inputs.append( '<' );
+            for ( Object element : values )
+            {
+                appendValue( element, basedir, inputs );
+            }
+            inputs.append( '>' );
+        }
+        else
+        {
+            // session, settings, plugin descriptor, components...
+            inputs.append( '*' );
+        }
+    }
+
+    private static void append( String value, StringBuilder inputs )
+    {
+        if ( value == null )
+        {
+            inputs.append( '-' );
+        }
+        else
+        {
+            inputs.append( value.length() ).append( ':' ).append( value );
+        }
+    }
+
+    private static void addFiles( File file, List<File> files )
+    {
+        if ( !file.isDirectory() )
+        {
+            // a missing file is an input too
+            files.add( file );
+            return;
+        }
+
+        File[] children = file.listFiles();
+        if ( children != null )
+        {
+            for ( File child : children )
+            {
+                addFiles( child, files );
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MavenPluginManager;
+
+/**
+ * {@link MethodHandle}s for {@link MavenPluginManager} and {@link MavenSession} methods whose signature depends on
+ * Aether flavour (Sonatype Aether in Maven 3.0.x, Eclipse Aether since 3.1.x). Handles are looked up once per JVM,
+ * and adapted to a generic signature (every parameter and the result as {@link Object}), then they are called
+ * through {@link MethodHandle#invokeExact(Object...) invokeExact()}: being <code>static final</code>, they can be
+ * inlined by the JIT, and checked exceptions thrown by the target method are propagated as is. An argument of wrong
+ * type makes <code>invokeExact()</code> throw a {@link ClassCastException}: callers tell it from an exception thrown
+ * by the target method with {@link #isApplicable(Class, String, Object...)}.
+ *
+ * @see DefaultMavenPluginManagerHelper
+ */
+final class MavenPluginManagerMethods
+{
+    /**
+     * <code>PluginDescriptor MavenPluginManager.getPluginDescriptor( Plugin, List, RepositorySystemSession )</code>
+     * as <code>(Object, Object, Object, Object)Object</code>.
+     */
+    static final MethodHandle GET_PLUGIN_DESCRIPTOR = findMethod( MavenPluginManager.class, "getPluginDescriptor" );
+
+    /**
+     * <code>void MavenPluginManager.setupPluginRealm( PluginDescriptor, MavenSession, ClassLoader, List,
+     * DependencyFilter )</code> as <code>(Object, Object, Object, Object, Object, Object)void</code>.
+     */
+    static final MethodHandle SETUP_PLUGIN_REALM = findMethod( MavenPluginManager.class, "setupPluginRealm" );
+
+    /**
+     * <code>RepositorySystemSession MavenSession.getRepositorySession()</code> as <code>(Object)Object</code>.
+     */
+    static final MethodHandle GET_REPOSITORY_SESSION = findMethod( MavenSession.class, "getRepositorySession" );
+
+    private MavenPluginManagerMethods()
+    {
+        // static handles only
+    }
+
+    /**
+     * Check if arguments match the parameter types of a public method, the first argument being the target object.
+     * Used after a {@link ClassCastException}, to tell a wrong argument type from an exception thrown by the method.
+     *
+     * @param type the class declaring the method
+     * @param name the method name
+     * @param arguments the target object and the method arguments
+     * @return <code>true</code> if the method can be called with the arguments
+     */
+    static boolean isApplicable( Class<?> type, String name, Object... arguments )
+    {
+        for ( Method m : type.getMethods() )
+        {
+            if ( name.equals( m.getName() ) )
+            {
+                if ( !type.isInstance( arguments[0] ) )
+                {
+                    return false;
+                }
+                Class<?>[] parameterTypes = m.getParameterTypes();
+                for ( int i = 0; i < parameterTypes.length; i++ )
+                {
+                    if ( arguments[i + 1] != null && !parameterTypes[i].isInstance( arguments[i + 1] ) )
+                    {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find a public method by its name, and adapt it to a generic signature.
+     *
+     * @param type the class declaring the method
+     * @param name the method name
+     * @return the adapted method handle, or <code>null</code> if not found
+     */
+    private static MethodHandle findMethod( Class<?> type, String name )
+    {
+        try
+        {
+            for ( Method m : type.getMethods() )
+            {
+                if ( name.equals( m.getName() ) )
+                {
+                    MethodHandle handle = MethodHandles.publicLookup().unreflect( m );
+
+                    MethodType genericType = MethodType.genericMethodType( handle.type().parameterCount() );
+                    if ( m.getReturnType() == void.class )
+                    {
+                        genericType = genericType.changeReturnType( void.class );
+                    }
+
+                    return handle.asType( genericType );
+                }
+            }
+        }
+        catch ( SecurityException | IllegalAccessException e )
+        {
+            // handled as method not found
+        }
+        return null;
+    }
+}
@@ -0,0 +1,231 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Check if a mojo implementation class is a {@link org.apache.maven.reporting.MavenReport} by reading class files
+ * from the plugin realm and walking the superclass and interfaces hierarchy, without defining any class.
+ * Results are cached per realm, then shared by every goal (and every module) using the same realm.
+ */
+class MavenReportClassifier
+{
+    private static final String MAVEN_REPORT = "org/apache/maven/reporting/MavenReport";
+
+    private final Map<ClassLoader, Map<String, Boolean>> results = new WeakHashMap<>();
+
+    /**
+     * Check if a class implements {@link org.apache.maven.reporting.MavenReport}.
+     *
+     * @param realm the class loader to read class files from
+     * @param className the class name
+     * @return <code>TRUE</code> or <code>FALSE</code>, or <code>null</code> if the result can't be determined
+     *         because a class file of the hierarchy can't be found or read
+     */
+    public Boolean isMavenReport( ClassLoader realm, String className )
+    {
+        if ( realm == null || className == null )
+        {
+            return null;
+        }
+
+        Map<String, Boolean> realmResults;
+        synchronized ( results )
+        {
+            realmResults = results.get( realm );
+            if ( realmResults == null )
+            {
+                realmResults = new HashMap<>();
+                results.put( realm, realmResults );
+            }
+        }
+
+        synchronized ( realmResults )
+        {
+            return isMavenReport( realm, className.replace( '.', '/' ), realmResults );
+        }
+    }
+
+    private Boolean isMavenReport( ClassLoader realm, String internalName, Map<String, Boolean> realmResults )
+    {
+        if ( MAVEN_REPORT.equals( internalName ) )
+        {
+            return Boolean.TRUE;
+        }
+        if ( internalName.startsWith( "java/" ) )
+        {
+            // JDK classes don't implement MavenReport
+            return Boolean.FALSE;
+        }
+
+        Boolean result = realmResults.get( internalName );
+        if ( result != null )
+        {
+            return result;
+        }
+
+        List<String> supertypes = readSupertypes( realm, internalName );
+        if ( supertypes == null )
+        {
+            return null;
+        }
+
+        boolean unknown = false;
+        for ( String supertype : supertypes )
+        {
+            Boolean supertypeResult = isMavenReport( realm, supertype, realmResults );
+            if ( Boolean.TRUE.equals( supertypeResult ) )
+            {
+                realmResults.put( internalName, Boolean.TRUE );
+                return Boolean.TRUE;
+            }
+            unknown |= ( supertypeResult == null );
+        }
+
+        if ( unknown )
+        {
+            return null;
+        }
+        realmResults.put( internalName, Boolean.FALSE );
+        return Boolean.FALSE;
+    }
+
+    /**
+     * Read superclass and interfaces internal names from a class file.
+     *
+     * @param realm the class loader to read the class file from
+     * @param internalName the class internal name
+     * @return the supertypes, or <code>null</code> if the class file can't be found or read
+     */
+    private List<String> readSupertypes( ClassLoader realm, String internalName )
+    {
+        try ( InputStream is = realm.getResourceAsStream( internalName + ".class" ) )
+        {
+            if ( is == null )
+            {
+                return null;
+            }
+            return readSupertypes( new DataInputStream( new BufferedInputStream( is ) ) );
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+    }
+
+    private static List<String> readSupertypes( DataInputStream in )
+        throws IOException
+    {
+        if ( in.readInt() != 0xCAFEBABE )
+        {
+            throw new IOException( "not a class file" );
+        }
+        in.readUnsignedShort(); // minor version
+        in.readUnsignedShort(); // major version
+
+        // constant pool: only UTF8 and Class entries are kept
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classNames = new int[count];
+        for ( int i = 1; i < count; i++ )
+        {
+            int tag = in.readUnsignedByte();
+            switch ( tag )
+            {
+                case 1: // Utf8
+                    utf8[i] = in.readUTF();
+                    break;
+                case 7: // Class
+                    classNames[i] = in.readUnsignedShort();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    skipFully( in, 2 );
+                    break;
+                case 15: // MethodHandle
+                    skipFully( in, 3 );
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    skipFully( in, 4 );
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    skipFully( in, 8 );
+                    i++; // takes two entries
+                    break;
+                default:
+                    throw new IOException( "unknown constant pool tag " + tag );
+            }
+        }
+
+        in.readUnsignedShort(); // access flags
+        in.readUnsignedShort(); // this class
+
+        List<String> supertypes = new ArrayList<>();
+        int superClass = in.readUnsignedShort();
+        if ( superClass != 0 )
+        {
+            supertypes.add( getClassName( utf8, classNames, superClass ) );
+        }
+        for ( int n = in.readUnsignedShort(), i = 0; i < n; i++ )
+        {
+            supertypes.add( getClassName( utf8, classNames, in.readUnsignedShort() ) );
+        }
+        return supertypes;
+    }
+
+    private static String getClassName( String[] utf8, int[] classNames, int index )
+        throws IOException
+    {
+        String name = ( index < classNames.length ) ? utf8[classNames[index]] : null;
+        if ( name == null )
+        {
+            throw new IOException( "invalid class constant pool index " + index );
+        }
+        return name;
+    }
+
+    private static void skipFully( DataInputStream in, int n )
+        throws IOException
+    {
+        if ( in.skipBytes( n ) != n )
+        {
+            throw new IOException( "unexpected end of class file" );
+        }
+    }
+}
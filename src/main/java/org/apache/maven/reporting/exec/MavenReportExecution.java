@@ -19,8 +19,17 @@ package org.apache.maven.reporting.exec;
  * under the License.
  */
 
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
 import org.apache.maven.model.Plugin;
 import org.apache.maven.reporting.MavenReport;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluator;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 
 /**
  * <p>
@@ -39,14 +48,34 @@ import org.apache.maven.reporting.MavenReport;
  *   method, setting the current {@link Thread} classLoader first with {@link #classLoader}.
  * </p>
  * <p>
- *   This bean is instantiated by {@link MavenReportExecutor}.
+ *   This bean is instantiated by {@link MavenReportExecutor}. The {@link MavenReport} can be created lazily, on first
+ *   use, from a {@link #setMavenReportFactory(Callable) factory}, and the forked execution required by the report can
+ *   be {@link #setForkedExecution(Callable) deferred} until the report is really used for generation.
+ * </p>
+ * <p>
+ *   With incremental reporting, a report execution can be a marker telling that the
+ *   {@link #isReusePreviousOutput() previous output can be reused}: it has no {@link MavenReport}.
+ * </p>
+ * <p>
+ *   Report output can be cached with a {@link #getCacheKey(File, Locale) cache key} calculated from the report
+ *   inputs: the {@link #getProjectId() project}, the {@link #getConfiguration() merged mojo configuration}, the plugin
+ *   version and the {@link #setInputFiles(List) declared input files}, see {@link CachingReportRenderer}.
+ * </p>
+ * <p>
+ *   Once the report has been generated, the report execution should be {@link #close() closed} to release the
+ *   {@link MavenReport} mojo and drop references to it and to its {@link ClassLoader}.
  * </p>
  * 
  * @author Olivier Lamy
  */
 public class MavenReportExecution
+    implements Closeable
 {
-    private MavenReport mavenReport;
+    private volatile MavenReport mavenReport;
+
+    private volatile Callable<MavenReport> mavenReportFactory;
+
+    private volatile Callable<?> forkedExecution;
 
     private ClassLoader classLoader;
 
@@ -54,6 +83,26 @@ public class MavenReportExecution
 
     private final String goal;
 
+    private boolean reusePreviousOutput;
+
+    private boolean threadSafe;
+
+    private String projectId;
+
+    private Xpp3Dom configuration;
+
+    private ExpressionEvaluator expressionEvaluator;
+
+    private List<File> inputFiles;
+
+    private ReportCacheKeyStrategy cacheKeyStrategy;
+
+    private MavenReportReleaser mavenReportReleaser;
+
+    private ReportFingerprints.PendingFingerprint pendingFingerprint;
+
+    private volatile boolean closed;
+
     public MavenReportExecution( String goal, Plugin plugin, MavenReport mavenReport, ClassLoader classLoader )
     {
         this.goal = goal;
@@ -74,10 +123,19 @@ public class MavenReportExecution
 
     /**
      * execute Maven Report's <code>canGenerate()</code> with adequate classloader.
-     * @return Maven Report's <code>canGenerate()</code> result
+     * If the forked execution required by the report has been deferred, it is run first, since reports can check its
+     * output.
+     * @return Maven Report's <code>canGenerate()</code> result, or <code>false</code> if previous output is reused
+     * @throws IllegalStateException if the report execution has been closed, or if the forked execution fails
      */
     public boolean canGenerateReport()
     {
+        if ( reusePreviousOutput )
+        {
+            // nothing to generate
+            return false;
+        }
+
         ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
         try
         {
@@ -86,7 +144,7 @@ public class MavenReportExecution
                 Thread.currentThread().setContextClassLoader( classLoader );
             }
 
-            return mavenReport.canGenerateReport();
+            return getMavenReport().canGenerateReport();
         }
         finally
         {
@@ -97,14 +155,368 @@ public class MavenReportExecution
         } 
     }
 
+    /**
+     * Get the Maven Report, creating it from the factory on first call if it was not created yet. If the forked
+     * execution required by the report has been deferred, it is run before the report is returned.
+     *
+     * @return the Maven Report
+     * @throws IllegalStateException if the factory fails to create the report or the forked execution fails, or if
+     *             the report execution has been closed
+     */
     public MavenReport getMavenReport()
     {
-        return mavenReport;
+        MavenReport report = getMavenReportInstance();
+        executeForkedExecution();
+        return report;
     }
 
-    public void setMavenReport( MavenReport mavenReport )
+    private MavenReport getMavenReportInstance()
+    {
+        if ( closed )
+        {
+            throw new IllegalStateException( "report execution for goal " + goal + " has been closed" );
+        }
+
+        MavenReport report = mavenReport;
+        if ( report == null && mavenReportFactory != null )
+        {
+            synchronized ( this )
+            {
+                if ( mavenReport == null && mavenReportFactory != null )
+                {
+                    try
+                    {
+                        mavenReport = mavenReportFactory.call();
+                        mavenReportFactory = null;
+                    }
+                    catch ( Exception e )
+                    {
+                        throw new IllegalStateException( "failed to create report for goal " + goal, e );
+                    }
+                }
+                report = mavenReport;
+            }
+        }
+        return report;
+    }
+
+    private void executeForkedExecution()
+    {
+        if ( forkedExecution != null )
+        {
+            synchronized ( this )
+            {
+                if ( forkedExecution != null )
+                {
+                    try
+                    {
+                        forkedExecution.call();
+                        forkedExecution = null;
+                    }
+                    catch ( Exception e )
+                    {
+                        throw new IllegalStateException( "failed to execute forked execution for goal " + goal, e );
+                    }
+                }
+            }
+        }
+    }
+
+    public synchronized void setMavenReport( MavenReport mavenReport )
     {
         this.mavenReport = mavenReport;
+        this.mavenReportFactory = null;
+    }
+
+    /**
+     * Set a factory to create the Maven Report on first use, if it has not been set directly.
+     * The factory is called at most once successfully, even if the report execution is used by many threads.
+     *
+     * @param mavenReportFactory the Maven Report factory
+     * @since 1.6
+     */
+    public synchronized void setMavenReportFactory( Callable<MavenReport> mavenReportFactory )
+    {
+        this.mavenReportFactory = mavenReportFactory;
+    }
+
+    /**
+     * Set the forked execution required by the report, to be run on first call to {@link #canGenerateReport()} or
+     * {@link #getMavenReport()} instead of during report executions build. It is run at most once successfully.
+     *
+     * @param forkedExecution the deferred forked execution, or <code>null</code> if none is pending
+     * @since 1.6
+     */
+    public synchronized void setForkedExecution( Callable<?> forkedExecution )
+    {
+        this.forkedExecution = forkedExecution;
+    }
+
+    /**
+     * Check if the forked execution required by the report has been deferred and not run yet.
+     *
+     * @return <code>true</code> if a deferred forked execution is still pending
+     * @since 1.6
+     */
+    public boolean isForkedExecutionPending()
+    {
+        return forkedExecution != null;
+    }
+
+    /**
+     * Confirm that the report has been generated, or skipped because it {@link #canGenerateReport() can't be
+     * generated}. With {@link MavenReportExecutorRequest#setIncremental(boolean) incremental reporting}, the
+     * fingerprint of the report plugin is stored once every report of the plugin has been confirmed: a report plugin
+     * with a report not confirmed is prepared again in next build. Calling this method more than once has no effect.
+     *
+     * @since 1.6
+     * @see ConcurrentReportRenderer
+     */
+    public void markGenerated()
+    {
+        ReportFingerprints.PendingFingerprint pending;
+        synchronized ( this )
+        {
+            pending = pendingFingerprint;
+            pendingFingerprint = null;
+        }
+        if ( pending != null )
+        {
+            pending.reportGenerated();
+        }
+    }
+
+    synchronized void setPendingFingerprint( ReportFingerprints.PendingFingerprint pendingFingerprint )
+    {
+        this.pendingFingerprint = pendingFingerprint;
+    }
+
+    /**
+     * Is this report execution a marker telling that the report inputs have not changed since previous build, then
+     * the previous output can be reused instead of generating the report again?
+     *
+     * @return <code>true</code> if the previous output of the report can be reused: there is no Maven Report
+     * @see MavenReportExecutorRequest#setIncremental(boolean)
+     * @since 1.6
+     */
+    public boolean isReusePreviousOutput()
+    {
+        return reusePreviousOutput;
+    }
+
+    /**
+     * Mark this report execution as reusing the previous output of the report.
+     *
+     * @param reusePreviousOutput <code>true</code> if the previous output of the report can be reused
+     * @since 1.6
+     */
+    public void setReusePreviousOutput( boolean reusePreviousOutput )
+    {
+        this.reusePreviousOutput = reusePreviousOutput;
+    }
+
+    /**
+     * Set how the Maven Report mojo is released when the report execution is closed.
+     *
+     * @param mavenReportReleaser the releaser, called only if the Maven Report has been created
+     */
+    synchronized void setMavenReportReleaser( MavenReportReleaser mavenReportReleaser )
+    {
+        this.mavenReportReleaser = mavenReportReleaser;
+    }
+
+    /**
+     * Is the report mojo thread-safe?
+     *
+     * @return <code>true</code> if the report mojo descriptor declares the mojo as thread-safe, then the report can be
+     *         rendered concurrently with other reports
+     * @see ConcurrentReportRenderer
+     * @since 1.6
+     */
+    public boolean isThreadSafe()
+    {
+        return threadSafe;
+    }
+
+    /**
+     * Set whether the report mojo is thread-safe.
+     *
+     * @param threadSafe <code>true</code> if the report can be rendered concurrently with other reports
+     * @since 1.6
+     */
+    public void setThreadSafe( boolean threadSafe )
+    {
+        this.threadSafe = threadSafe;
+    }
+
+    /**
+     * Get the id of the project the report is about.
+     *
+     * @return the project <code>groupId:artifactId:packaging:version</code>, or <code>null</code> if unknown
+     * @since 1.6
+     */
+    public String getProjectId()
+    {
+        return projectId;
+    }
+
+    /**
+     * Set the id of the project the report is about.
+     *
+     * @param projectId the project id
+     * @since 1.6
+     */
+    public void setProjectId( String projectId )
+    {
+        this.projectId = projectId;
+    }
+
+    /**
+     * Get the report mojo configuration, merged from the mojo descriptor, plugin management, report plugin and report
+     * set configurations. The configuration must not be modified.
+     *
+     * @return the merged configuration, or <code>null</code> if unknown
+     * @since 1.6
+     */
+    public Xpp3Dom getConfiguration()
+    {
+        return configuration;
+    }
+
+    /**
+     * Set the merged report mojo configuration.
+     *
+     * @param configuration the merged configuration
+     * @since 1.6
+     */
+    public void setConfiguration( Xpp3Dom configuration )
+    {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Get the evaluator of the expressions in the configuration, as the mojo would see them.
+     *
+     * @return the expression evaluator, or <code>null</code> if unknown
+     */
+    ExpressionEvaluator getExpressionEvaluator()
+    {
+        return expressionEvaluator;
+    }
+
+    void setExpressionEvaluator( ExpressionEvaluator expressionEvaluator )
+    {
+        this.expressionEvaluator = expressionEvaluator;
+    }
+
+    /**
+     * Get the input files of the report, like source directories, declared by the caller.
+     *
+     * @return the input files and directories, or <code>null</code> if not declared
+     * @since 1.6
+     */
+    public List<File> getInputFiles()
+    {
+        return inputFiles;
+    }
+
+    /**
+     * Declare the input files of the report: report output is only cached once input files are declared, even as an
+     * empty list for a report without input files.
+     *
+     * @param inputFiles the input files and directories, directories content being taken into account recursively
+     * @since 1.6
+     */
+    public void setInputFiles( List<File> inputFiles )
+    {
+        this.inputFiles = inputFiles;
+    }
+
+    public ReportCacheKeyStrategy getCacheKeyStrategy()
+    {
+        return cacheKeyStrategy;
+    }
+
+    /**
+     * Set the strategy calculating the cache key of the report output.
+     *
+     * @param cacheKeyStrategy the cache key strategy, or <code>null</code> to not cache report output
+     * @see DefaultReportCacheKeyStrategy
+     * @since 1.6
+     */
+    public void setCacheKeyStrategy( ReportCacheKeyStrategy cacheKeyStrategy )
+    {
+        this.cacheKeyStrategy = cacheKeyStrategy;
+    }
+
+    /**
+     * Calculate the cache key of the report output, without creating the {@link MavenReport} nor running its forked
+     * execution.
+     *
+     * @param outputDirectory the directory the report is rendered to
+     * @param locale the locale the report is rendered in
+     * @return the cache key, or <code>null</code> if the report output can't be cached
+     * @throws IOException if an input file can't be read
+     * @since 1.6
+     */
+    public String getCacheKey( File outputDirectory, Locale locale )
+        throws IOException
+    {
+        if ( cacheKeyStrategy == null || reusePreviousOutput )
+        {
+            return null;
+        }
+        return cacheKeyStrategy.getCacheKey( this, outputDirectory, locale );
+    }
+
+    /**
+     * Close the report execution, once the report has been generated: the Maven Report mojo is released and
+     * references to it, to its factory, to its deferred forked execution, to its configuration expression evaluator
+     * and to its {@link ClassLoader} are dropped, then the mojo object graph and the plugin realm become collectable
+     * unless they are referenced elsewhere (for example by a reused realm). Closing an already closed report execution
+     * has no effect.
+     *
+     * @since 1.6
+     */
+    @Override
+    public void close()
+    {
+        MavenReport report;
+        MavenReportReleaser releaser;
+        synchronized ( this )
+        {
+            if ( closed )
+            {
+                return;
+            }
+            closed = true;
+
+            report = mavenReport;
+            releaser = mavenReportReleaser;
+
+            mavenReport = null;
+            mavenReportFactory = null;
+            forkedExecution = null;
+            mavenReportReleaser = null;
+            classLoader = null;
+            expressionEvaluator = null;
+        }
+
+        if ( report != null && releaser != null )
+        {
+            releaser.release( report );
+        }
+    }
+
+    /**
+     * Is the report execution closed?
+     *
+     * @return <code>true</code> if the report execution has been closed
+     * @since 1.6
+     */
+    public boolean isClosed()
+    {
+        return closed;
     }
 
     public ClassLoader getClassLoader()
@@ -0,0 +1,44 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Listener notified of each {@link MavenReportExecution} as soon as it is prepared by
+ * {@link StreamingMavenReportExecutor#buildMavenReports(MavenReportExecutorRequest, MavenReportExecutionListener)},
+ * for example to start generating first reports while next ones are still prepared. Reports are notified in
+ * preparation order, which is not the declaration order when report plugins are prepared concurrently: the
+ * declaration order is given by the plugin and report indexes.
+ * <p>
+ * Calls are serialized but can come from different threads.
+ * </p>
+ *
+ * @since 1.6
+ */
+public interface MavenReportExecutionListener
+{
+    /**
+     * A report execution has been prepared, with its forked execution if any.
+     *
+     * @param pluginIndex the index of the report plugin in {@link MavenReportExecutorRequest#getReportPlugins()}
+     * @param reportIndex the index of the report in the reports of the report plugin
+     * @param mavenReportExecution the prepared report execution
+     */
+    void reportPrepared( int pluginIndex, int reportIndex, MavenReportExecution mavenReportExecution );
+}
@@ -0,0 +1,130 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Bean which contains necessary informations to build {@link MavenReportExecution}s for many projects sharing one
+ * {@link MavenSession} with {@link DefaultMavenReportExecutor#buildMavenReports(MavenReportExecutorBatchRequest)}:
+ * plugin versions, plugin descriptors, report classifications and merged configurations are prepared once for the
+ * whole batch instead of once per project.
+ * <p>
+ * Options are set on a {@link #getTemplate() template request}, with the same defaults as for a single project: the
+ * request of each project is a copy of the template with the project and its report plugins. Enable
+ * {@link MavenReportExecutorRequest#setReactorRealmReuse(boolean) reactor realm reuse} on the template to share
+ * plugin realms across projects too.
+ * </p>
+ *
+ * @since 1.6
+ */
+public class MavenReportExecutorBatchRequest
+{
+    private final MavenReportExecutorRequest template;
+
+    private final Map<MavenProject, org.apache.maven.model.ReportPlugin[]> projects = new LinkedHashMap<>();
+
+    public MavenReportExecutorBatchRequest()
+    {
+        this( new MavenReportExecutorRequest() );
+    }
+
+    /**
+     * Create a batch request with options of an existing request.
+     *
+     * @param template the request providing session and options for every project: its project and report plugins
+     *            are ignored
+     */
+    public MavenReportExecutorBatchRequest( MavenReportExecutorRequest template )
+    {
+        this.template = template;
+    }
+
+    /**
+     * Get the template request, to set the session and the options used for every project of the batch.
+     *
+     * @return the template request
+     */
+    public MavenReportExecutorRequest getTemplate()
+    {
+        return template;
+    }
+
+    public MavenSession getMavenSession()
+    {
+        return template.getMavenSession();
+    }
+
+    /**
+     * Add a project with the report plugins from its <code>&lt;reporting&gt;</code> section.
+     *
+     * @param project the project
+     */
+    public void addProject( MavenProject project )
+    {
+        List<org.apache.maven.model.ReportPlugin> reportPlugins = project.getReportPlugins();
+        addProject( project, reportPlugins.toArray( new org.apache.maven.model.ReportPlugin[reportPlugins.size()] ) );
+    }
+
+    /**
+     * Add a project with its report plugins.
+     *
+     * @param project the project
+     * @param reportPlugins the report plugins to prepare for the project
+     */
+    public void addProject( MavenProject project, org.apache.maven.model.ReportPlugin[] reportPlugins )
+    {
+        projects.put( project, reportPlugins );
+    }
+
+    /**
+     * Get the projects of the batch.
+     *
+     * @return the projects, in the order they were added
+     */
+    public List<MavenProject> getProjects()
+    {
+        return new ArrayList<>( projects.keySet() );
+    }
+
+    /**
+     * Create the request for one project of the batch.
+     *
+     * @param project the project
+     * @return a copy of the template request, for the project
+     */
+    MavenReportExecutorRequest newRequest( MavenProject project )
+    {
+        MavenReportExecutorRequest request = template.copy();
+        request.setProject( project );
+        org.apache.maven.model.ReportPlugin[] reportPlugins = projects.get( project );
+        if ( reportPlugins != null )
+        {
+            request.setReportPlugins( reportPlugins );
+        }
+        return request;
+    }
+}
@@ -19,7 +19,9 @@ package org.apache.maven.reporting.exec;
  * under the License.
  */
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.maven.artifact.repository.ArtifactRepository;
@@ -36,6 +38,7 @@ import org.codehaus.plexus.util.xml.Xpp3Dom;
  * @version $Id$
  */
 public class MavenReportExecutorRequest
+    implements Cloneable
 {
     private ArtifactRepository localRepository;
 
@@ -45,6 +48,30 @@ public class MavenReportExecutorRequest
 
     private ReportPlugin[] reportPlugins;
 
+    private int threadCount = 1;
+
+    private int prefetchThreadCount;
+
+    private boolean reactorRealmReuse;
+
+    private boolean lazyMojoInstantiation;
+
+    private boolean lazyForkedExecution;
+
+    private boolean classificationCache;
+
+    private File classificationCacheDirectory;
+
+    private boolean incremental;
+
+    private List<String> includes = new ArrayList<>();
+
+    private List<String> excludes = new ArrayList<>();
+
+    private ReportFilter reportFilter;
+
+    private boolean reportFilterParsed;
+
     public ArtifactRepository getLocalRepository()
     {
         return localRepository;
@@ -85,6 +112,304 @@ public class MavenReportExecutorRequest
         this.reportPlugins = reportPlugins;
     }
 
+    /**
+     * Get the number of threads used to prepare report plugins.
+     *
+     * @return the number of threads, <code>1</code> (the default) meaning that report plugins are prepared serially
+     * @since 1.6
+     */
+    public int getThreadCount()
+    {
+        return threadCount;
+    }
+
+    /**
+     * Set the number of threads used to prepare report plugins: with more than one thread, report plugins are
+     * prepared concurrently, but forked executions are still run one after the other once every report plugin has
+     * been prepared, and report executions are returned in declaration order.
+     *
+     * @param threadCount the number of threads
+     * @since 1.6
+     */
+    public void setThreadCount( int threadCount )
+    {
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Get the number of threads used to resolve report plugins before preparing them serially.
+     *
+     * @return the number of threads, <code>0</code> (the default) meaning that report plugins are not resolved ahead
+     * @since 1.6
+     */
+    public int getPrefetchThreadCount()
+    {
+        return prefetchThreadCount;
+    }
+
+    /**
+     * Set the number of threads used to resolve report plugins ahead: when report plugins are prepared serially,
+     * the version, POM and JAR of every report plugin are first resolved concurrently, then preparing each plugin
+     * only hits the local repository and the plugin descriptor cache. Plugin dependencies are still resolved when
+     * the plugin realm is set up. Prefetch failures are ignored: they are reported when the plugin is prepared.
+     *
+     * @param prefetchThreadCount the number of threads, <code>0</code> or <code>1</code> to disable prefetch
+     * @since 1.6
+     */
+    public void setPrefetchThreadCount( int prefetchThreadCount )
+    {
+        this.prefetchThreadCount = prefetchThreadCount;
+    }
+
+    /**
+     * Is reactor realm reuse enabled?
+     *
+     * @return <code>true</code> if plugin realms are reused across the reactor
+     * @since 1.6
+     */
+    public boolean isReactorRealmReuse()
+    {
+        return reactorRealmReuse;
+    }
+
+    /**
+     * Enable reactor realm reuse: a report plugin realm is set up once for the session and reused for every module
+     * with identical plugin coordinates, plugin dependencies and remote plugin repositories, without asking
+     * Maven core again.
+     *
+     * @param reactorRealmReuse <code>true</code> to reuse plugin realms across the reactor
+     * @since 1.6
+     */
+    public void setReactorRealmReuse( boolean reactorRealmReuse )
+    {
+        this.reactorRealmReuse = reactorRealmReuse;
+    }
+
+    /**
+     * Is lazy mojo instantiation enabled?
+     *
+     * @return <code>true</code> if report mojos are configured on first use
+     * @since 1.6
+     */
+    public boolean isLazyMojoInstantiation()
+    {
+        return lazyMojoInstantiation;
+    }
+
+    /**
+     * Enable lazy mojo instantiation: report mojos are not configured while building report executions but on first
+     * call to {@link MavenReportExecution#getMavenReport()} or {@link MavenReportExecution#canGenerateReport()}, then
+     * reports that are never used don't cost anything.
+     *
+     * @param lazyMojoInstantiation <code>true</code> to configure report mojos on first use
+     * @since 1.6
+     */
+    public void setLazyMojoInstantiation( boolean lazyMojoInstantiation )
+    {
+        this.lazyMojoInstantiation = lazyMojoInstantiation;
+    }
+
+    /**
+     * Are forked executions required by reports deferred until reports are used for generation?
+     *
+     * @return <code>true</code> if forked executions are run on first use of the report
+     * @since 1.6
+     */
+    public boolean isLazyForkedExecution()
+    {
+        return lazyForkedExecution;
+    }
+
+    /**
+     * Enable lazy forked executions: forked executions required by reports are not run while building report
+     * executions but on first call to {@link MavenReportExecution#canGenerateReport()} or
+     * {@link MavenReportExecution#getMavenReport()}, then reports that are never used don't run their fork.
+     *
+     * @param lazyForkedExecution <code>true</code> to run forked executions on first use of the report
+     * @since 1.6
+     */
+    public void setLazyForkedExecution( boolean lazyForkedExecution )
+    {
+        this.lazyForkedExecution = lazyForkedExecution;
+    }
+
+    /**
+     * Is the persistent report classification cache enabled?
+     *
+     * @return <code>true</code> if report goals classification is stored on disk for next builds
+     * @since 1.6
+     */
+    public boolean isClassificationCache()
+    {
+        return classificationCache;
+    }
+
+    /**
+     * Enable the persistent report classification cache: whether each goal of a report plugin is a report is stored
+     * on disk, keyed by the plugin artifact checksum. In next builds, goals that are not reports are skipped before
+     * setting up the plugin realm when reports are detected from the plugin (no reports configured), and goals that
+     * are reports are not checked again.
+     *
+     * @param classificationCache <code>true</code> to store report goals classification for next builds
+     * @see #setClassificationCacheDirectory(File)
+     * @since 1.6
+     */
+    public void setClassificationCache( boolean classificationCache )
+    {
+        this.classificationCache = classificationCache;
+    }
+
+    /**
+     * Get the directory of the persistent report classification cache.
+     *
+     * @return the cache directory, or <code>null</code> to use
+     *         <code>.cache/maven-reporting-exec/classification</code> in the local repository
+     * @since 1.6
+     */
+    public File getClassificationCacheDirectory()
+    {
+        return classificationCacheDirectory;
+    }
+
+    /**
+     * Set the directory of the persistent report classification cache.
+     *
+     * @param classificationCacheDirectory the cache directory, or <code>null</code> to use
+     *            <code>.cache/maven-reporting-exec/classification</code> in the local repository
+     * @since 1.6
+     */
+    public void setClassificationCacheDirectory( File classificationCacheDirectory )
+    {
+        this.classificationCacheDirectory = classificationCacheDirectory;
+    }
+
+    /**
+     * Is incremental reporting enabled?
+     *
+     * @return <code>true</code> if report plugins with unchanged inputs are not prepared again
+     * @since 1.6
+     */
+    public boolean isIncremental()
+    {
+        return incremental;
+    }
+
+    /**
+     * Enable incremental reporting: for each report plugin, a fingerprint of the project model, the reporting
+     * configuration, the plugin artifact and the plugin dependencies is stored in
+     * <code>target/maven-reporting-exec/fingerprints</code> with the reports prepared. When a report plugin fingerprint
+     * has not changed since previous build, the plugin is not prepared: its report executions are only markers telling
+     * that
+     * {@link MavenReportExecution#isReusePreviousOutput() previous output can be reused}.
+     * Fingerprints are stored once every report of the plugin has been
+     * {@link MavenReportExecution#markGenerated() marked as generated} by the caller, then a report plugin is prepared
+     * again after a failed generation.
+     *
+     * @param incremental <code>true</code> to skip report plugins with unchanged inputs
+     * @since 1.6
+     */
+    public void setIncremental( boolean incremental )
+    {
+        this.incremental = incremental;
+    }
+
+    /**
+     * Get the patterns of reports to prepare.
+     *
+     * @return the include patterns, empty to include every report: the list is not modifiable, use
+     *         {@link #setIncludes(List)} to change it
+     * @since 1.6
+     */
+    public List<String> getIncludes()
+    {
+        return Collections.unmodifiableList( includes );
+    }
+
+    /**
+     * Only prepare the reports matching at least one pattern. A pattern is <code>artifactId</code>,
+     * <code>artifactId:goal</code> or <code>groupId:artifactId:goal</code>, where each part can contain
+     * <code>*</code> and <code>?</code> wildcards: for example <code>maven-javadoc-plugin:javadoc</code> or
+     * <code>*:*-jxr-plugin:*</code>. Report plugins that can't match are skipped before any resolution, and goals
+     * that don't match are dropped before the plugin realm is set up.
+     * The <code>maven.reporting.exec.includes</code> system property, a comma separated list of patterns, overrides
+     * this value. Incremental reporting fingerprints are not stored while reports are filtered. A warning is logged for
+     * every include pattern matching no report plugin: notice that a two parts pattern is
+     * <code>artifactId:goal</code>, not <code>groupId:artifactId</code>.
+     *
+     * @param includes the include patterns, empty to include every report: the list is copied
+     * @since 1.6
+     */
+    public synchronized void setIncludes( List<String> includes )
+    {
+        this.includes = copy( includes );
+        this.reportFilterParsed = false;
+    }
+
+    /**
+     * Get the patterns of reports not to prepare.
+     *
+     * @return the exclude patterns: the list is not modifiable, use {@link #setExcludes(List)} to change it
+     * @since 1.6
+     */
+    public List<String> getExcludes()
+    {
+        return Collections.unmodifiableList( excludes );
+    }
+
+    /**
+     * Don't prepare the reports matching any pattern, with the same format as {@link #setIncludes(List) includes}.
+     * The <code>maven.reporting.exec.excludes</code> system property overrides this value.
+     *
+     * @param excludes the exclude patterns: the list is copied
+     * @since 1.6
+     */
+    public synchronized void setExcludes( List<String> excludes )
+    {
+        this.excludes = copy( excludes );
+        this.reportFilterParsed = false;
+    }
+
+    private static List<String> copy( List<String> patterns )
+    {
+        return ( patterns == null ) ? new ArrayList<String>() : new ArrayList<>( patterns );
+    }
+
+    /**
+     * Get the report filter of includes and excludes, parsed on first call.
+     *
+     * @return the report filter, or <code>null</code> if every report is to be prepared
+     * @throws IllegalArgumentException if a pattern is invalid
+     */
+    synchronized ReportFilter getReportFilter()
+    {
+        if ( !reportFilterParsed )
+        {
+            reportFilter = ReportFilter.parse( this );
+            reportFilterParsed = true;
+        }
+        return reportFilter;
+    }
+
+    /**
+     * Copy this request with every option, to be used for another project.
+     *
+     * @return a shallow copy of this request, with its own include and exclude lists
+     */
+    MavenReportExecutorRequest copy()
+    {
+        try
+        {
+            MavenReportExecutorRequest copy = (MavenReportExecutorRequest) super.clone();
+            copy.includes = copy( includes );
+            copy.excludes = copy( excludes );
+            return copy;
+        }
+        catch ( CloneNotSupportedException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
     /**
      * Set the report plugin directly from <code>${project.reporting.plugins}</code> parameter value.
      *
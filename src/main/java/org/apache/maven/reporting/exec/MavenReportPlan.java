@@ -0,0 +1,220 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The reports a project would get from {@link MavenReportExecutor#buildMavenReports(MavenReportExecutorRequest)},
+ * computed by {@link StreamingMavenReportExecutor#planMavenReports(MavenReportExecutorRequest)} without configuring
+ * report mojos nor running forked executions. A plan is serializable and comparable with <code>equals()</code>, to be
+ * cached or compared between builds.
+ *
+ * @since 1.6
+ */
+public class MavenReportPlan
+    implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    private final String projectId;
+
+    private final List<PlannedReport> reports;
+
+    public MavenReportPlan( String projectId, List<PlannedReport> reports )
+    {
+        this.projectId = projectId;
+        this.reports = Collections.unmodifiableList( new ArrayList<>( reports ) );
+    }
+
+    public String getProjectId()
+    {
+        return projectId;
+    }
+
+    /**
+     * Get the planned reports.
+     *
+     * @return the planned reports, in the order report executions would be built
+     */
+    public List<PlannedReport> getReports()
+    {
+        return reports;
+    }
+
+    @Override
+    public boolean equals( Object obj )
+    {
+        if ( this == obj )
+        {
+            return true;
+        }
+        if ( !( obj instanceof MavenReportPlan ) )
+        {
+            return false;
+        }
+        MavenReportPlan other = (MavenReportPlan) obj;
+        return equal( projectId, other.projectId ) && reports.equals( other.reports );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * ( projectId == null ? 0 : projectId.hashCode() ) + reports.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "MavenReportPlan{projectId=" + projectId + ", reports=" + reports + "}";
+    }
+
+    private static boolean equal( Object o1, Object o2 )
+    {
+        return ( o1 == null ) ? o2 == null : o1.equals( o2 );
+    }
+
+    /**
+     * A report in a plan: the report plugin with its resolved version, the report goal and what preparing it would
+     * require.
+     */
+    public static class PlannedReport
+        implements Serializable
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final String groupId;
+
+        private final String artifactId;
+
+        private final String version;
+
+        private final String goal;
+
+        private final boolean userDefined;
+
+        private final boolean aggregator;
+
+        private final String forkedExecution;
+
+        public PlannedReport( String groupId, String artifactId, String version, String goal, boolean userDefined,
+                              boolean aggregator, String forkedExecution )
+        {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.goal = goal;
+            this.userDefined = userDefined;
+            this.aggregator = aggregator;
+            this.forkedExecution = forkedExecution;
+        }
+
+        public String getGroupId()
+        {
+            return groupId;
+        }
+
+        public String getArtifactId()
+        {
+            return artifactId;
+        }
+
+        /**
+         * Get the report plugin version.
+         *
+         * @return the resolved version, as it would be used to build the report execution
+         */
+        public String getVersion()
+        {
+            return version;
+        }
+
+        public String getGoal()
+        {
+            return goal;
+        }
+
+        /**
+         * Is the report configured in the POM?
+         *
+         * @return <code>true</code> if the report is configured, <code>false</code> if it is detected from the
+         *         report plugin goals
+         */
+        public boolean isUserDefined()
+        {
+            return userDefined;
+        }
+
+        public boolean isAggregator()
+        {
+            return aggregator;
+        }
+
+        /**
+         * Get the forked execution required by the report.
+         *
+         * @return <code>phase:</code> followed by the phase (prefixed with <code>plugin[lifecycle]</code> for a custom
+         *         lifecycle) for a forked phase, <code>goal:plugin:goal</code> for a forked goal, or <code>null</code>
+         *         if no fork is required
+         */
+        public String getForkedExecution()
+        {
+            return forkedExecution;
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof PlannedReport ) )
+            {
+                return false;
+            }
+            PlannedReport other = (PlannedReport) obj;
+            return equal( groupId, other.groupId ) && equal( artifactId, other.artifactId )
+                && equal( version, other.version ) && equal( goal, other.goal ) && userDefined == other.userDefined
+                && aggregator == other.aggregator && equal( forkedExecution, other.forkedExecution );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int hash = 17;
+            for ( Object field : new Object[] { groupId, artifactId, version, goal, forkedExecution } )
+            {
+                hash = 31 * hash + ( field == null ? 0 : field.hashCode() );
+            }
+            return 31 * ( 31 * hash + ( userDefined ? 1 : 0 ) ) + ( aggregator ? 1 : 0 );
+        }
+
+        @Override
+        public String toString()
+        {
+            return groupId + ':' + artifactId + ':' + version + ':' + goal
+                + ( forkedExecution == null ? "" : " (fork " + forkedExecution + ')' );
+        }
+    }
+}
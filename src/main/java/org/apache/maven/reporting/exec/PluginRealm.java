@@ -0,0 +1,52 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.List;
+
+import org.apache.maven.artifact.Artifact;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+
+/**
+ * A plugin realm set up once and reused across the reactor, with the artifacts it contains. The class realm belongs
+ * to Maven core, which keeps it in its own plugin realm cache for the whole session: it is never disposed here.
+ */
+class PluginRealm
+{
+    private final ClassRealm classRealm;
+
+    private final List<Artifact> artifacts;
+
+    PluginRealm( ClassRealm classRealm, List<Artifact> artifacts )
+    {
+        this.classRealm = classRealm;
+        this.artifacts = artifacts;
+    }
+
+    public ClassRealm getClassRealm()
+    {
+        return classRealm;
+    }
+
+    public List<Artifact> getArtifacts()
+    {
+        return artifacts;
+    }
+}
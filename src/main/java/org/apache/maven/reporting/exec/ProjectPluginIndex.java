@@ -0,0 +1,148 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Index of a project's <code>build.plugins</code> and <code>build.pluginManagement.plugins</code> by
+ * <code>groupId:artifactId</code>, to find plugins similar to a report plugin without scanning the lists for every
+ * lookup. Indexes are built once per project and held weakly: an index is rebuilt if the plugin lists it was built
+ * from have been replaced or resized since.
+ */
+class ProjectPluginIndex
+{
+    private static final Map<MavenProject, ProjectPluginIndex> INDEXES = new WeakHashMap<>();
+
+    private final List<Plugin> buildPlugins;
+
+    private final int buildPluginsSize;
+
+    private final List<Plugin> managedPlugins;
+
+    private final int managedPluginsSize;
+
+    private final Map<String, Plugin> buildPluginsByKey;
+
+    private final Map<String, Plugin> managedPluginsByKey;
+
+    private ProjectPluginIndex( List<Plugin> buildPlugins, List<Plugin> managedPlugins )
+    {
+        this.buildPlugins = buildPlugins;
+        this.buildPluginsSize = size( buildPlugins );
+        this.managedPlugins = managedPlugins;
+        this.managedPluginsSize = size( managedPlugins );
+        this.buildPluginsByKey = index( buildPlugins );
+        this.managedPluginsByKey = index( managedPlugins );
+    }
+
+    /**
+     * Get the plugin index of a project.
+     *
+     * @param project the project
+     * @return the plugin index
+     */
+    public static ProjectPluginIndex get( MavenProject project )
+    {
+        Build build = project.getBuild();
+        List<Plugin> buildPlugins = ( build == null ) ? null : build.getPlugins();
+        List<Plugin> managedPlugins =
+            ( build == null || build.getPluginManagement() == null ) ? null : build.getPluginManagement().getPlugins();
+
+        synchronized ( INDEXES )
+        {
+            ProjectPluginIndex index = INDEXES.get( project );
+            if ( index == null || !index.isIndexOf( buildPlugins, managedPlugins ) )
+            {
+                index = new ProjectPluginIndex( buildPlugins, managedPlugins );
+                INDEXES.put( project, index );
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Search similar (same groupId and artifactId) plugin as a given report plugin in <code>build.plugins</code>.
+     *
+     * @param reportPlugin the report plugin to search for a similar plugin
+     * @return the first similar plugin
+     */
+    public Plugin findBuildPlugin( ReportPlugin reportPlugin )
+    {
+        return buildPluginsByKey.get( getKey( reportPlugin.getGroupId(), reportPlugin.getArtifactId() ) );
+    }
+
+    /**
+     * Search similar (same groupId and artifactId) plugin as a given report plugin in
+     * <code>build.pluginManagement.plugins</code>.
+     *
+     * @param reportPlugin the report plugin to search for a similar plugin
+     * @return the first similar plugin
+     */
+    public Plugin findManagedPlugin( ReportPlugin reportPlugin )
+    {
+        return managedPluginsByKey.get( getKey( reportPlugin.getGroupId(), reportPlugin.getArtifactId() ) );
+    }
+
+    private boolean isIndexOf( List<Plugin> buildPlugins, List<Plugin> managedPlugins )
+    {
+        // MavenProject equality is based on coordinates: check that plugin lists are the indexed ones
+        return this.buildPlugins == buildPlugins && buildPluginsSize == size( buildPlugins )
+            && this.managedPlugins == managedPlugins && managedPluginsSize == size( managedPlugins );
+    }
+
+    private static int size( List<Plugin> plugins )
+    {
+        return ( plugins == null ) ? 0 : plugins.size();
+    }
+
+    private static Map<String, Plugin> index( List<Plugin> plugins )
+    {
+        if ( plugins == null || plugins.isEmpty() )
+        {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Plugin> pluginsByKey = new HashMap<>( plugins.size() * 2 );
+        for ( Plugin plugin : plugins )
+        {
+            String key = getKey( plugin.getGroupId(), plugin.getArtifactId() );
+            if ( !pluginsByKey.containsKey( key ) )
+            {
+                // keep the first one, like a linear search
+                pluginsByKey.put( key, plugin );
+            }
+        }
+        return pluginsByKey;
+    }
+
+    private static String getKey( String groupId, String artifactId )
+    {
+        return groupId + ':' + artifactId;
+    }
+}
@@ -0,0 +1,100 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Load and store properties files shared by concurrent builds.
+ */
+final class PropertiesFiles
+{
+    private PropertiesFiles()
+    {
+        // static methods only
+    }
+
+    /**
+     * Load a properties file.
+     *
+     * @param file the file
+     * @return the properties, empty if the file does not exist
+     * @throws IOException if the file can't be read
+     */
+    static Properties load( File file )
+        throws IOException
+    {
+        Properties properties = new Properties();
+        if ( file.isFile() )
+        {
+            try ( InputStream in = new FileInputStream( file ) )
+            {
+                properties.load( in );
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Store a properties file. The file is written to a temporary file first, then moved, to never expose a partially
+     * written file to concurrent builds.
+     *
+     * @param properties the properties
+     * @param file the file
+     * @param comment the comment written at the beginning of the file
+     * @throws IOException if the file can't be written
+     */
+    static void store( Properties properties, File file, String comment )
+        throws IOException
+    {
+        Path directory = file.getAbsoluteFile().getParentFile().toPath();
+        Files.createDirectories( directory );
+        Path tmp = Files.createTempFile( directory, file.getName(), ".tmp" );
+        try
+        {
+            try ( OutputStream out = Files.newOutputStream( tmp ) )
+            {
+                properties.store( out, comment );
+            }
+
+            try
+            {
+                Files.move( tmp, file.toPath(), StandardCopyOption.ATOMIC_MOVE );
+            }
+            catch ( AtomicMoveNotSupportedException e )
+            {
+                Files.move( tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING );
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists( tmp );
+        }
+    }
+}
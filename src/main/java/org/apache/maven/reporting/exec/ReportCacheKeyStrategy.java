@@ -0,0 +1,47 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Strategy calculating the cache key of a report output from the report inputs.
+ *
+ * @see MavenReportExecution#setCacheKeyStrategy(ReportCacheKeyStrategy)
+ * @since 1.6
+ */
+public interface ReportCacheKeyStrategy
+{
+    /**
+     * Calculate the cache key of a report output. Reports with the same cache key are expected to produce the same
+     * output.
+     *
+     * @param mavenReportExecution the report execution
+     * @param outputDirectory the directory the report is rendered to
+     * @param locale the locale the report is rendered in
+     * @return the cache key, made of characters valid in a file name, or <code>null</code> if the report output
+     *         can't be cached
+     * @throws IOException if an input file can't be read
+     */
+    String getCacheKey( MavenReportExecution mavenReportExecution, File outputDirectory, Locale locale )
+        throws IOException;
+}
@@ -0,0 +1,150 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+
+/**
+ * Persistent cache of report goals classification: whether a goal is a {@link org.apache.maven.reporting.MavenReport}
+ * only changes when the plugin artifact changes. Classifications of the goals of a plugin are stored in a properties
+ * file named after the SHA-1 checksum of the plugin artifact, then they are available to next builds before any
+ * plugin realm is created. Loaded classifications are kept for the session.
+ */
+class ReportClassificationCache
+{
+    private static final String REPORT = ".report";
+
+    private final ArtifactChecksums artifactChecksums;
+
+    private final SessionScopedCache<File, Properties> classifications = new SessionScopedCache<>();
+
+    private final SessionScopedCache<File, Boolean> modified = new SessionScopedCache<>();
+
+    ReportClassificationCache( ArtifactChecksums artifactChecksums )
+    {
+        this.artifactChecksums = artifactChecksums;
+    }
+
+    /**
+     * Get the cached classification of a goal.
+     *
+     * @param session the session
+     * @param directory the cache directory
+     * @param pluginDescriptor the plugin descriptor, with its plugin artifact
+     * @param goal the goal
+     * @return <code>TRUE</code> or <code>FALSE</code>, or <code>null</code> if the goal has not been classified yet
+     * @throws IOException if the plugin artifact checksum can't be calculated
+     */
+    public Boolean isMavenReport( MavenSession session, File directory, PluginDescriptor pluginDescriptor,
+                                  String goal )
+        throws IOException
+    {
+        Properties classification = getClassification( session, directory, pluginDescriptor );
+        if ( classification == null )
+        {
+            return null;
+        }
+
+        String report = classification.getProperty( goal + REPORT );
+        return ( report == null ) ? null : Boolean.valueOf( report );
+    }
+
+    /**
+     * Record the classification of a goal, to be stored with {@link #store(MavenSession, File, PluginDescriptor)}.
+     *
+     * @param session the session
+     * @param directory the cache directory
+     * @param pluginDescriptor the plugin descriptor, with its plugin artifact
+     * @param goal the goal
+     * @param isMavenReport the classification of the goal
+     * @throws IOException if the plugin artifact checksum can't be calculated
+     */
+    public void record( MavenSession session, File directory, PluginDescriptor pluginDescriptor, String goal,
+                        boolean isMavenReport )
+        throws IOException
+    {
+        Properties classification = getClassification( session, directory, pluginDescriptor );
+        if ( classification == null )
+        {
+            return;
+        }
+
+        classification.setProperty( goal + REPORT, Boolean.toString( isMavenReport ) );
+
+        modified.putIfAbsent( session, getFile( directory, pluginDescriptor ), Boolean.TRUE );
+    }
+
+    /**
+     * Store the classifications recorded for a plugin, if any.
+     *
+     * @param session the session
+     * @param directory the cache directory
+     * @param pluginDescriptor the plugin descriptor, with its plugin artifact
+     * @throws IOException if the classification can't be stored
+     */
+    public void store( MavenSession session, File directory, PluginDescriptor pluginDescriptor )
+        throws IOException
+    {
+        File file = getFile( directory, pluginDescriptor );
+        if ( file == null || modified.get( session, file ) == null )
+        {
+            return;
+        }
+        modified.remove( session, file, Boolean.TRUE );
+
+        PropertiesFiles.store( classifications.get( session, file ), file, pluginDescriptor.getId() );
+    }
+
+    private Properties getClassification( MavenSession session, File directory, PluginDescriptor pluginDescriptor )
+        throws IOException
+    {
+        File file = getFile( directory, pluginDescriptor );
+        if ( file == null )
+        {
+            return null;
+        }
+
+        Properties classification = classifications.get( session, file );
+        if ( classification == null )
+        {
+            classification = classifications.putIfAbsent( session, file, PropertiesFiles.load( file ) );
+        }
+        return classification;
+    }
+
+    private File getFile( File directory, PluginDescriptor pluginDescriptor )
+        throws IOException
+    {
+        Artifact pluginArtifact = pluginDescriptor.getPluginArtifact();
+        if ( directory == null || pluginArtifact == null || pluginArtifact.getFile() == null
+            || !pluginArtifact.getFile().isFile() )
+        {
+            return null;
+        }
+
+        return new File( directory, artifactChecksums.getChecksum( pluginArtifact.getFile() ) + ".properties" );
+    }
+}
@@ -0,0 +1,305 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.maven.shared.utils.StringUtils;
+
+/**
+ * Include and exclude patterns of reports to prepare, from {@link MavenReportExecutorRequest#getIncludes()} and
+ * {@link MavenReportExecutorRequest#getExcludes()}, overridden by system properties. Patterns are parsed once per
+ * request, see {@link MavenReportExecutorRequest#getReportFilter()}. Excludes take precedence over includes.
+ *
+ * @see MavenReportExecutorRequest#setIncludes(List)
+ */
+class ReportFilter
+{
+    /**
+     * System property overriding include patterns, comma separated.
+     */
+    static final String INCLUDES_PROPERTY = "maven.reporting.exec.includes";
+
+    /**
+     * System property overriding exclude patterns, comma separated.
+     */
+    static final String EXCLUDES_PROPERTY = "maven.reporting.exec.excludes";
+
+    private final List<ReportPattern> includes;
+
+    private final List<ReportPattern> excludes;
+
+    private ReportFilter( List<ReportPattern> includes, List<ReportPattern> excludes )
+    {
+        this.includes = includes;
+        this.excludes = excludes;
+    }
+
+    /**
+     * Parse the filter of a request.
+     *
+     * @param mavenReportExecutorRequest the request
+     * @return the filter, or <code>null</code> if every report is to be prepared
+     * @throws IllegalArgumentException if a pattern is invalid
+     */
+    static ReportFilter parse( MavenReportExecutorRequest mavenReportExecutorRequest )
+    {
+        List<ReportPattern> includes = parse( INCLUDES_PROPERTY, mavenReportExecutorRequest.getIncludes() );
+        List<ReportPattern> excludes = parse( EXCLUDES_PROPERTY, mavenReportExecutorRequest.getExcludes() );
+
+        return ( includes.isEmpty() && excludes.isEmpty() ) ? null : new ReportFilter( includes, excludes );
+    }
+
+    /**
+     * Can a goal of a report plugin be included? Used to skip a report plugin before resolving it.
+     *
+     * @param groupId the report plugin groupId
+     * @param artifactId the report plugin artifactId
+     * @return <code>false</code> if every goal of the report plugin is excluded
+     */
+    public boolean includesPlugin( String groupId, String artifactId )
+    {
+        for ( ReportPattern exclude : excludes )
+        {
+            if ( exclude.matchesEveryGoal() && exclude.matchesPlugin( groupId, artifactId ) )
+            {
+                return false;
+            }
+        }
+
+        if ( includes.isEmpty() )
+        {
+            return true;
+        }
+        for ( ReportPattern include : includes )
+        {
+            if ( include.matchesPlugin( groupId, artifactId ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Is a report goal included?
+     *
+     * @param groupId the report plugin groupId
+     * @param artifactId the report plugin artifactId
+     * @param goal the report goal
+     * @return <code>true</code> if the goal matches an include pattern (or there is none) and no exclude pattern
+     */
+    public boolean includes( String groupId, String artifactId, String goal )
+    {
+        for ( ReportPattern exclude : excludes )
+        {
+            if ( exclude.matches( groupId, artifactId, goal ) )
+            {
+                return false;
+            }
+        }
+
+        if ( includes.isEmpty() )
+        {
+            return true;
+        }
+        for ( ReportPattern include : includes )
+        {
+            if ( include.matches( groupId, artifactId, goal ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check that every include pattern matches at least one report plugin: a pattern matching nothing is most likely
+     * a mistake, for example <code>groupId:artifactId</code> read as <code>artifactId:goal</code>.
+     *
+     * @param reportPlugins the report plugins of the request
+     * @return a warning message for every include pattern matching no report plugin
+     */
+    public List<String> checkIncludes( ReportPlugin[] reportPlugins )
+    {
+        List<String> warnings = new ArrayList<>();
+        for ( ReportPattern include : includes )
+        {
+            boolean matched = false;
+            String ambiguousPlugin = null;
+            for ( ReportPlugin reportPlugin : reportPlugins )
+            {
+                if ( include.matchesPlugin( reportPlugin.getGroupId(), reportPlugin.getArtifactId() ) )
+                {
+                    matched = true;
+                    break;
+                }
+                if ( include.matchesAsPluginKey( reportPlugin.getGroupId(), reportPlugin.getArtifactId() ) )
+                {
+                    ambiguousPlugin = reportPlugin.getGroupId() + ':' + reportPlugin.getArtifactId();
+                }
+            }
+
+            if ( !matched )
+            {
+                String warning = "report include pattern '" + include + "' matches no report plugin";
+                if ( ambiguousPlugin != null )
+                {
+                    warning += ": two parts are read as artifactId:goal, use '" + include + ":*' to include every"
+                        + " report of " + ambiguousPlugin;
+                }
+                warnings.add( warning );
+            }
+        }
+        return warnings;
+    }
+
+    private static List<ReportPattern> parse( String property, List<String> patterns )
+    {
+        String value = System.getProperty( property );
+        if ( value != null )
+        {
+            patterns = new ArrayList<>();
+            for ( String pattern : StringUtils.split( value, "," ) )
+            {
+                patterns.add( pattern );
+            }
+        }
+        if ( patterns == null || patterns.isEmpty() )
+        {
+            return Collections.emptyList();
+        }
+
+        List<ReportPattern> reportPatterns = new ArrayList<>( patterns.size() );
+        for ( String pattern : patterns )
+        {
+            if ( StringUtils.isNotBlank( pattern ) )
+            {
+                reportPatterns.add( new ReportPattern( pattern.trim() ) );
+            }
+        }
+        return reportPatterns;
+    }
+
+    /**
+     * A <code>artifactId</code>, <code>artifactId:goal</code> or <code>groupId:artifactId:goal</code> pattern, with
+     * <code>*</code> and <code>?</code> wildcards in each part.
+     */
+    private static class ReportPattern
+    {
+        private final String pattern;
+
+        private final Pattern groupId;
+
+        private final Pattern artifactId;
+
+        private final Pattern goal;
+
+        ReportPattern( String pattern )
+        {
+            this.pattern = pattern;
+            String[] parts = pattern.split( ":", -1 );
+            switch ( parts.length )
+            {
+                case 1:
+                    groupId = null;
+                    artifactId = compile( parts[0] );
+                    goal = null;
+                    break;
+                case 2:
+                    groupId = null;
+                    artifactId = compile( parts[0] );
+                    goal = compile( parts[1] );
+                    break;
+                case 3:
+                    groupId = compile( parts[0] );
+                    artifactId = compile( parts[1] );
+                    goal = compile( parts[2] );
+                    break;
+                default:
+                    throw new IllegalArgumentException( "invalid report pattern '" + pattern
+                        + "': expected artifactId, artifactId:goal or groupId:artifactId:goal" );
+            }
+        }
+
+        boolean matchesPlugin( String groupId, String artifactId )
+        {
+            return ( this.groupId == null || this.groupId.matcher( groupId ).matches() )
+                && this.artifactId.matcher( artifactId ).matches();
+        }
+
+        /**
+         * Would an <code>artifactId:goal</code> pattern match the plugin if it was read as
+         * <code>groupId:artifactId</code>?
+         */
+        boolean matchesAsPluginKey( String groupId, String artifactId )
+        {
+            return this.groupId == null && goal != null && this.artifactId.matcher( groupId ).matches()
+                && goal.matcher( artifactId ).matches();
+        }
+
+        boolean matchesEveryGoal()
+        {
+            return goal == null || ".*".equals( goal.pattern() );
+        }
+
+        boolean matches( String groupId, String artifactId, String goal )
+        {
+            return matchesPlugin( groupId, artifactId ) && ( this.goal == null || this.goal.matcher( goal ).matches() );
+        }
+
+        @Override
+        public String toString()
+        {
+            return pattern;
+        }
+
+        private static Pattern compile( String glob )
+        {
+            StringBuilder regex = new StringBuilder();
+            StringBuilder literal = new StringBuilder();
+            for ( int i = 0; i < glob.length(); i++ )
+            {
+                char c = glob.charAt( i );
+                if ( c == '*' || c == '?' )
+                {
+                    if ( literal.length() > 0 )
+                    {
+                        regex.append( Pattern.quote( literal.toString() ) );
+                        literal.setLength( 0 );
+                    }
+                    regex.append( c == '*' ? ".*" : "." );
+                }
+                else
+                {
+                    literal.append( c );
+                }
+            }
+            if ( literal.length() > 0 )
+            {
+                regex.append( Pattern.quote( literal.toString() ) );
+            }
+            return Pattern.compile( regex.toString() );
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.configuration.PlexusConfiguration;
+import org.codehaus.plexus.logging.Logger;
+
+/**
+ * Fingerprints of report plugin preparation inputs, for incremental reporting: the project model, the reporting
+ * configuration of the report plugin, the plugin artifact and the plugin dependencies. Fingerprints are stored in the
+ * project build directory with the goals of the reports prepared, once every report has been generated, then next
+ * builds can reuse previous output when nothing has changed.
+ */
+class ReportFingerprints
+{
+    private static final String FINGERPRINT = "fingerprint";
+
+    private static final String REPORTS = "reports";
+
+    private final ArtifactChecksums artifactChecksums;
+
+    /**
+     * Model fingerprints by project instance: projects are equal by coordinates, while the same module built again in
+     * a long-lived JVM can have an edited model.
+     */
+    private final SessionScopedCache<ProjectIdentity, String> modelFingerprints = new SessionScopedCache<>();
+
+    ReportFingerprints( ArtifactChecksums artifactChecksums )
+    {
+        this.artifactChecksums = artifactChecksums;
+    }
+
+    /**
+     * Get the file storing the fingerprint of a report plugin.
+     *
+     * @param project the project
+     * @param reportPlugin the report plugin
+     * @return the fingerprint file, or <code>null</code> if the project has no build directory
+     */
+    public File getFile( MavenProject project, ReportPlugin reportPlugin )
+    {
+        String buildDirectory = project.getBuild().getDirectory();
+        if ( buildDirectory == null )
+        {
+            return null;
+        }
+
+        return new File( buildDirectory, "maven-reporting-exec/fingerprints/" + reportPlugin.getGroupId() + '_'
+            + reportPlugin.getArtifactId() + ".properties" );
+    }
+
+    /**
+     * Calculate the fingerprint of a report plugin preparation inputs.
+     *
+     * @param session the session
+     * @param project the project
+     * @param reportPlugin the report plugin
+     * @param plugin the plugin, with the dependencies added to the plugin
+     * @param pluginDescriptor the plugin descriptor, with its plugin artifact
+     * @return the fingerprint, or <code>null</code> if the plugin artifact file is not known
+     * @throws IOException on any issue while calculating the fingerprint
+     */
+    public String fingerprint( MavenSession session, MavenProject project, ReportPlugin reportPlugin, Plugin plugin,
+                               PluginDescriptor pluginDescriptor )
+        throws IOException
+    {
+        Artifact pluginArtifact = pluginDescriptor.getPluginArtifact();
+        if ( pluginArtifact == null || pluginArtifact.getFile() == null || !pluginArtifact.getFile().isFile() )
+        {
+            return null;
+        }
+
+        StringBuilder inputs = new StringBuilder();
+        inputs.append( "model=" ).append( getModelFingerprint( session, project ) );
+        inputs.append( "\nplugin=" ).append( pluginDescriptor.getId() );
+        inputs.append( "\nartifact=" ).append( artifactChecksums.getChecksum( pluginArtifact.getFile() ) );
+        for ( Dependency dependency : plugin.getDependencies() )
+        {
+            // dependencies are not resolved yet: their coordinates only
+            inputs.append( "\ndependency=" ).append( dependency.getManagementKey() ).append( ':' );
+            inputs.append( dependency.getVersion() ).append( ':' ).append( dependency.getScope() );
+            for ( Exclusion exclusion : dependency.getExclusions() )
+            {
+                inputs.append( ":!" ).append( exclusion.getGroupId() ).append( ':' );
+                inputs.append( exclusion.getArtifactId() );
+            }
+        }
+        inputs.append( "\nreports=" ).append( reportPlugin.getReports() );
+        appendConfiguration( inputs, reportPlugin.getConfiguration() );
+        for ( ReportSet reportSet : reportPlugin.getReportSets() )
+        {
+            inputs.append( "\nreportSet=" ).append( reportSet.getId() ).append( reportSet.getReports() );
+            appendConfiguration( inputs, reportSet.getConfiguration() );
+        }
+
+        MessageDigest digest = ArtifactChecksums.newSha1();
+        return ArtifactChecksums.toHex( digest.digest( inputs.toString().getBytes( StandardCharsets.UTF_8 ) ) );
+    }
+
+    private static void appendConfiguration( StringBuilder inputs, PlexusConfiguration configuration )
+    {
+        if ( configuration != null )
+        {
+            inputs.append( "\nconfiguration=" ).append( ConfigurationMerger.convert( configuration ) );
+        }
+    }
+
+    /**
+     * Get the fingerprint of the project model, calculated once per project instance in a session.
+     */
+    private String getModelFingerprint( MavenSession session, MavenProject project )
+        throws IOException
+    {
+        ProjectIdentity key = new ProjectIdentity( project );
+        String modelFingerprint = modelFingerprints.get( session, key );
+        if ( modelFingerprint == null )
+        {
+            MessageDigest digest = ArtifactChecksums.newSha1();
+            try ( Writer writer =
+                new OutputStreamWriter( new DigestOutputStream( new NullOutputStream(), digest ),
+                                        StandardCharsets.UTF_8 ) )
+            {
+                new MavenXpp3Writer().write( writer, project.getModel() );
+            }
+            modelFingerprint =
+                modelFingerprints.putIfAbsent( session, key, ArtifactChecksums.toHex( digest.digest() ) );
+        }
+        return modelFingerprint;
+    }
+
+    /**
+     * Get the goals of the reports prepared in previous build, if the fingerprint has not changed.
+     *
+     * @param file the fingerprint file
+     * @param fingerprint the current fingerprint
+     * @return the goals of the reports prepared in previous build, or <code>null</code> if the fingerprint changed
+     * @throws IOException if the fingerprint file can't be read
+     */
+    public List<String> getPreviousReports( File file, String fingerprint )
+        throws IOException
+    {
+        Properties previous = PropertiesFiles.load( file );
+        if ( !fingerprint.equals( previous.getProperty( FINGERPRINT ) ) )
+        {
+            return null;
+        }
+
+        String reports = previous.getProperty( REPORTS, "" );
+        return reports.isEmpty() ? Collections.<String>emptyList() : Arrays.asList( reports.split( "," ) );
+    }
+
+    /**
+     * Store the fingerprint with the goals of the reports prepared.
+     *
+     * @param file the fingerprint file
+     * @param fingerprint the fingerprint
+     * @param reports the reports prepared
+     * @throws IOException if the fingerprint file can't be written
+     */
+    public void store( File file, String fingerprint, List<MavenReportExecution> reports )
+        throws IOException
+    {
+        StringBuilder buff = new StringBuilder();
+        for ( MavenReportExecution report : reports )
+        {
+            if ( buff.length() > 0 )
+            {
+                buff.append( ',' );
+            }
+            buff.append( report.getGoal() );
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty( FINGERPRINT, fingerprint );
+        properties.setProperty( REPORTS, buff.toString() );
+        PropertiesFiles.store( properties, file, null );
+    }
+
+    /**
+     * Prepare the fingerprint of a report plugin to be stored once every report prepared has been
+     * {@link MavenReportExecution#markGenerated() generated}. Without reports, the fingerprint is stored immediately.
+     *
+     * @param file the fingerprint file
+     * @param fingerprint the fingerprint
+     * @param reports the reports prepared
+     * @param logger the logger warning about storage failures
+     * @return the pending fingerprint
+     */
+    public PendingFingerprint pending( File file, String fingerprint, List<MavenReportExecution> reports,
+                                       Logger logger )
+    {
+        PendingFingerprint pendingFingerprint = new PendingFingerprint( file, fingerprint, reports, logger );
+        if ( reports.isEmpty() )
+        {
+            pendingFingerprint.store();
+        }
+        else
+        {
+            for ( MavenReportExecution report : reports )
+            {
+                report.setPendingFingerprint( pendingFingerprint );
+            }
+        }
+        return pendingFingerprint;
+    }
+
+    /**
+     * Fingerprint of a report plugin waiting for its reports to be generated: a report generation failure leaves the
+     * previous fingerprint, then next build prepares the report plugin again.
+     */
+    class PendingFingerprint
+    {
+        private final File file;
+
+        private final String fingerprint;
+
+        private final List<MavenReportExecution> reports;
+
+        private final Logger logger;
+
+        private int remaining;
+
+        PendingFingerprint( File file, String fingerprint, List<MavenReportExecution> reports, Logger logger )
+        {
+            this.file = file;
+            this.fingerprint = fingerprint;
+            this.reports = reports;
+            this.logger = logger;
+            this.remaining = reports.size();
+        }
+
+        /**
+         * A report of the plugin has been generated: store the fingerprint if it was the last one.
+         */
+        public void reportGenerated()
+        {
+            synchronized ( this )
+            {
+                if ( --remaining > 0 )
+                {
+                    return;
+                }
+            }
+            store();
+        }
+
+        private void store()
+        {
+            try
+            {
+                ReportFingerprints.this.store( file, fingerprint, reports );
+            }
+            catch ( IOException e )
+            {
+                logger.warn( "unable to store fingerprint to " + file + ": " + e.getMessage() );
+            }
+        }
+    }
+
+    /**
+     * A project compared by identity.
+     */
+    private static class ProjectIdentity
+    {
+        private final MavenProject project;
+
+        ProjectIdentity( MavenProject project )
+        {
+            this.project = project;
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            return obj instanceof ProjectIdentity && ( (ProjectIdentity) obj ).project == project;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return System.identityHashCode( project );
+        }
+    }
+
+    private static class NullOutputStream
+        extends OutputStream
+    {
+        @Override
+        public void write( int b )
+        {
+            // only digested
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+        {
+            // only digested
+        }
+    }
+}
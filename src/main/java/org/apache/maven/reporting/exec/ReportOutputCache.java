@@ -0,0 +1,162 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Properties;
+
+/**
+ * Local content-addressed cache of report outputs. Output files are stored once per content, in
+ * <code>objects/</code> under their SHA-1, and each cache key has a manifest in <code>keys/</code> listing the output
+ * files, relative to the output directory, with their SHA-1. Files are written to temporary files first, then
+ * moved, to be shared by concurrent builds.
+ *
+ * @see CachingReportRenderer
+ * @since 1.6
+ */
+public class ReportOutputCache
+{
+    private final File directory;
+
+    /**
+     * Create a cache.
+     *
+     * @param directory the cache directory, for example <code>.cache/maven-reporting-exec/outputs</code> in the local
+     *            repository
+     */
+    public ReportOutputCache( File directory )
+    {
+        this.directory = directory;
+    }
+
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * Restore the output files cached for a key. Nothing is restored if any cached file is missing.
+     *
+     * @param key the cache key
+     * @param outputDirectory the output directory to restore files to
+     * @return <code>true</code> if output files have been restored, <code>false</code> if nothing is cached for the key
+     * @throws IOException if a file can't be copied
+     */
+    public boolean restore( String key, File outputDirectory )
+        throws IOException
+    {
+        Properties manifest = PropertiesFiles.load( getManifest( key ) );
+        if ( manifest.isEmpty() )
+        {
+            return false;
+        }
+
+        for ( String path : manifest.stringPropertyNames() )
+        {
+            if ( !getObject( manifest.getProperty( path ) ).isFile() )
+            {
+                return false;
+            }
+        }
+
+        for ( String path : manifest.stringPropertyNames() )
+        {
+            Path target = new File( outputDirectory, path ).toPath();
+            Files.createDirectories( target.toAbsolutePath().getParent() );
+            Files.copy( getObject( manifest.getProperty( path ) ).toPath(), target,
+                        StandardCopyOption.REPLACE_EXISTING );
+        }
+        return true;
+    }
+
+    /**
+     * Store output files for a key.
+     *
+     * @param key the cache key
+     * @param outputDirectory the output directory
+     * @param paths the output files, relative to the output directory
+     * @throws IOException if a file can't be copied
+     */
+    public void store( String key, File outputDirectory, Collection<String> paths )
+        throws IOException
+    {
+        Properties manifest = new Properties();
+        for ( String path : paths )
+        {
+            File file = new File( outputDirectory, path );
+            // output has just been generated: never trust a memoized checksum
+            String checksum = ArtifactChecksums.sha1( file );
+
+            File object = getObject( checksum );
+            if ( !object.isFile() )
+            {
+                copyAtomically( file.toPath(), object.toPath() );
+            }
+            manifest.setProperty( path.replace( File.separatorChar, '/' ), checksum );
+        }
+
+        PropertiesFiles.store( manifest, getManifest( key ), "report output files and their SHA-1" );
+    }
+
+    private File getManifest( String key )
+    {
+        return new File( directory, "keys/" + key + ".properties" );
+    }
+
+    private File getObject( String checksum )
+    {
+        return new File( directory, "objects/" + checksum.substring( 0, 2 ) + '/' + checksum );
+    }
+
+    private static void copyAtomically( Path source, Path target )
+        throws IOException
+    {
+        Path targetDirectory = target.toAbsolutePath().getParent();
+        Files.createDirectories( targetDirectory );
+        Path tmp = Files.createTempFile( targetDirectory, target.getFileName().toString(), ".tmp" );
+        try
+        {
+            Files.copy( source, tmp, StandardCopyOption.REPLACE_EXISTING );
+            try
+            {
+                Files.move( tmp, target, StandardCopyOption.ATOMIC_MOVE );
+            }
+            catch ( AtomicMoveNotSupportedException e )
+            {
+                Files.move( tmp, target, StandardCopyOption.REPLACE_EXISTING );
+            }
+            catch ( FileAlreadyExistsException e )
+            {
+                // same content stored concurrently
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists( tmp );
+        }
+    }
+}
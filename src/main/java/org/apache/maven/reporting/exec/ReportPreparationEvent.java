@@ -0,0 +1,112 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Report preparation stage done, with the report it was done for and its timing.
+ *
+ * @see ReportPreparationListener
+ * @since 1.6
+ */
+public class ReportPreparationEvent
+{
+    private final ReportPreparationStage stage;
+
+    private final String pluginKey;
+
+    private final String goal;
+
+    private final MavenProject project;
+
+    private final long startNanos;
+
+    private final long durationNanos;
+
+    public ReportPreparationEvent( ReportPreparationStage stage, String pluginKey, String goal, MavenProject project,
+                                   long startNanos, long durationNanos )
+    {
+        this.stage = stage;
+        this.pluginKey = pluginKey;
+        this.goal = goal;
+        this.project = project;
+        this.startNanos = startNanos;
+        this.durationNanos = durationNanos;
+    }
+
+    public ReportPreparationStage getStage()
+    {
+        return stage;
+    }
+
+    /**
+     * Get the key of the report plugin.
+     *
+     * @return the report plugin key, as <code>groupId:artifactId</code>, or <code>null</code> for
+     *         {@link ReportPreparationStage#PROJECT_REPORTS}
+     */
+    public String getPluginKey()
+    {
+        return pluginKey;
+    }
+
+    /**
+     * Get the goal of the report.
+     *
+     * @return the report goal, or <code>null</code> for stages done once for every goal of the report plugin
+     */
+    public String getGoal()
+    {
+        return goal;
+    }
+
+    public MavenProject getProject()
+    {
+        return project;
+    }
+
+    /**
+     * Get the start time of the stage.
+     *
+     * @return the start time, from {@link System#nanoTime()}
+     */
+    public long getStartNanos()
+    {
+        return startNanos;
+    }
+
+    /**
+     * Get the duration of the stage.
+     *
+     * @return the duration in nanoseconds
+     */
+    public long getDurationNanos()
+    {
+        return durationNanos;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ReportPreparationEvent{stage=" + stage + ", pluginKey=" + pluginKey + ", goal=" + goal + ", project="
+            + ( project == null ? null : project.getId() ) + ", durationNanos=" + durationNanos + "}";
+    }
+}
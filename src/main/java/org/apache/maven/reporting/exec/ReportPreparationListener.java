@@ -0,0 +1,38 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Listener notified by {@link DefaultMavenReportExecutor} each time a report preparation stage is done, for example
+ * to find out which report plugins are the slowest to prepare. Listeners are called by the thread that did the stage:
+ * they can be called concurrently, by multiple threads, when report plugins are prepared concurrently.
+ *
+ * @see DefaultMavenReportExecutor#addReportPreparationListener(ReportPreparationListener)
+ * @since 1.6
+ */
+public interface ReportPreparationListener
+{
+    /**
+     * A report preparation stage has been done successfully.
+     *
+     * @param event the stage, report and timing information
+     */
+    void stageDone( ReportPreparationEvent event );
+}
@@ -0,0 +1,81 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Stages of report preparation done by {@link DefaultMavenReportExecutor}, reported to
+ * {@link ReportPreparationListener}s.
+ *
+ * @since 1.6
+ */
+public enum ReportPreparationStage
+{
+    /**
+     * Resolution of the report plugin version, from build plugins, plugin management or repositories.
+     */
+    VERSION_RESOLUTION,
+
+    /**
+     * Resolution of the report plugin descriptor.
+     */
+    DESCRIPTOR_RESOLUTION,
+
+    /**
+     * Setup of the report plugin realm.
+     */
+    REALM_SETUP,
+
+    /**
+     * Check that a goal of the report plugin is a {@link org.apache.maven.reporting.MavenReport}.
+     */
+    REPORT_CLASSIFICATION,
+
+    /**
+     * Merge of the goal configuration from plugin management, report plugin and report set.
+     */
+    CONFIGURATION_MERGE,
+
+    /**
+     * Instantiation and configuration of the report mojo.
+     */
+    MOJO_CONFIGURATION,
+
+    /**
+     * Forked execution required by the report.
+     */
+    FORKED_EXECUTION,
+
+    /**
+     * Whole preparation of a report goal, from classification to mojo configuration.
+     */
+    REPORT_GOAL,
+
+    /**
+     * Whole preparation of a report plugin, from version resolution to the preparation of every goal. Forked
+     * executions deferred until every report plugin has been prepared are not included.
+     */
+    REPORT_PLUGIN,
+
+    /**
+     * Whole preparation of the reports of a project, by a
+     * {@link MavenReportExecutor#buildMavenReports(MavenReportExecutorRequest) buildMavenReports(...)} call.
+     */
+    PROJECT_REPORTS
+}
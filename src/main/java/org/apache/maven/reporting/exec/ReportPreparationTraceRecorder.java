@@ -0,0 +1,319 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report preparation listener writing a timeline of every stage to a file, to be loaded in a trace viewer. Files with
+ * <code>.jsonl</code> extension get one JSON object per line, other files get Chrome trace event JSON
+ * (<code>chrome://tracing</code>, Perfetto UI), with a track for every thread.
+ * The file is written as events come, then the Chrome trace array is left open, which trace viewers accept.
+ * <p>
+ * A recorder is {@link #open(File) opened} by each top-level call of the report executor and closed at its end: the
+ * file is written by one recorder at a time, and it is closed once the last call using it is done. The first recorder
+ * of the JVM overwrites the file, next ones append to it, with times relative to the same origin.
+ * </p>
+ *
+ * @see DefaultMavenReportExecutor#TRACE_PROPERTY
+ */
+class ReportPreparationTraceRecorder
+    implements ReportPreparationListener
+{
+    private static final long ORIGIN_NANOS = System.nanoTime();
+
+    private static final Map<File, ReportPreparationTraceRecorder> RECORDERS = new HashMap<>();
+
+    /**
+     * Files already written by a recorder of this JVM, to be appended to.
+     */
+    private static final Set<File> STARTED_FILES = new HashSet<>();
+
+    private final File file;
+
+    private final boolean jsonLines;
+
+    private final String pid;
+
+    private final Set<Long> namedThreads = new HashSet<>();
+
+    private int users;
+
+    private Writer writer;
+
+    private boolean failed;
+
+    private boolean closed;
+
+    private ReportPreparationTraceRecorder( File file )
+    {
+        this.file = file;
+        this.jsonLines = file.getName().endsWith( ".jsonl" );
+
+        // "pid@host", or anything else
+        String name = ManagementFactory.getRuntimeMXBean().getName();
+        int index = name.indexOf( '@' );
+        String processId = ( index > 0 ) ? name.substring( 0, index ) : "";
+        this.pid = processId.matches( "\\d+" ) ? processId : "0";
+    }
+
+    /**
+     * Open the recorder writing to a file: the recorder currently open for the file, or a new one. Each call must be
+     * followed by a call to {@link #close()}.
+     *
+     * @param file the trace file, overwritten by the first recorder of the JVM
+     * @return the recorder
+     */
+    static synchronized ReportPreparationTraceRecorder open( File file )
+    {
+        File key = file.getAbsoluteFile();
+        ReportPreparationTraceRecorder recorder = RECORDERS.get( key );
+        if ( recorder == null )
+        {
+            recorder = new ReportPreparationTraceRecorder( key );
+            RECORDERS.put( key, recorder );
+        }
+        recorder.users++;
+        return recorder;
+    }
+
+    /**
+     * Close the recorder for a caller: the file is closed once every caller that opened the recorder has closed it.
+     *
+     * @return <code>true</code> if the file has been closed, then the recorder must not be used any more
+     */
+    boolean close()
+    {
+        synchronized ( ReportPreparationTraceRecorder.class )
+        {
+            if ( --users > 0 )
+            {
+                return false;
+            }
+            RECORDERS.remove( file );
+        }
+        closeWriter();
+        return true;
+    }
+
+    private synchronized void closeWriter()
+    {
+        closed = true;
+        if ( writer != null )
+        {
+            try
+            {
+                writer.close();
+            }
+            catch ( IOException e )
+            {
+                // events already written are kept
+            }
+            writer = null;
+        }
+    }
+
+    public File getFile()
+    {
+        return file;
+    }
+
+    @Override
+    public synchronized void stageDone( ReportPreparationEvent event )
+    {
+        if ( failed || closed )
+        {
+            return;
+        }
+
+        Thread thread = Thread.currentThread();
+        try
+        {
+            if ( writer == null )
+            {
+                open();
+            }
+
+            if ( jsonLines )
+            {
+                writeJsonLine( event, thread );
+            }
+            else
+            {
+                writeTraceEvent( event, thread );
+            }
+        }
+        catch ( IOException e )
+        {
+            // don't fail the build for a trace: stop recording
+            failed = true;
+            throw new IllegalStateException( "unable to write report preparation trace to " + file, e );
+        }
+    }
+
+    private void open()
+        throws IOException
+    {
+        File parent = file.getParentFile();
+        if ( parent != null && !parent.isDirectory() && !parent.mkdirs() )
+        {
+            throw new IOException( "unable to create directory " + parent );
+        }
+        boolean append;
+        synchronized ( ReportPreparationTraceRecorder.class )
+        {
+            append = !STARTED_FILES.add( file );
+        }
+        writer = new BufferedWriter( new OutputStreamWriter( new FileOutputStream( file, append ),
+                                                             StandardCharsets.UTF_8 ) );
+        if ( !jsonLines && !append )
+        {
+            writer.write( "[\n" );
+            writeTraceMetadata( "process_name", "0", "maven-reporting-exec" );
+        }
+    }
+
+    private void writeJsonLine( ReportPreparationEvent event, Thread thread )
+        throws IOException
+    {
+        StringBuilder line = new StringBuilder( 256 );
+        line.append( "{\"stage\":" );
+        appendString( line, event.getStage().name() );
+        line.append( ",\"plugin\":" );
+        appendString( line, event.getPluginKey() );
+        line.append( ",\"goal\":" );
+        appendString( line, event.getGoal() );
+        line.append( ",\"project\":" );
+        appendString( line, event.getProject() == null ? null : event.getProject().getId() );
+        line.append( ",\"thread\":" );
+        appendString( line, thread.getName() );
+        line.append( ",\"threadId\":" ).append( thread.getId() );
+        line.append( ",\"startMicros\":" ).append( toMicros( event.getStartNanos() - ORIGIN_NANOS ) );
+        line.append( ",\"durationMicros\":" ).append( toMicros( event.getDurationNanos() ) );
+        line.append( "}\n" );
+        writer.write( line.toString() );
+    }
+
+    private void writeTraceEvent( ReportPreparationEvent event, Thread thread )
+        throws IOException
+    {
+        if ( namedThreads.add( thread.getId() ) )
+        {
+            writeTraceMetadata( "thread_name", String.valueOf( thread.getId() ), thread.getName() );
+        }
+
+        String name;
+        if ( event.getPluginKey() == null )
+        {
+            name = event.getProject() == null ? "reports" : event.getProject().getId();
+        }
+        else
+        {
+            name = ( event.getGoal() == null ) ? event.getPluginKey() : event.getPluginKey() + ':' + event.getGoal();
+        }
+
+        StringBuilder line = new StringBuilder( 256 );
+        line.append( "{\"name\":" );
+        appendString( line, name );
+        line.append( ",\"cat\":" );
+        appendString( line, event.getStage().name() );
+        line.append( ",\"ph\":\"X\",\"pid\":" ).append( pid );
+        line.append( ",\"tid\":" ).append( thread.getId() );
+        line.append( ",\"ts\":" ).append( toMicros( event.getStartNanos() - ORIGIN_NANOS ) );
+        line.append( ",\"dur\":" ).append( toMicros( event.getDurationNanos() ) );
+        line.append( ",\"args\":{\"stage\":" );
+        appendString( line, event.getStage().name() );
+        line.append( ",\"project\":" );
+        appendString( line, event.getProject() == null ? null : event.getProject().getId() );
+        line.append( "}},\n" );
+        writer.write( line.toString() );
+    }
+
+    private void writeTraceMetadata( String metadata, String tid, String value )
+        throws IOException
+    {
+        StringBuilder line = new StringBuilder( 128 );
+        line.append( "{\"name\":\"" ).append( metadata ).append( "\",\"ph\":\"M\",\"pid\":" ).append( pid );
+        line.append( ",\"tid\":" ).append( tid ).append( ",\"args\":{\"name\":" );
+        appendString( line, value );
+        line.append( "}},\n" );
+        writer.write( line.toString() );
+    }
+
+    private static long toMicros( long nanos )
+    {
+        return TimeUnit.NANOSECONDS.toMicros( nanos );
+    }
+
+    private static void appendString( StringBuilder buff, String value )
+    {
+        if ( value == null )
+        {
+            buff.append( "null" );
+            return;
+        }
+
+        buff.append( '"' );
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            char c = value.charAt( i );
+            switch ( c )
+            {
+                case '"':
+                    buff.append( "\\\"" );
+                    break;
+                case '\\':
+                    buff.append( "\\\\" );
+                    break;
+                case '\n':
+                    buff.append( "\\n" );
+                    break;
+                case '\r':
+                    buff.append( "\\r" );
+                    break;
+                case '\t':
+                    buff.append( "\\t" );
+                    break;
+                default:
+                    if ( c < 0x20 )
+                    {
+                        buff.append( String.format( "\\u%04x", (int) c ) );
+                    }
+                    else
+                    {
+                        buff.append( c );
+                    }
+            }
+        }
+        buff.append( '"' );
+    }
+}
@@ -0,0 +1,40 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Rendering of a report execution, for example generating a site page with the report, called by
+ * {@link ConcurrentReportRenderer}.
+ *
+ * @since 1.6
+ */
+public interface ReportRenderer
+{
+    /**
+     * Render a report execution. Called with the report {@link MavenReportExecution#getClassLoader() class loader}
+     * as thread context class loader, possibly by multiple threads concurrently for
+     * {@link MavenReportExecution#isThreadSafe() thread-safe} reports.
+     *
+     * @param mavenReportExecution the report execution to render
+     * @throws Exception on rendering issue
+     */
+    void render( MavenReportExecution mavenReportExecution )
+        throws Exception;
+}
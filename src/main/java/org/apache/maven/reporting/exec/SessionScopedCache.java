@@ -0,0 +1,107 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.execution.MavenSession;
+
+/**
+ * A cache with entries scoped to a Maven session: entries are dropped once the session is not used any more.
+ * The session {@link org.apache.maven.execution.MavenExecutionRequest MavenExecutionRequest} is used as scope
+ * instead of the session itself, since the session is cloned for each project in parallel builds.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of cached values
+ */
+class SessionScopedCache<K, V>
+{
+    private final Map<Object, ConcurrentMap<K, V>> caches = new WeakHashMap<>();
+
+    private final CacheStatistics statistics = new CacheStatistics();
+
+    /**
+     * Get a cached value, recording a hit or a miss.
+     *
+     * @param session the session
+     * @param key the key
+     * @return the cached value, or <code>null</code> if not cached yet
+     */
+    public V get( MavenSession session, K key )
+    {
+        V value = getCache( session ).get( key );
+        if ( value == null )
+        {
+            statistics.recordMiss();
+        }
+        else
+        {
+            statistics.recordHit();
+        }
+        return value;
+    }
+
+    /**
+     * Cache a value if no value is cached yet for the key.
+     *
+     * @param session the session
+     * @param key the key
+     * @param value the value to cache
+     * @return the value cached for the key, which is not the given value if another one was cached concurrently
+     */
+    public V putIfAbsent( MavenSession session, K key, V value )
+    {
+        V previous = getCache( session ).putIfAbsent( key, value );
+        return ( previous == null ) ? value : previous;
+    }
+
+    /**
+     * Remove a cached value.
+     *
+     * @param session the session
+     * @param key the key
+     * @param value the value expected to be cached
+     */
+    public void remove( MavenSession session, K key, V value )
+    {
+        getCache( session ).remove( key, value );
+    }
+
+    public CacheStatistics getStatistics()
+    {
+        return statistics;
+    }
+
+    private synchronized ConcurrentMap<K, V> getCache( MavenSession session )
+    {
+        Object scope = ( session.getRequest() == null ) ? session : session.getRequest();
+
+        ConcurrentMap<K, V> cache = caches.get( scope );
+        if ( cache == null )
+        {
+            cache = new ConcurrentHashMap<>();
+            caches.put( scope, cache );
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,60 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.List;
+
+import org.apache.maven.plugin.MojoExecutionException;
+
+/**
+ * A {@link MavenReportExecutor} notifying each report execution as soon as it is prepared, and able to plan reports
+ * without preparing them. The component looked up with the {@link MavenReportExecutor} role implements this interface
+ * since 1.6: check with <code>instanceof</code> before using it with an older implementation.
+ *
+ * @since 1.6
+ */
+public interface StreamingMavenReportExecutor
+    extends MavenReportExecutor
+{
+    /**
+     * Build the {@link org.apache.maven.reporting.MavenReport}s, with associated forked executions if necessary,
+     * notifying each report execution to the listener as soon as it is prepared.
+     *
+     * @param mavenReportExecutorRequest the request
+     * @param listener the listener notified of each prepared report execution
+     * @return a list or prepared Maven report executions, in declaration order
+     * @throws MojoExecutionException on report execution issue
+     */
+    List<MavenReportExecution> buildMavenReports( MavenReportExecutorRequest mavenReportExecutorRequest,
+                                                  MavenReportExecutionListener listener )
+        throws MojoExecutionException;
+
+    /**
+     * Plan the {@link org.apache.maven.reporting.MavenReport}s that
+     * {@link #buildMavenReports(MavenReportExecutorRequest)} would build, with their resolved plugin versions and
+     * required forked executions, without configuring report mojos nor running forked executions.
+     *
+     * @param mavenReportExecutorRequest the request
+     * @return the report plan
+     * @throws MojoExecutionException on report plugin resolution issue
+     */
+    MavenReportPlan planMavenReports( MavenReportExecutorRequest mavenReportExecutorRequest )
+        throws MojoExecutionException;
+}
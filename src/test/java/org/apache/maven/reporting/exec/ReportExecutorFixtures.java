@@ -0,0 +1,474 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.lifecycle.LifecycleExecutionException;
+import org.apache.maven.lifecycle.LifecycleExecutor;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MavenPluginManager;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugin.version.PluginVersionResolver;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.classworlds.ClassWorld;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+
+/**
+ * Report plugins built in memory and stub Maven components, to test {@link DefaultMavenReportExecutor} without
+ * resolving anything: every plugin realm set up is a new {@link ClassRealm}, every report goal is implemented by
+ * {@link FixtureReport} and forked executions are only recorded.
+ */
+class ReportExecutorFixtures
+{
+    static final String GROUP_ID = "org.apache.maven.reporting.fixture";
+
+    private final Map<String, PluginDescriptor> pluginDescriptors = new ConcurrentHashMap<>();
+
+    private final Map<String, Exception> pluginDescriptorFailures = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> pluginDescriptorDelays = new ConcurrentHashMap<>();
+
+    private final List<String> resolvedPluginDescriptors = new CopyOnWriteArrayList<>();
+
+    private final List<Thread> pluginDescriptorThreads = new CopyOnWriteArrayList<>();
+
+    private final List<ReportPlugin> reportPlugins = new ArrayList<>();
+
+    private final List<WeakReference<ClassRealm>> pluginRealms = new CopyOnWriteArrayList<>();
+
+    private final List<String> executedForks = new CopyOnWriteArrayList<>();
+
+    private final List<Thread> forkThreads = new CopyOnWriteArrayList<>();
+
+    private final List<Thread> configuredMojoThreads = new CopyOnWriteArrayList<>();
+
+    private volatile long configuredMojoDelay;
+
+    private final List<Object> releasedMojos = new CopyOnWriteArrayList<>();
+
+    private volatile LifecycleExecutionException forkFailure;
+
+    private final MavenProject project = new MavenProject();
+
+    /**
+     * Add a report plugin.
+     *
+     * @param artifactId the plugin artifactId
+     * @param goals the report goals of the plugin, a non-report goal is added to them
+     * @return the report plugin, without reports configured
+     */
+    ReportPlugin addReportPlugin( String artifactId, String... goals )
+    {
+        ReportPlugin reportPlugin = new ReportPlugin();
+        reportPlugin.setGroupId( GROUP_ID );
+        reportPlugin.setArtifactId( artifactId );
+        reportPlugin.setVersion( "1.0" );
+        reportPlugins.add( reportPlugin );
+
+        PluginDescriptor pluginDescriptor = new PluginDescriptor();
+        pluginDescriptor.setGroupId( GROUP_ID );
+        pluginDescriptor.setArtifactId( artifactId );
+        pluginDescriptor.setVersion( "1.0" );
+        try
+        {
+            for ( String goal : goals )
+            {
+                pluginDescriptor.addMojo( newMojoDescriptor( pluginDescriptor, goal, FixtureReport.class ) );
+            }
+            // not a report
+            pluginDescriptor.addMojo( newMojoDescriptor( pluginDescriptor, "help", ReportExecutorFixtures.class ) );
+        }
+        catch ( Exception e )
+        {
+            throw new IllegalStateException( e );
+        }
+        pluginDescriptors.put( artifactId, pluginDescriptor );
+
+        return reportPlugin;
+    }
+
+    private static MojoDescriptor newMojoDescriptor( PluginDescriptor pluginDescriptor, String goal,
+                                                     Class<?> implementation )
+    {
+        MojoDescriptor mojoDescriptor = new MojoDescriptor();
+        mojoDescriptor.setPluginDescriptor( pluginDescriptor );
+        mojoDescriptor.setGoal( goal );
+        mojoDescriptor.setImplementation( implementation.getName() );
+        return mojoDescriptor;
+    }
+
+    /**
+     * Get the descriptor of a report goal, for example to make it require a forked execution.
+     *
+     * @param artifactId the plugin artifactId
+     * @param goal the goal
+     * @return the mojo descriptor
+     */
+    MojoDescriptor getMojoDescriptor( String artifactId, String goal )
+    {
+        return pluginDescriptors.get( artifactId ).getMojo( goal );
+    }
+
+    /**
+     * Set the plugin artifact file, required to fingerprint the plugin for incremental reporting.
+     *
+     * @param artifactId the plugin artifactId
+     * @param file the plugin artifact file
+     */
+    void setPluginArtifactFile( String artifactId, File file )
+    {
+        Artifact pluginArtifact = new DefaultArtifact( GROUP_ID, artifactId, "1.0", null, "maven-plugin", null,
+                                                       new DefaultArtifactHandler( "maven-plugin" ) );
+        pluginArtifact.setFile( file );
+        pluginDescriptors.get( artifactId ).setPluginArtifact( pluginArtifact );
+    }
+
+    /**
+     * Make plugin descriptor resolution fail.
+     *
+     * @param artifactId the plugin artifactId
+     * @param failure the exception thrown when the descriptor is resolved
+     */
+    void failPluginDescriptor( String artifactId, Exception failure )
+    {
+        pluginDescriptorFailures.put( artifactId, failure );
+    }
+
+    /**
+     * Slow down plugin descriptor resolution.
+     *
+     * @param artifactId the plugin artifactId
+     * @param millis the resolution time
+     */
+    void delayPluginDescriptor( String artifactId, long millis )
+    {
+        pluginDescriptorDelays.put( artifactId, millis );
+    }
+
+    /**
+     * Get the plugin descriptors resolved, as <code>artifactId</code>, one per
+     * <code>MavenPluginManager.getPluginDescriptor()</code> call, even failed.
+     *
+     * @return the resolved plugin descriptors
+     */
+    List<String> getResolvedPluginDescriptors()
+    {
+        return resolvedPluginDescriptors;
+    }
+
+    /**
+     * Get the threads that resolved plugin descriptors, one per resolution.
+     *
+     * @return the threads that called <code>MavenPluginManager.getPluginDescriptor()</code>
+     */
+    List<Thread> getPluginDescriptorThreads()
+    {
+        return pluginDescriptorThreads;
+    }
+
+    /**
+     * Make forked executions fail, until reset with <code>null</code>.
+     *
+     * @param failure the exception thrown by forked executions
+     */
+    void failForks( LifecycleExecutionException failure )
+    {
+        this.forkFailure = failure;
+    }
+
+    /**
+     * Get the forked executions run, as <code>artifactId:goal</code> of the report requiring them.
+     *
+     * @return the executed forks
+     */
+    List<String> getExecutedForks()
+    {
+        return executedForks;
+    }
+
+    List<Thread> getForkThreads()
+    {
+        return forkThreads;
+    }
+
+    /**
+     * Get the threads that configured report mojos, one per mojo configured.
+     *
+     * @return the threads that called <code>MavenPluginManager.getConfiguredMojo()</code>
+     */
+    List<Thread> getConfiguredMojoThreads()
+    {
+        return configuredMojoThreads;
+    }
+
+    /**
+     * Slow down report mojo configuration.
+     *
+     * @param millis the configuration time
+     */
+    void delayConfiguredMojo( long millis )
+    {
+        this.configuredMojoDelay = millis;
+    }
+
+    List<WeakReference<ClassRealm>> getPluginRealms()
+    {
+        return pluginRealms;
+    }
+
+    List<Object> getReleasedMojos()
+    {
+        return releasedMojos;
+    }
+
+    ReportPlugin[] getReportPlugins()
+    {
+        return reportPlugins.toArray( new ReportPlugin[reportPlugins.size()] );
+    }
+
+    MavenProject getProject()
+    {
+        return project;
+    }
+
+    private PluginDescriptor getPluginDescriptor( Plugin plugin )
+        throws Exception
+    {
+        resolvedPluginDescriptors.add( plugin.getArtifactId() );
+        pluginDescriptorThreads.add( Thread.currentThread() );
+
+        Long delay = pluginDescriptorDelays.get( plugin.getArtifactId() );
+        if ( delay != null )
+        {
+            Thread.sleep( delay );
+        }
+        Exception failure = pluginDescriptorFailures.get( plugin.getArtifactId() );
+        if ( failure != null )
+        {
+            throw failure;
+        }
+
+        // like MavenPluginManager, a copy of its cached descriptor
+        PluginDescriptor pluginDescriptor =
+            DefaultMavenPluginManagerHelper.copy( pluginDescriptors.get( plugin.getArtifactId() ) );
+        pluginDescriptor.setPlugin( plugin );
+        return pluginDescriptor;
+    }
+
+    private void setupPluginRealm( PluginDescriptor pluginDescriptor, ClassLoader parent )
+        throws Exception
+    {
+        ClassRealm pluginRealm = new ClassWorld().newRealm( pluginDescriptor.getId(), parent );
+        pluginRealms.add( new WeakReference<>( pluginRealm ) );
+
+        pluginDescriptor.setClassRealm( pluginRealm );
+        for ( MojoDescriptor mojoDescriptor : pluginDescriptor.getMojos() )
+        {
+            mojoDescriptor.setRealm( pluginRealm );
+        }
+    }
+
+    private static String getForkKey( MojoExecution mojoExecution )
+    {
+        return mojoExecution.getArtifactId() + ':' + mojoExecution.getGoal();
+    }
+
+    private MavenPluginManager newMavenPluginManager()
+    {
+        return stub( MavenPluginManager.class, new InvocationHandler()
+        {
+            @Override
+            public Object invoke( Object proxy, Method method, Object[] args )
+                throws Exception
+            {
+                switch ( method.getName() )
+                {
+                    case "getPluginDescriptor":
+                        return getPluginDescriptor( (Plugin) args[0] );
+                    case "setupPluginRealm":
+                        setupPluginRealm( (PluginDescriptor) args[0], (ClassLoader) args[2] );
+                        return null;
+                    case "getConfiguredMojo":
+                        configuredMojoThreads.add( Thread.currentThread() );
+                        if ( configuredMojoDelay > 0 )
+                        {
+                            Thread.sleep( configuredMojoDelay );
+                        }
+                        MojoExecution mojoExecution = (MojoExecution) args[2];
+                        boolean forked = mojoExecution.getMojoDescriptor().getExecutePhase() != null;
+                        return new FixtureReport( ReportExecutorFixtures.this,
+                                                  forked ? getForkKey( mojoExecution ) : null );
+                    case "releaseMojo":
+                        releasedMojos.add( args[0] );
+                        return null;
+                    default:
+                        return null;
+                }
+            }
+        } );
+    }
+
+    private LifecycleExecutor newLifecycleExecutor()
+    {
+        return stub( LifecycleExecutor.class, new InvocationHandler()
+        {
+            @Override
+            public Object invoke( Object proxy, Method method, Object[] args )
+                throws Exception
+            {
+                MojoExecution mojoExecution = (MojoExecution) args[0];
+                MavenSession session = (MavenSession) args[1];
+                switch ( method.getName() )
+                {
+                    case "calculateForkedExecutions":
+                        if ( mojoExecution.getMojoDescriptor().getExecutePhase() != null )
+                        {
+                            MojoExecution forkedExecution = new MojoExecution( new MojoDescriptor() );
+                            mojoExecution.setForkedExecutions( session.getCurrentProject().getId(),
+                                                               Collections.singletonList( forkedExecution ) );
+                        }
+                        return null;
+                    case "executeForkedExecutions":
+                        if ( forkFailure != null )
+                        {
+                            throw forkFailure;
+                        }
+                        executedForks.add( getForkKey( mojoExecution ) );
+                        forkThreads.add( Thread.currentThread() );
+                        return null;
+                    default:
+                        return null;
+                }
+            }
+        } );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    static <T> T stub( final Class<T> type, final InvocationHandler handler )
+    {
+        return (T) Proxy.newProxyInstance( ReportExecutorFixtures.class.getClassLoader(), new Class<?>[] { type },
+                                           new InvocationHandler()
+        {
+            @Override
+            public Object invoke( Object proxy, Method method, Object[] args )
+                throws Throwable
+            {
+                switch ( method.getName() )
+                {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode( proxy );
+                    case "toString":
+                        return "stub " + type.getSimpleName();
+                    default:
+                        return handler == null ? null : handler.invoke( proxy, method, args );
+                }
+            }
+        } );
+    }
+
+    /**
+     * Create a report executor using the stub components.
+     *
+     * @return the report executor
+     * @throws Exception on any issue
+     */
+    DefaultMavenReportExecutor newMavenReportExecutor()
+        throws Exception
+    {
+        MavenPluginManager mavenPluginManager = newMavenPluginManager();
+
+        DefaultMavenPluginManagerHelper mavenPluginManagerHelper = new DefaultMavenPluginManagerHelper();
+        inject( mavenPluginManagerHelper, "logger", newLogger() );
+        mavenPluginManagerHelper.mavenPluginManager = mavenPluginManager;
+
+        DefaultMavenReportExecutor mavenReportExecutor = new DefaultMavenReportExecutor();
+        inject( mavenReportExecutor, "logger", newLogger() );
+        mavenReportExecutor.mavenPluginManager = mavenPluginManager;
+        mavenReportExecutor.mavenPluginManagerHelper = mavenPluginManagerHelper;
+        mavenReportExecutor.lifecycleExecutor = newLifecycleExecutor();
+        mavenReportExecutor.pluginVersionResolver = stub( PluginVersionResolver.class, null );
+        return mavenReportExecutor;
+    }
+
+    static Logger newLogger()
+    {
+        return new ConsoleLogger( Logger.LEVEL_WARN, "test" );
+    }
+
+    static void inject( Object component, String name, Object requirement )
+        throws ReflectiveOperationException
+    {
+        Field field = component.getClass().getDeclaredField( name );
+        field.setAccessible( true );
+        field.set( component, requirement );
+    }
+
+    /**
+     * Create a new session, with the project as current project.
+     *
+     * @return the session
+     */
+    MavenSession newSession()
+    {
+        MavenSession session =
+            new MavenSession( null, null, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult() );
+        session.setCurrentProject( project );
+        return session;
+    }
+
+    /**
+     * Create a report executor request for every report plugin.
+     *
+     * @param session the session
+     * @return the request
+     */
+    MavenReportExecutorRequest newRequest( MavenSession session )
+    {
+        MavenReportExecutorRequest request = new MavenReportExecutorRequest();
+        request.setMavenSession( session );
+        request.setProject( project );
+        request.setReportPlugins( getReportPlugins() );
+        return request;
+    }
+}
@@ -0,0 +1,200 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.PluginResolutionException;
+
+/**
+ * Tests for report plugins prepared concurrently, with {@link MavenReportExecutorRequest#setThreadCount(int)}.
+ */
+public class TestConcurrentReportPreparation
+    extends TestCase
+{
+    private ReportExecutorFixtures fixtures;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        fixtures = new ReportExecutorFixtures();
+        for ( int i = 0; i < 4; i++ )
+        {
+            fixtures.addReportPlugin( "plugin" + i, "report-a", "report-b" );
+        }
+    }
+
+    public void testDeclarationOrder()
+        throws Exception
+    {
+        // first plugins are the slowest to resolve
+        for ( int i = 0; i < 4; i++ )
+        {
+            fixtures.delayPluginDescriptor( "plugin" + i, 40 * ( 4 - i ) );
+        }
+
+        List<String> expected = getReports( fixtures.newMavenReportExecutor()
+            .buildMavenReports( fixtures.newRequest( fixtures.newSession() ) ) );
+
+        MavenReportExecutorRequest request = fixtures.newRequest( fixtures.newSession() );
+        request.setThreadCount( 4 );
+        List<String> actual = getReports( fixtures.newMavenReportExecutor().buildMavenReports( request ) );
+
+        assertEquals( 8, expected.size() );
+        assertEquals( expected, actual );
+    }
+
+    public void testFailureWrappedWithPluginKey()
+        throws Exception
+    {
+        // the first failure in declaration order is reported, even if it is not the first one to happen
+        fixtures.delayPluginDescriptor( "plugin1", 200 );
+        fixtures.failPluginDescriptor( "plugin1", newPluginResolutionException( "plugin1" ) );
+        fixtures.failPluginDescriptor( "plugin3", newPluginResolutionException( "plugin3" ) );
+
+        MavenReportExecutorRequest request = fixtures.newRequest( fixtures.newSession() );
+        request.setThreadCount( 4 );
+        try
+        {
+            fixtures.newMavenReportExecutor().buildMavenReports( request );
+            fail( "plugin descriptor failure should be reported" );
+        }
+        catch ( MojoExecutionException e )
+        {
+            assertEquals( "failed to get report for " + ReportExecutorFixtures.GROUP_ID + ":plugin1", e.getMessage() );
+            assertTrue( e.getCause() instanceof PluginResolutionException );
+        }
+    }
+
+    public void testPreparedReportsClosedOnFailure()
+        throws Exception
+    {
+        // plugin3 is still being prepared when plugin2 fails
+        fixtures.delayPluginDescriptor( "plugin2", 50 );
+        fixtures.failPluginDescriptor( "plugin2", newPluginResolutionException( "plugin2" ) );
+        fixtures.delayPluginDescriptor( "plugin3", 200 );
+
+        MavenReportExecutorRequest request = fixtures.newRequest( fixtures.newSession() );
+        request.setThreadCount( 4 );
+        try
+        {
+            fixtures.newMavenReportExecutor().buildMavenReports( request );
+            fail( "plugin descriptor failure should be reported" );
+        }
+        catch ( MojoExecutionException e )
+        {
+            assertEquals( "failed to get report for " + ReportExecutorFixtures.GROUP_ID + ":plugin2", e.getMessage() );
+        }
+
+        assertEquals( "mojos of plugin0, plugin1 and plugin3 released", 6, fixtures.getReleasedMojos().size() );
+    }
+
+    public void testPreparedReportsClosedOnSerialFailure()
+        throws Exception
+    {
+        fixtures.failPluginDescriptor( "plugin2", newPluginResolutionException( "plugin2" ) );
+
+        try
+        {
+            fixtures.newMavenReportExecutor().buildMavenReports( fixtures.newRequest( fixtures.newSession() ) );
+            fail( "plugin descriptor failure should be reported" );
+        }
+        catch ( MojoExecutionException e )
+        {
+            assertEquals( "failed to get report for " + ReportExecutorFixtures.GROUP_ID + ":plugin2", e.getMessage() );
+        }
+
+        assertEquals( "mojos of plugin0 and plugin1 released", 4, fixtures.getReleasedMojos().size() );
+    }
+
+    public void testForksDeferredUntilEveryPluginIsPrepared()
+        throws Exception
+    {
+        fixtures.getMojoDescriptor( "plugin0", "report-a" ).setExecutePhase( "generate-sources" );
+        fixtures.getMojoDescriptor( "plugin2", "report-b" ).setExecutePhase( "process-classes" );
+        fixtures.delayPluginDescriptor( "plugin3", 100 );
+
+        final List<String> forksWhenNotified = new ArrayList<>();
+        MavenReportExecutionListener listener = new MavenReportExecutionListener()
+        {
+            @Override
+            public void reportPrepared( int pluginIndex, int reportIndex, MavenReportExecution mavenReportExecution )
+            {
+                if ( "plugin0".equals( mavenReportExecution.getPlugin().getArtifactId() ) )
+                {
+                    forksWhenNotified.addAll( fixtures.getExecutedForks() );
+                }
+            }
+        };
+
+        MavenReportExecutorRequest request = fixtures.newRequest( fixtures.newSession() );
+        request.setThreadCount( 4 );
+        List<MavenReportExecution> reports =
+            fixtures.newMavenReportExecutor().buildMavenReports( request, listener );
+
+        assertEquals( 8, reports.size() );
+        assertEquals( "forks run once every plugin is prepared, in declaration order",
+                      asList( "plugin0:report-a", "plugin2:report-b" ), fixtures.getExecutedForks() );
+        for ( Thread thread : fixtures.getForkThreads() )
+        {
+            assertSame( "forks run by the caller thread", Thread.currentThread(), thread );
+        }
+        assertTrue( "reports notified after their fork", forksWhenNotified.contains( "plugin0:report-a" ) );
+        for ( MavenReportExecution report : reports )
+        {
+            assertTrue( report.canGenerateReport() );
+        }
+    }
+
+    private static PluginResolutionException newPluginResolutionException( String artifactId )
+    {
+        Plugin plugin = new Plugin();
+        plugin.setGroupId( ReportExecutorFixtures.GROUP_ID );
+        plugin.setArtifactId( artifactId );
+        plugin.setVersion( "1.0" );
+        return new PluginResolutionException( plugin, new Exception( "unresolvable " + artifactId ) );
+    }
+
+    private static List<String> asList( String... values )
+    {
+        List<String> list = new ArrayList<>();
+        for ( String value : values )
+        {
+            list.add( value );
+        }
+        return list;
+    }
+
+    private static List<String> getReports( List<MavenReportExecution> mavenReportExecutions )
+    {
+        List<String> reports = new ArrayList<>();
+        for ( MavenReportExecution mavenReportExecution : mavenReportExecutions )
+        {
+            reports.add( mavenReportExecution.getPlugin().getArtifactId() + ':' + mavenReportExecution.getGoal() );
+        }
+        return reports;
+    }
+}
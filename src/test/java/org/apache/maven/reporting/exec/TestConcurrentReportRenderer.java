@@ -0,0 +1,144 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link ConcurrentReportRenderer}.
+ */
+public class TestConcurrentReportRenderer
+    extends TestCase
+{
+    private ReportExecutorFixtures fixtures;
+
+    private final Map<String, Thread> renderingThreads = new ConcurrentHashMap<>();
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        fixtures = new ReportExecutorFixtures();
+        fixtures.addReportPlugin( "plugin0", "report-a", "report-b" );
+        fixtures.addReportPlugin( "plugin1", "report-a" );
+    }
+
+    public void testLazyReportsPreparedByCallingThread()
+        throws Exception
+    {
+        setThreadSafe( "plugin0", "report-a", "report-b" );
+        setThreadSafe( "plugin1", "report-a" );
+        fixtures.getMojoDescriptor( "plugin0", "report-a" ).setExecutePhase( "generate-sources" );
+        fixtures.getMojoDescriptor( "plugin1", "report-a" ).setExecutePhase( "process-sources" );
+
+        MavenReportExecutorRequest request = fixtures.newRequest( fixtures.newSession() );
+        request.setLazyMojoInstantiation( true );
+        request.setLazyForkedExecution( true );
+        List<MavenReportExecution> reports = fixtures.newMavenReportExecutor().buildMavenReports( request );
+        assertTrue( fixtures.getConfiguredMojoThreads().isEmpty() );
+        assertTrue( fixtures.getExecutedForks().isEmpty() );
+
+        new ConcurrentReportRenderer( 4 ).render( reports, newRenderer( reports.size() ) );
+
+        Thread caller = Thread.currentThread();
+        assertEquals( 3, fixtures.getConfiguredMojoThreads().size() );
+        assertEquals( Collections.nCopies( 3, caller ), fixtures.getConfiguredMojoThreads() );
+        assertEquals( Arrays.asList( "plugin0:report-a", "plugin1:report-a" ), fixtures.getExecutedForks() );
+        assertEquals( Collections.nCopies( 2, caller ), fixtures.getForkThreads() );
+
+        assertEquals( 3, renderingThreads.size() );
+        for ( Thread thread : renderingThreads.values() )
+        {
+            assertTrue( thread.getName(), thread.getName().startsWith( "report-rendering-" ) );
+        }
+    }
+
+    public void testNotThreadSafeReportsRenderedByCallingThread()
+        throws Exception
+    {
+        setThreadSafe( "plugin0", "report-a", "report-b" );
+
+        List<MavenReportExecution> reports =
+            fixtures.newMavenReportExecutor().buildMavenReports( fixtures.newRequest( fixtures.newSession() ) );
+        new ConcurrentReportRenderer( 4 ).render( reports, newRenderer( 2 ) );
+
+        assertEquals( Thread.currentThread(), renderingThreads.get( "plugin1:report-a" ) );
+        assertTrue( renderingThreads.get( "plugin0:report-a" ).getName().startsWith( "report-rendering-" ) );
+        assertTrue( renderingThreads.get( "plugin0:report-b" ).getName().startsWith( "report-rendering-" ) );
+    }
+
+    public void testSingleThread()
+        throws Exception
+    {
+        setThreadSafe( "plugin0", "report-a", "report-b" );
+        setThreadSafe( "plugin1", "report-a" );
+
+        List<MavenReportExecution> reports =
+            fixtures.newMavenReportExecutor().buildMavenReports( fixtures.newRequest( fixtures.newSession() ) );
+        new ConcurrentReportRenderer( 1 ).render( reports, newRenderer( 1 ) );
+
+        assertEquals( 3, renderingThreads.size() );
+        for ( Thread thread : renderingThreads.values() )
+        {
+            assertEquals( Thread.currentThread(), thread );
+        }
+    }
+
+    private void setThreadSafe( String artifactId, String... goals )
+    {
+        for ( String goal : goals )
+        {
+            fixtures.getMojoDescriptor( artifactId, goal ).setThreadSafe( true );
+        }
+    }
+
+    /**
+     * Create a renderer recording the rendering thread of each report, with thread-safe reports rendered
+     * concurrently waiting for each other.
+     */
+    private ReportRenderer newRenderer( int concurrentReports )
+    {
+        final CountDownLatch concurrent = new CountDownLatch( concurrentReports );
+        return new ReportRenderer()
+        {
+            @Override
+            public void render( MavenReportExecution mavenReportExecution )
+                throws Exception
+            {
+                renderingThreads.put( mavenReportExecution.getPlugin().getArtifactId() + ':'
+                    + mavenReportExecution.getGoal(), Thread.currentThread() );
+                if ( mavenReportExecution.isThreadSafe() )
+                {
+                    concurrent.countDown();
+                    assertTrue( concurrent.await( 10, TimeUnit.SECONDS ) );
+                }
+                assertNotNull( mavenReportExecution.getMavenReport() );
+            }
+        };
+    }
+}
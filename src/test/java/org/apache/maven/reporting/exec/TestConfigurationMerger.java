@@ -0,0 +1,244 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.configuration.PlexusConfiguration;
+import org.codehaus.plexus.configuration.xml.XmlPlexusConfiguration;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.codehaus.plexus.util.xml.Xpp3DomUtils;
+
+/**
+ * Tests for {@link ConfigurationMerger}: results are compared with the straightforward merge of unfiltered
+ * configurations, and memoization is checked through cache statistics.
+ */
+public class TestConfigurationMerger
+    extends TestCase
+{
+    private static final Set<String> PARAMETERS = new HashSet<String>( Arrays.asList( "a", "b", "c" ) );
+
+    private static final String[] NAMES = { "a", "b", "c", "d", "item" };
+
+    private ConfigurationMerger merger;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        merger = new ConfigurationMerger();
+    }
+
+    public void testMergeOrder()
+    {
+        Xpp3Dom mojoConf = configuration( "a", "mojo", "e", "mojo" );
+        Xpp3Dom pluginMgmtConf = configuration( "a", "management", "b", "management" );
+        Xpp3Dom pluginConf = configuration( "b", "plugin", "c", "plugin" );
+        Xpp3Dom reportSetConf = configuration( "c", "reportSet", "d", "reportSet" );
+
+        Xpp3Dom merged = merger.merge( plexus( mojoConf ), pluginMgmtConf, plexus( pluginConf ),
+                                       plexus( reportSetConf ), PARAMETERS );
+
+        // reportSet dominates plugin, which dominates pluginManagement, which dominates mojo defaults
+        assertEquals( "management", merged.getChild( "a" ).getValue() );
+        assertEquals( "plugin", merged.getChild( "b" ).getValue() );
+        assertEquals( "reportSet", merged.getChild( "c" ).getValue() );
+        assertNull( "unsupported parameter", merged.getChild( "d" ) );
+        assertNull( "unsupported parameter", merged.getChild( "e" ) );
+    }
+
+    public void testNothingToMerge()
+    {
+        Xpp3Dom mojoConf = configuration( "a", "mojo", "d", "mojo" );
+
+        // mojo configuration is used as is, without filtering nor memoization
+        assertEquals( mojoConf, merger.merge( plexus( mojoConf ), null, null, null, PARAMETERS ) );
+        assertEquals( new Xpp3Dom( "configuration" ), merger.merge( null, null, null, null, PARAMETERS ) );
+        assertEquals( 0, merger.getStatistics().getMissCount() );
+    }
+
+    public void testStructuralEquality()
+    {
+        merger.merge( null, configuration( "a", "1" ), plexus( configuration( "b", "2" ) ), null, PARAMETERS );
+        assertEquals( 1, merger.getStatistics().getMissCount() );
+
+        // equal configurations in new instances
+        merger.merge( null, configuration( "a", "1" ), plexus( configuration( "b", "2" ) ), null, PARAMETERS );
+        assertEquals( 1, merger.getStatistics().getHitCount() );
+
+        // unsupported parameters are not part of the key
+        merger.merge( null, configuration( "a", "1", "d", "x" ), plexus( configuration( "b", "2", "d", "y" ) ),
+                      null, PARAMETERS );
+        assertEquals( 2, merger.getStatistics().getHitCount() );
+
+        // a different value, attribute, position or level is a different key
+        merger.merge( null, configuration( "a", "2" ), plexus( configuration( "b", "2" ) ), null, PARAMETERS );
+        Xpp3Dom withAttribute = configuration( "a", "1" );
+        withAttribute.getChild( "a" ).setAttribute( "combine.self", "override" );
+        merger.merge( null, withAttribute, plexus( configuration( "b", "2" ) ), null, PARAMETERS );
+        merger.merge( null, null, plexus( configuration( "b", "2" ) ), plexus( configuration( "a", "1" ) ),
+                      PARAMETERS );
+        merger.merge( null, configuration( "b", "2" ), plexus( configuration( "a", "1" ) ), null, PARAMETERS );
+        merger.merge( null, configuration( "a", "1" ), plexus( configuration( "b", "2" ) ), new XmlPlexusConfiguration(
+            "configuration" ), PARAMETERS );
+        assertEquals( 2, merger.getStatistics().getHitCount() );
+        assertEquals( 6, merger.getStatistics().getMissCount() );
+    }
+
+    public void testResultIsACopy()
+    {
+        Xpp3Dom pluginMgmtConf = configuration( "a", "1" );
+        Xpp3Dom merged = merger.merge( null, pluginMgmtConf, null, null, PARAMETERS );
+        merged.getChild( "a" ).setValue( "changed" );
+        merged.addChild( new Xpp3Dom( "b" ) );
+
+        assertEquals( configuration( "a", "1" ), merger.merge( null, pluginMgmtConf, null, null, PARAMETERS ) );
+        assertEquals( configuration( "a", "1" ), pluginMgmtConf );
+        assertEquals( 1, merger.getStatistics().getHitCount() );
+    }
+
+    public void testRandomConfigurations()
+    {
+        Random random = new Random( 8L );
+        for ( int i = 0; i < 2000; i++ )
+        {
+            Xpp3Dom mojoConf = randomConfiguration( random );
+            Xpp3Dom pluginMgmtConf = randomConfiguration( random );
+            Xpp3Dom pluginConf = randomConfiguration( random );
+            Xpp3Dom reportSetConf = randomConfiguration( random );
+
+            Xpp3Dom expected = referenceMerge( plexus( mojoConf ), copy( pluginMgmtConf ), plexus( pluginConf ),
+                                               plexus( reportSetConf ), PARAMETERS );
+            for ( int j = 0; j < 2; j++ )
+            {
+                Xpp3Dom merged = merger.merge( plexus( mojoConf ), pluginMgmtConf, plexus( pluginConf ),
+                                               plexus( reportSetConf ), PARAMETERS );
+                assertEquals( "configurations " + Arrays.asList( mojoConf, pluginMgmtConf, pluginConf,
+                                                                   reportSetConf ), expected, merged );
+            }
+        }
+        assertTrue( merger.getStatistics().getHitCount() >= 2000 );
+        assertTrue( merger.getStatistics().getEvictionCount() > 0 );
+    }
+
+    private static Xpp3Dom configuration( String... namesAndValues )
+    {
+        Xpp3Dom dom = new Xpp3Dom( "configuration" );
+        for ( int i = 0; i < namesAndValues.length; i += 2 )
+        {
+            Xpp3Dom child = new Xpp3Dom( namesAndValues[i] );
+            child.setValue( namesAndValues[i + 1] );
+            dom.addChild( child );
+        }
+        return dom;
+    }
+
+    private static Xpp3Dom randomConfiguration( Random random )
+    {
+        if ( random.nextInt( 4 ) == 0 )
+        {
+            return null;
+        }
+        Xpp3Dom dom = new Xpp3Dom( "configuration" );
+        addRandomChildren( random, dom, 2 );
+        return dom;
+    }
+
+    private static void addRandomChildren( Random random, Xpp3Dom dom, int depth )
+    {
+        for ( int n = random.nextInt( 4 ), i = 0; i < n; i++ )
+        {
+            Xpp3Dom child = new Xpp3Dom( NAMES[random.nextInt( NAMES.length )] );
+            switch ( random.nextInt( 5 ) )
+            {
+                case 0:
+                    child.setAttribute( Xpp3Dom.CHILDREN_COMBINATION_MODE_ATTRIBUTE,
+                                        Xpp3Dom.CHILDREN_COMBINATION_APPEND );
+                    break;
+                case 1:
+                    child.setAttribute( Xpp3Dom.SELF_COMBINATION_MODE_ATTRIBUTE, Xpp3Dom.SELF_COMBINATION_OVERRIDE );
+                    break;
+                default:
+                    break;
+            }
+            if ( depth > 0 && random.nextBoolean() )
+            {
+                addRandomChildren( random, child, depth - 1 );
+            }
+            else
+            {
+                child.setValue( String.valueOf( random.nextInt( 3 ) ) );
+            }
+            dom.addChild( child );
+        }
+    }
+
+    private static PlexusConfiguration plexus( Xpp3Dom dom )
+    {
+        return ( dom == null ) ? null : new XmlPlexusConfiguration( new Xpp3Dom( dom ) );
+    }
+
+    private static Xpp3Dom copy( Xpp3Dom dom )
+    {
+        return ( dom == null ) ? null : new Xpp3Dom( dom );
+    }
+
+    /**
+     * The merge done before memoization: convert whole configurations, merge them, then remove unsupported
+     * parameters.
+     */
+    private static Xpp3Dom referenceMerge( PlexusConfiguration mojoConf, Xpp3Dom pluginMgmtConfig,
+                                           PlexusConfiguration pluginConf, PlexusConfiguration reportSetConf,
+                                           Set<String> parameters )
+    {
+        Xpp3Dom mojoConfig =
+            ( mojoConf != null ) ? ConfigurationMerger.convert( mojoConf ) : new Xpp3Dom( "configuration" );
+
+        if ( pluginMgmtConfig != null || pluginConf != null || reportSetConf != null )
+        {
+            Xpp3Dom pluginConfig =
+                ( pluginConf == null ) ? new Xpp3Dom( "fake" ) : ConfigurationMerger.convert( pluginConf );
+
+            Xpp3Dom mergedConfig =
+                Xpp3DomUtils.mergeXpp3Dom( ConfigurationMerger.convert( reportSetConf ), pluginConfig );
+            mergedConfig = Xpp3DomUtils.mergeXpp3Dom( mergedConfig, pluginMgmtConfig );
+            mergedConfig = Xpp3DomUtils.mergeXpp3Dom( mergedConfig, mojoConfig );
+
+            Xpp3Dom cleanedConfig = new Xpp3Dom( "configuration" );
+            for ( Xpp3Dom parameter : mergedConfig.getChildren() )
+            {
+                if ( parameters.contains( parameter.getName() ) )
+                {
+                    cleanedConfig.addChild( parameter );
+                }
+            }
+
+            mojoConfig = cleanedConfig;
+        }
+
+        return mojoConfig;
+    }
+}
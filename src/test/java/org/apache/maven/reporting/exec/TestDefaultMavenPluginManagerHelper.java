@@ -0,0 +1,229 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MavenPluginManager;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.repository.RemoteRepository;
+
+/**
+ * Tests for the plugin descriptor cache of {@link DefaultMavenPluginManagerHelper}.
+ */
+public class TestDefaultMavenPluginManagerHelper
+    extends TestCase
+{
+    private final AtomicInteger resolutions = new AtomicInteger();
+
+    private DefaultMavenPluginManagerHelper mavenPluginManagerHelper;
+
+    private MavenProject project;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        mavenPluginManagerHelper = new DefaultMavenPluginManagerHelper();
+        ReportExecutorFixtures.inject( mavenPluginManagerHelper, "logger", ReportExecutorFixtures.newLogger() );
+        mavenPluginManagerHelper.mavenPluginManager =
+            ReportExecutorFixtures.stub( MavenPluginManager.class, new InvocationHandler()
+            {
+                @Override
+                public Object invoke( Object proxy, Method method, Object[] args )
+                    throws Throwable
+                {
+                    if ( "getPluginDescriptor".equals( method.getName() ) )
+                    {
+                        resolutions.incrementAndGet();
+                        return newPluginDescriptor( (Plugin) args[0] );
+                    }
+                    return null;
+                }
+            } );
+
+        project = new MavenProject();
+        setRemotePluginRepositories( "central", "https://repo.maven.apache.org/maven2" );
+    }
+
+    public void testPluginKeyDistinguishesDependencies()
+    {
+        Plugin plugin = newPlugin();
+        String key = DefaultMavenPluginManagerHelper.getPluginKey( plugin, null );
+
+        Plugin withDependency = newPlugin();
+        withDependency.addDependency( newDependency( "1.0", null ) );
+        String dependencyKey = DefaultMavenPluginManagerHelper.getPluginKey( withDependency, null );
+        assertFalse( key.equals( dependencyKey ) );
+        assertEquals( dependencyKey, DefaultMavenPluginManagerHelper.getPluginKey( withDependency, null ) );
+
+        Plugin otherVersion = newPlugin();
+        otherVersion.addDependency( newDependency( "2.0", null ) );
+        assertFalse( dependencyKey.equals( DefaultMavenPluginManagerHelper.getPluginKey( otherVersion, null ) ) );
+
+        Plugin otherScope = newPlugin();
+        otherScope.addDependency( newDependency( "1.0", "runtime" ) );
+        assertFalse( dependencyKey.equals( DefaultMavenPluginManagerHelper.getPluginKey( otherScope, null ) ) );
+
+        Plugin withExclusion = newPlugin();
+        Dependency dependency = newDependency( "1.0", null );
+        Exclusion exclusion = new Exclusion();
+        exclusion.setGroupId( "org.example" );
+        exclusion.setArtifactId( "excluded" );
+        dependency.addExclusion( exclusion );
+        withExclusion.addDependency( dependency );
+        assertFalse( dependencyKey.equals( DefaultMavenPluginManagerHelper.getPluginKey( withExclusion, null ) ) );
+    }
+
+    public void testPluginKeyDistinguishesRemoteRepositories()
+    {
+        Plugin plugin = newPlugin();
+        List<RemoteRepository> central =
+            Collections.singletonList( newRemoteRepository( "central", "https://repo.maven.apache.org/maven2" ) );
+        List<RemoteRepository> mirror =
+            Collections.singletonList( newRemoteRepository( "central", "https://mirror.example.org/maven2" ) );
+
+        String key = DefaultMavenPluginManagerHelper.getPluginKey( plugin, central );
+        assertEquals( key, DefaultMavenPluginManagerHelper.getPluginKey( plugin, central ) );
+        assertFalse( key.equals( DefaultMavenPluginManagerHelper.getPluginKey( plugin, mirror ) ) );
+        assertFalse( key.equals( DefaultMavenPluginManagerHelper.getPluginKey( plugin, null ) ) );
+    }
+
+    public void testCachedDescriptorCopies()
+        throws Exception
+    {
+        MavenSession session = newSession();
+        Plugin plugin = newPlugin();
+        Plugin samePlugin = newPlugin();
+
+        PluginDescriptor pluginDescriptor = mavenPluginManagerHelper.getPluginDescriptor( plugin, session );
+        PluginDescriptor cachedDescriptor = mavenPluginManagerHelper.getPluginDescriptor( samePlugin, session );
+        assertEquals( 1, resolutions.get() );
+
+        assertNotSame( pluginDescriptor, cachedDescriptor );
+        assertSame( plugin, pluginDescriptor.getPlugin() );
+        assertSame( "copy rebound to the requested plugin", samePlugin, cachedDescriptor.getPlugin() );
+
+        MojoDescriptor mojoDescriptor = cachedDescriptor.getMojo( "report" );
+        assertNotSame( pluginDescriptor.getMojo( "report" ), mojoDescriptor );
+        assertSame( cachedDescriptor, mojoDescriptor.getPluginDescriptor() );
+    }
+
+    public void testCacheStatistics()
+        throws Exception
+    {
+        MavenSession session = newSession();
+        CacheStatistics statistics = mavenPluginManagerHelper.getPluginDescriptorCacheStatistics();
+
+        mavenPluginManagerHelper.getPluginDescriptor( newPlugin(), session );
+        assertEquals( 0, statistics.getHitCount() );
+        assertEquals( 1, statistics.getMissCount() );
+
+        mavenPluginManagerHelper.getPluginDescriptor( newPlugin(), session );
+        assertEquals( 1, statistics.getHitCount() );
+        assertEquals( 1, statistics.getMissCount() );
+
+        // other dependencies
+        Plugin withDependency = newPlugin();
+        withDependency.addDependency( newDependency( "1.0", null ) );
+        mavenPluginManagerHelper.getPluginDescriptor( withDependency, session );
+        assertEquals( 2, statistics.getMissCount() );
+
+        // other remote repositories
+        setRemotePluginRepositories( "central", "https://mirror.example.org/maven2" );
+        mavenPluginManagerHelper.getPluginDescriptor( newPlugin(), session );
+        assertEquals( 3, statistics.getMissCount() );
+
+        // other session
+        mavenPluginManagerHelper.getPluginDescriptor( newPlugin(), newSession() );
+        assertEquals( 4, statistics.getMissCount() );
+        assertEquals( 1, statistics.getHitCount() );
+        assertEquals( 4, resolutions.get() );
+    }
+
+    private MavenSession newSession()
+    {
+        MavenSession session =
+            new MavenSession( null, null, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult() );
+        session.setCurrentProject( project );
+        return session;
+    }
+
+    private void setRemotePluginRepositories( String id, String url )
+        throws ReflectiveOperationException
+    {
+        ReportExecutorFixtures.inject( project, "remotePluginRepositories",
+                                       Collections.singletonList( newRemoteRepository( id, url ) ) );
+    }
+
+    private static RemoteRepository newRemoteRepository( String id, String url )
+    {
+        return new RemoteRepository.Builder( id, "default", url ).build();
+    }
+
+    private static Plugin newPlugin()
+    {
+        Plugin plugin = new Plugin();
+        plugin.setGroupId( "org.example" );
+        plugin.setArtifactId( "plugin" );
+        plugin.setVersion( "1.0" );
+        return plugin;
+    }
+
+    private static Dependency newDependency( String version, String scope )
+    {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId( "org.example" );
+        dependency.setArtifactId( "dependency" );
+        dependency.setVersion( version );
+        dependency.setScope( scope );
+        return dependency;
+    }
+
+    private static PluginDescriptor newPluginDescriptor( Plugin plugin )
+        throws Exception
+    {
+        PluginDescriptor pluginDescriptor = new PluginDescriptor();
+        pluginDescriptor.setGroupId( plugin.getGroupId() );
+        pluginDescriptor.setArtifactId( plugin.getArtifactId() );
+        pluginDescriptor.setVersion( plugin.getVersion() );
+        pluginDescriptor.setPlugin( plugin );
+
+        MojoDescriptor mojoDescriptor = new MojoDescriptor();
+        mojoDescriptor.setGoal( "report" );
+        mojoDescriptor.setPluginDescriptor( pluginDescriptor );
+        pluginDescriptor.addMojo( mojoDescriptor );
+        return pluginDescriptor;
+    }
+}
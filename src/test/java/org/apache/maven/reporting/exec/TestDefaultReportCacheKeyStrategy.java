@@ -0,0 +1,311 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluationException;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluator;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Tests for {@link DefaultReportCacheKeyStrategy}.
+ */
+public class TestDefaultReportCacheKeyStrategy
+    extends TestCase
+{
+    private final DefaultReportCacheKeyStrategy strategy = new DefaultReportCacheKeyStrategy();
+
+    private File directory;
+
+    private File outputDirectory;
+
+    private File input;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        directory = File.createTempFile( "cache-key", "" );
+        assertTrue( directory.delete() && directory.mkdir() );
+        outputDirectory = new File( directory, "site" );
+        input = new File( directory, "src/Input.java" );
+        write( input, "class Input {}" );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        FileUtils.deleteDirectory( directory );
+        super.tearDown();
+    }
+
+    public void testNotCached()
+        throws Exception
+    {
+        MavenReportExecution execution = newExecution( "1.0" );
+        execution.setInputFiles( null );
+        assertNull( getCacheKey( execution ) );
+
+        assertNull( getCacheKey( newExecution( "1.0-SNAPSHOT" ) ) );
+        assertNull( getCacheKey( newExecution( null ) ) );
+    }
+
+    public void testSameInputs()
+        throws Exception
+    {
+        String key = getCacheKey( newExecution( "1.0" ) );
+        assertNotNull( key );
+        assertTrue( key.matches( "[0-9a-f]{40}" ) );
+        assertEquals( key, getCacheKey( newExecution( "1.0" ) ) );
+    }
+
+    public void testKeyChangesWithInputs()
+        throws Exception
+    {
+        String key = getCacheKey( newExecution( "1.0" ) );
+
+        assertFalse( key.equals( getCacheKey( newExecution( "1.1" ) ) ) );
+
+        MavenReportExecution execution = newExecution( "1.0" );
+        execution.setProjectId( "org.example:other:jar:1.0" );
+        assertFalse( key.equals( getCacheKey( execution ) ) );
+
+        execution = newExecution( "1.0" );
+        assertFalse( key.equals( strategy.getCacheKey( execution, new File( directory, "other" ), Locale.ENGLISH ) ) );
+        assertFalse( key.equals( strategy.getCacheKey( execution, outputDirectory, Locale.FRENCH ) ) );
+
+        execution.getConfiguration().getChild( "linkXRef" ).setValue( "false" );
+        assertFalse( key.equals( getCacheKey( execution ) ) );
+
+        write( input, "class Input { }" );
+        assertFalse( key.equals( getCacheKey( newExecution( "1.0" ) ) ) );
+    }
+
+    public void testKeyChangesWithMissingInput()
+        throws Exception
+    {
+        String key = getCacheKey( newExecution( "1.0" ) );
+
+        assertTrue( input.delete() );
+        assertFalse( key.equals( getCacheKey( newExecution( "1.0" ) ) ) );
+    }
+
+    public void testEvaluatedConfiguration()
+        throws Exception
+    {
+        MavenReportExecution execution = newExecution( "1.0" );
+        execution.setExpressionEvaluator( newEvaluator( "target" ) );
+        String key = getCacheKey( execution );
+
+        execution.setExpressionEvaluator( newEvaluator( "build" ) );
+        assertFalse( "evaluated value changed", key.equals( getCacheKey( execution ) ) );
+
+        execution.setExpressionEvaluator( newEvaluator( "target" ) );
+        assertEquals( key, getCacheKey( execution ) );
+
+        execution.setExpressionEvaluator( new ExpressionEvaluator()
+        {
+            @Override
+            public Object evaluate( String expression )
+                throws ExpressionEvaluationException
+            {
+                throw new ExpressionEvaluationException( expression );
+            }
+
+            @Override
+            public File alignToBaseDirectory( File file )
+            {
+                return file;
+            }
+        } );
+        assertNull( getCacheKey( execution ) );
+    }
+
+    public void testUnstableValuesSkipped()
+        throws Exception
+    {
+        MavenReportExecution execution = newExecution( "1.0" );
+        addChild( execution.getConfiguration(), "session", "${session}" );
+        addChild( execution.getConfiguration(), "project", "${project}" );
+
+        Map<String, Object> values = new HashMap<>();
+        values.put( "${session}", new Object() );
+        values.put( "${project}", newProject( "1.0" ) );
+        execution.setExpressionEvaluator( newEvaluator( values ) );
+        String key = getCacheKey( execution );
+
+        // identity based toString() of a new session and a new project instance
+        values.put( "${session}", new Object() );
+        values.put( "${project}", newProject( "1.0" ) );
+        assertEquals( key, getCacheKey( execution ) );
+
+        values.put( "${project}", newProject( "1.1" ) );
+        assertFalse( "project keyed by id", key.equals( getCacheKey( execution ) ) );
+    }
+
+    public void testFilesRelativeToBasedir()
+        throws Exception
+    {
+        MavenReportExecution execution = newExecution( "1.0" );
+        addChild( execution.getConfiguration(), "sourceDirectory", "${project.build.sourceDirectory}" );
+
+        Map<String, Object> values = new HashMap<>();
+        values.put( "${basedir}", new File( directory, "a" ) );
+        values.put( "${project.build.sourceDirectory}", new File( directory, "a/src/main/java" ) );
+        execution.setExpressionEvaluator( newEvaluator( values ) );
+        String key = getCacheKey( execution );
+
+        // same project checked out elsewhere
+        values.put( "${basedir}", new File( directory, "b" ) );
+        values.put( "${project.build.sourceDirectory}", new File( directory, "b/src/main/java" ) );
+        assertEquals( key, getCacheKey( execution ) );
+
+        values.put( "${project.build.sourceDirectory}", new File( directory, "b/src/java" ) );
+        assertFalse( key.equals( getCacheKey( execution ) ) );
+
+        values.put( "${project.build.sourceDirectory}", Arrays.asList( new File( directory, "b/src/main/java" ) ) );
+        assertFalse( "collection of files", key.equals( getCacheKey( execution ) ) );
+    }
+
+    public void testUnambiguousConfiguration()
+        throws Exception
+    {
+        MavenReportExecution execution = newExecution( "1.0" );
+        execution.setConfiguration( newConfiguration( "a", "b,c" ) );
+        String key = getCacheKey( execution );
+
+        execution.setConfiguration( newConfiguration( "a,b", "c" ) );
+        assertFalse( key.equals( getCacheKey( execution ) ) );
+    }
+
+    private String getCacheKey( MavenReportExecution execution )
+        throws IOException
+    {
+        return strategy.getCacheKey( execution, outputDirectory, Locale.ENGLISH );
+    }
+
+    private MavenReportExecution newExecution( String version )
+    {
+        Plugin plugin = new Plugin();
+        plugin.setGroupId( "org.example" );
+        plugin.setArtifactId( "example-report-plugin" );
+        plugin.setVersion( version );
+
+        MavenReportExecution execution = new MavenReportExecution( "report", plugin, null, null );
+        execution.setProjectId( "org.example:example:jar:1.0" );
+
+        Xpp3Dom configuration = new Xpp3Dom( "configuration" );
+        Xpp3Dom linkXRef = new Xpp3Dom( "linkXRef" );
+        linkXRef.setValue( "true" );
+        configuration.addChild( linkXRef );
+        Xpp3Dom outputDirectory = new Xpp3Dom( "outputDirectory" );
+        outputDirectory.setValue( "${project.build.directory}" );
+        outputDirectory.setAttribute( "default-value", "${project.build.directory}" );
+        configuration.addChild( outputDirectory );
+        execution.setConfiguration( configuration );
+
+        execution.setInputFiles( Collections.singletonList( input.getParentFile() ) );
+        return execution;
+    }
+
+    private static void addChild( Xpp3Dom configuration, String name, String value )
+    {
+        Xpp3Dom child = new Xpp3Dom( name );
+        child.setValue( value );
+        configuration.addChild( child );
+    }
+
+    private static MavenProject newProject( String version )
+    {
+        MavenProject project = new MavenProject();
+        project.setGroupId( "org.example" );
+        project.setArtifactId( "example" );
+        project.setVersion( version );
+        return project;
+    }
+
+    private static ExpressionEvaluator newEvaluator( final Map<String, Object> values )
+    {
+        return new ExpressionEvaluator()
+        {
+            @Override
+            public Object evaluate( String expression )
+            {
+                return values.containsKey( expression ) ? values.get( expression ) : expression;
+            }
+
+            @Override
+            public File alignToBaseDirectory( File file )
+            {
+                return file;
+            }
+        };
+    }
+
+    private static Xpp3Dom newConfiguration( String first, String second )
+    {
+        Xpp3Dom configuration = new Xpp3Dom( "configuration" );
+        Xpp3Dom child = new Xpp3Dom( "first" );
+        child.setValue( first );
+        configuration.addChild( child );
+        child = new Xpp3Dom( "second" );
+        child.setValue( second );
+        configuration.addChild( child );
+        return configuration;
+    }
+
+    private static ExpressionEvaluator newEvaluator( final String buildDirectory )
+    {
+        return new ExpressionEvaluator()
+        {
+            @Override
+            public Object evaluate( String expression )
+            {
+                return expression.replace( "${project.build.directory}", buildDirectory );
+            }
+
+            @Override
+            public File alignToBaseDirectory( File file )
+            {
+                return file;
+            }
+        };
+    }
+
+    private static void write( File file, String content )
+        throws IOException
+    {
+        assertTrue( file.getParentFile().isDirectory() || file.getParentFile().mkdirs() );
+        FileUtils.fileWrite( file, "UTF-8", content );
+    }
+}
@@ -0,0 +1,235 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Tests for {@link MavenReportExecutorRequest#setIncremental(boolean) incremental reporting}.
+ */
+public class TestIncrementalReporting
+    extends TestCase
+{
+    private ReportExecutorFixtures fixtures;
+
+    private File directory;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        directory = File.createTempFile( "incremental", "" );
+        assertTrue( directory.delete() && directory.mkdir() );
+
+        File pluginArtifactFile = new File( directory, "plugin0.jar" );
+        try ( OutputStream out = new FileOutputStream( pluginArtifactFile ) )
+        {
+            out.write( "plugin0".getBytes( "UTF-8" ) );
+        }
+
+        fixtures = new ReportExecutorFixtures();
+        fixtures.addReportPlugin( "plugin0", "report-a", "report-b" );
+        fixtures.setPluginArtifactFile( "plugin0", pluginArtifactFile );
+        fixtures.getProject().getBuild().setDirectory( new File( directory, "target" ).getPath() );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        FileUtils.deleteDirectory( directory );
+        super.tearDown();
+    }
+
+    public void testUnchangedInputs()
+        throws Exception
+    {
+        List<MavenReportExecution> reports = buildMavenReports();
+        assertEquals( Arrays.asList( "report-a", "report-b" ), getGoals( reports ) );
+        assertFalse( reports.get( 0 ).isReusePreviousOutput() );
+
+        // fingerprint not stored while a report has not been generated
+        reports.get( 0 ).markGenerated();
+        reports.get( 0 ).markGenerated();
+        assertFalse( buildMavenReports().get( 0 ).isReusePreviousOutput() );
+
+        generate( reports );
+        reports = buildMavenReports();
+        assertEquals( Arrays.asList( "report-a", "report-b" ), getGoals( reports ) );
+        for ( MavenReportExecution report : reports )
+        {
+            assertTrue( report.isReusePreviousOutput() );
+        }
+    }
+
+    public void testChangedInputs()
+        throws Exception
+    {
+        generate( buildMavenReports() );
+        assertTrue( buildMavenReports().get( 0 ).isReusePreviousOutput() );
+
+        fixtures.getProject().getModel().setDescription( "changed" );
+        List<MavenReportExecution> reports = buildMavenReports();
+        assertEquals( Arrays.asList( "report-a", "report-b" ), getGoals( reports ) );
+        for ( MavenReportExecution report : reports )
+        {
+            assertFalse( report.isReusePreviousOutput() );
+        }
+
+        // the previous fingerprint is replaced once reports are generated
+        generate( reports );
+        assertTrue( buildMavenReports().get( 0 ).isReusePreviousOutput() );
+    }
+
+    public void testEditedModelInLongLivedExecutor()
+        throws Exception
+    {
+        // same component for every build, like in a long-lived JVM
+        DefaultMavenReportExecutor executor = fixtures.newMavenReportExecutor();
+        generate( buildMavenReports( executor, fixtures.getProject() ) );
+        assertTrue( buildMavenReports( executor, fixtures.getProject() ).get( 0 ).isReusePreviousOutput() );
+
+        // same module built again with an edited POM: an equal project
+        MavenProject edited = fixtures.getProject().clone();
+        edited.getModel().setDescription( "edited" );
+        assertEquals( fixtures.getProject(), edited );
+        assertFalse( buildMavenReports( executor, edited ).get( 0 ).isReusePreviousOutput() );
+    }
+
+    public void testChangedPluginDependency()
+        throws Exception
+    {
+        Plugin buildPlugin = new Plugin();
+        buildPlugin.setGroupId( ReportExecutorFixtures.GROUP_ID );
+        buildPlugin.setArtifactId( "plugin0" );
+        Dependency dependency = new Dependency();
+        dependency.setGroupId( "org.example" );
+        dependency.setArtifactId( "report-engine" );
+        dependency.setVersion( "1.0" );
+        buildPlugin.addDependency( dependency );
+        fixtures.getProject().getBuild().addPlugin( buildPlugin );
+
+        generate( buildMavenReports() );
+        assertTrue( buildMavenReports().get( 0 ).isReusePreviousOutput() );
+
+        dependency.setVersion( "1.1" );
+        assertFalse( buildMavenReports().get( 0 ).isReusePreviousOutput() );
+    }
+
+    public void testPluginDependenciesFingerprint()
+        throws Exception
+    {
+        ReportFingerprints reportFingerprints = new ReportFingerprints( new ArtifactChecksums() );
+        MavenSession session = fixtures.newSession();
+        ReportPlugin reportPlugin = fixtures.getReportPlugins()[0];
+
+        PluginDescriptor pluginDescriptor = new PluginDescriptor();
+        pluginDescriptor.setGroupId( ReportExecutorFixtures.GROUP_ID );
+        pluginDescriptor.setArtifactId( "plugin0" );
+        pluginDescriptor.setVersion( "1.0" );
+        Artifact pluginArtifact = new DefaultArtifact( ReportExecutorFixtures.GROUP_ID, "plugin0", "1.0", null,
+                                                       "maven-plugin", null, new DefaultArtifactHandler( "jar" ) );
+        pluginArtifact.setFile( new File( directory, "plugin0.jar" ) );
+        pluginDescriptor.setPluginArtifact( pluginArtifact );
+
+        Plugin plugin = new Plugin();
+        plugin.setGroupId( ReportExecutorFixtures.GROUP_ID );
+        plugin.setArtifactId( "plugin0" );
+        plugin.setVersion( "1.0" );
+        Dependency dependency = new Dependency();
+        dependency.setGroupId( "org.example" );
+        dependency.setArtifactId( "report-engine" );
+        dependency.setVersion( "1.0" );
+        plugin.addDependency( dependency );
+
+        // same project model: only the plugin dependencies change
+        String fingerprint =
+            reportFingerprints.fingerprint( session, fixtures.getProject(), reportPlugin, plugin, pluginDescriptor );
+        assertNotNull( fingerprint );
+
+        dependency.setVersion( "1.1" );
+        String changedVersion =
+            reportFingerprints.fingerprint( session, fixtures.getProject(), reportPlugin, plugin, pluginDescriptor );
+        assertFalse( fingerprint.equals( changedVersion ) );
+
+        Exclusion exclusion = new Exclusion();
+        exclusion.setGroupId( "org.example" );
+        exclusion.setArtifactId( "legacy" );
+        dependency.addExclusion( exclusion );
+        assertFalse( changedVersion.equals( reportFingerprints.fingerprint( session, fixtures.getProject(),
+                                                                            reportPlugin, plugin,
+                                                                            pluginDescriptor ) ) );
+    }
+
+    private List<MavenReportExecution> buildMavenReports()
+        throws Exception
+    {
+        // a new executor, like a new build
+        return buildMavenReports( fixtures.newMavenReportExecutor(), fixtures.getProject() );
+    }
+
+    private List<MavenReportExecution> buildMavenReports( DefaultMavenReportExecutor executor, MavenProject project )
+        throws Exception
+    {
+        MavenSession session = fixtures.newSession();
+        session.setCurrentProject( project );
+        MavenReportExecutorRequest request = fixtures.newRequest( session );
+        request.setProject( project );
+        request.setIncremental( true );
+        return executor.buildMavenReports( request );
+    }
+
+    private static void generate( List<MavenReportExecution> reports )
+    {
+        for ( MavenReportExecution report : reports )
+        {
+            report.markGenerated();
+            report.close();
+        }
+    }
+
+    private static List<String> getGoals( List<MavenReportExecution> reports )
+    {
+        List<String> goals = new ArrayList<>();
+        for ( MavenReportExecution report : reports )
+        {
+            goals.add( report.getGoal() );
+        }
+        return goals;
+    }
+}
@@ -0,0 +1,101 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.lifecycle.LifecycleExecutionException;
+
+/**
+ * Tests for forked executions deferred until reports are used, with
+ * {@link MavenReportExecutorRequest#setLazyForkedExecution(boolean)}.
+ */
+public class TestLazyForkedExecution
+    extends TestCase
+{
+    private ReportExecutorFixtures fixtures;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        fixtures = new ReportExecutorFixtures();
+        fixtures.addReportPlugin( "plugin0", "report-a" );
+        fixtures.addReportPlugin( "plugin1", "report-a" );
+
+        // equivalent forks, run once
+        fixtures.getMojoDescriptor( "plugin0", "report-a" ).setExecutePhase( "generate-sources" );
+        fixtures.getMojoDescriptor( "plugin1", "report-a" ).setExecutePhase( "generate-sources" );
+    }
+
+    public void testFailedForkRunAgain()
+        throws Exception
+    {
+        List<MavenReportExecution> reports = buildMavenReports();
+        assertTrue( fixtures.getExecutedForks().isEmpty() );
+
+        fixtures.failForks( new LifecycleExecutionException( "fork failure" ) );
+        try
+        {
+            reports.get( 0 ).getMavenReport();
+            fail( "fork failure should be reported" );
+        }
+        catch ( IllegalStateException e )
+        {
+            assertTrue( e.getCause() instanceof LifecycleExecutionException );
+        }
+        assertTrue( reports.get( 0 ).isForkedExecutionPending() );
+
+        // the failure is not remembered as an executed fork
+        fixtures.failForks( null );
+        reports.get( 1 ).getMavenReport();
+        assertEquals( Arrays.asList( "plugin1:report-a" ), fixtures.getExecutedForks() );
+
+        // the successful fork is reused
+        reports.get( 0 ).getMavenReport();
+        assertFalse( reports.get( 0 ).isForkedExecutionPending() );
+        assertEquals( Arrays.asList( "plugin1:report-a" ), fixtures.getExecutedForks() );
+    }
+
+    public void testForkRunBeforeCanGenerateReport()
+        throws Exception
+    {
+        List<MavenReportExecution> reports = buildMavenReports();
+        assertTrue( reports.get( 0 ).isForkedExecutionPending() );
+
+        // fixture reports can be generated only once their fork has been executed
+        assertTrue( reports.get( 0 ).canGenerateReport() );
+        assertFalse( reports.get( 0 ).isForkedExecutionPending() );
+        assertEquals( Arrays.asList( "plugin0:report-a" ), fixtures.getExecutedForks() );
+    }
+
+    private List<MavenReportExecution> buildMavenReports()
+        throws Exception
+    {
+        MavenReportExecutorRequest request = fixtures.newRequest( fixtures.newSession() );
+        request.setLazyForkedExecution( true );
+        List<MavenReportExecution> reports = fixtures.newMavenReportExecutor().buildMavenReports( request );
+        assertEquals( 2, reports.size() );
+        return reports;
+    }
+}
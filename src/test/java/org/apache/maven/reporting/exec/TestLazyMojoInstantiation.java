@@ -0,0 +1,136 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.reporting.MavenReport;
+
+/**
+ * Tests for report mojos configured on first use, with
+ * {@link MavenReportExecutorRequest#setLazyMojoInstantiation(boolean)}.
+ */
+public class TestLazyMojoInstantiation
+    extends TestCase
+{
+    private ReportExecutorFixtures fixtures;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        fixtures = new ReportExecutorFixtures();
+        fixtures.addReportPlugin( "plugin0", "report-a", "report-b" );
+    }
+
+    public void testConfiguredOnFirstUse()
+        throws Exception
+    {
+        List<MavenReportExecution> reports = buildMavenReports();
+        assertEquals( 2, reports.size() );
+        assertTrue( "no mojo configured while preparing", fixtures.getConfiguredMojoThreads().isEmpty() );
+
+        // metadata doesn't need the mojo
+        assertEquals( "report-a", reports.get( 0 ).getGoal() );
+        assertEquals( "plugin0", reports.get( 0 ).getPlugin().getArtifactId() );
+        assertTrue( fixtures.getConfiguredMojoThreads().isEmpty() );
+
+        assertTrue( reports.get( 0 ).canGenerateReport() );
+        assertEquals( 1, fixtures.getConfiguredMojoThreads().size() );
+
+        MavenReport report = reports.get( 0 ).getMavenReport();
+        assertSame( report, reports.get( 0 ).getMavenReport() );
+        assertEquals( "configured once", 1, fixtures.getConfiguredMojoThreads().size() );
+
+        reports.get( 1 ).getMavenReport();
+        assertEquals( 2, fixtures.getConfiguredMojoThreads().size() );
+    }
+
+    public void testConfiguredOnceOnConcurrentFirstUse()
+        throws Exception
+    {
+        fixtures.delayConfiguredMojo( 100 );
+        final MavenReportExecution reportExecution = buildMavenReports().get( 0 );
+        final CountDownLatch start = new CountDownLatch( 1 );
+
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            List<Future<MavenReport>> reports = new ArrayList<>();
+            for ( int i = 0; i < 4; i++ )
+            {
+                reports.add( executor.submit( new Callable<MavenReport>()
+                {
+                    @Override
+                    public MavenReport call()
+                        throws Exception
+                    {
+                        start.await();
+                        return reportExecution.getMavenReport();
+                    }
+                } ) );
+            }
+            start.countDown();
+
+            MavenReport report = reports.get( 0 ).get();
+            assertNotNull( report );
+            for ( Future<MavenReport> other : reports )
+            {
+                assertSame( report, other.get() );
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        assertEquals( 1, fixtures.getConfiguredMojoThreads().size() );
+    }
+
+    public void testClosedBeforeFirstUse()
+        throws Exception
+    {
+        List<MavenReportExecution> reports = buildMavenReports();
+        for ( MavenReportExecution report : reports )
+        {
+            report.close();
+        }
+
+        assertEquals( Collections.emptyList(), fixtures.getConfiguredMojoThreads() );
+        assertTrue( "nothing to release", fixtures.getReleasedMojos().isEmpty() );
+    }
+
+    private List<MavenReportExecution> buildMavenReports()
+        throws Exception
+    {
+        MavenReportExecutorRequest request = fixtures.newRequest( fixtures.newSession() );
+        request.setLazyMojoInstantiation( true );
+        return fixtures.newMavenReportExecutor().buildMavenReports( request );
+    }
+}
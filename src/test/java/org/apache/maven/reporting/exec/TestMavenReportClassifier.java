@@ -0,0 +1,218 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.reporting.MavenReport;
+
+/**
+ * Tests for {@link MavenReportClassifier}, reading the real class files of test classes and of their hierarchy.
+ */
+public class TestMavenReportClassifier
+    extends TestCase
+{
+    private final MavenReportClassifier classifier = new MavenReportClassifier();
+
+    public void testDirectImplementation()
+    {
+        assertEquals( Boolean.TRUE, classifier.isMavenReport( newClassLoader(), FixtureReport.class.getName() ) );
+    }
+
+    public void testInheritedFromAbstractReport()
+    {
+        assertEquals( Boolean.TRUE, classifier.isMavenReport( newClassLoader(), InheritedReport.class.getName() ) );
+    }
+
+    public void testNonReportMojo()
+    {
+        assertEquals( Boolean.FALSE, classifier.isMavenReport( newClassLoader(), NotAReport.class.getName() ) );
+        assertEquals( Boolean.FALSE, classifier.isMavenReport( newClassLoader(), AbstractMojo.class.getName() ) );
+    }
+
+    public void testMissingSuperclass()
+    {
+        ClassLoader classLoader = newClassLoader( AbstractReport.class.getName() );
+        assertNull( classifier.isMavenReport( classLoader, InheritedReport.class.getName() ) );
+        assertNull( classifier.isMavenReport( classLoader, "org.apache.maven.reporting.exec.Missing" ) );
+
+        // a report interface found before the missing class is enough
+        assertEquals( Boolean.TRUE, classifier.isMavenReport( classLoader, FixtureReport.class.getName() ) );
+    }
+
+    public void testConstantPoolOfRecentClassFile()
+        throws IOException
+    {
+        // a JDK class using invokedynamic, method handles and long constants, served under another name
+        byte[] classFile = readClassFile( ClassLoader.getSystemClassLoader(), "java.util.stream.Collectors" );
+        if ( classFile == null )
+        {
+            // before Java 8
+            return;
+        }
+
+        String className = "org.apache.maven.reporting.exec.Recent";
+        ClassLoader classLoader = newClassLoader();
+        ( (ClassFileLoader) classLoader ).define( className, classFile );
+        assertEquals( Boolean.FALSE, classifier.isMavenReport( classLoader, className ) );
+    }
+
+    public void testResultsCachedPerClassLoader()
+    {
+        ClassLoader classLoader = newClassLoader();
+        assertEquals( Boolean.TRUE, classifier.isMavenReport( classLoader, InheritedReport.class.getName() ) );
+
+        // class files are not read again for the same class loader
+        ( (ClassFileLoader) classLoader ).hide( InheritedReport.class.getName() );
+        assertEquals( Boolean.TRUE, classifier.isMavenReport( classLoader, InheritedReport.class.getName() ) );
+        assertNull( classifier.isMavenReport( newClassLoader( InheritedReport.class.getName() ),
+                                              InheritedReport.class.getName() ) );
+    }
+
+    public void testNotAClassFile()
+    {
+        ClassLoader classLoader = newClassLoader();
+        ( (ClassFileLoader) classLoader ).define( "org.apache.maven.reporting.exec.Invalid", new byte[] { 1, 2, 3 } );
+        assertNull( classifier.isMavenReport( classLoader, "org.apache.maven.reporting.exec.Invalid" ) );
+    }
+
+    private ClassLoader newClassLoader( String... hiddenClasses )
+    {
+        ClassFileLoader classLoader = new ClassFileLoader( getClass().getClassLoader() );
+        for ( String hiddenClass : hiddenClasses )
+        {
+            classLoader.hide( hiddenClass );
+        }
+        return classLoader;
+    }
+
+    private static byte[] readClassFile( ClassLoader classLoader, String className )
+        throws IOException
+    {
+        try ( InputStream in = classLoader.getResourceAsStream( className.replace( '.', '/' ) + ".class" ) )
+        {
+            if ( in == null )
+            {
+                return null;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for ( int n = in.read( buffer ); n >= 0; n = in.read( buffer ) )
+            {
+                out.write( buffer, 0, n );
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Class loader serving class files as resources, with some class files hidden or replaced.
+     */
+    private static class ClassFileLoader
+        extends ClassLoader
+    {
+        private final Set<String> hidden = new HashSet<>();
+
+        private final Map<String, byte[]> defined = new HashMap<>();
+
+        ClassFileLoader( ClassLoader parent )
+        {
+            super( parent );
+        }
+
+        void hide( String className )
+        {
+            hidden.add( className.replace( '.', '/' ) + ".class" );
+        }
+
+        void define( String className, byte[] classFile )
+        {
+            defined.put( className.replace( '.', '/' ) + ".class", Arrays.copyOf( classFile, classFile.length ) );
+        }
+
+        @Override
+        public URL getResource( String name )
+        {
+            return hidden.contains( name ) ? null : super.getResource( name );
+        }
+
+        @Override
+        public InputStream getResourceAsStream( String name )
+        {
+            if ( defined.containsKey( name ) )
+            {
+                return new ByteArrayInputStream( defined.get( name ) );
+            }
+            return hidden.contains( name ) ? null : super.getResourceAsStream( name );
+        }
+    }
+
+    /**
+     * Like <code>AbstractMavenReport</code>: reports extend it without implementing {@link MavenReport} directly.
+     */
+    public abstract static class AbstractReport
+        extends AbstractMojo
+        implements MavenReport
+    {
+        private static final long SERIAL = 42L;
+
+        private static final double RATIO = 0.5;
+
+        public long getSerial()
+        {
+            return SERIAL + (long) RATIO;
+        }
+    }
+
+    public abstract static class InheritedReport
+        extends AbstractReport
+    {
+        // report implementation
+    }
+
+    public static class NotAReport
+        extends AbstractMojo
+        implements Comparable<NotAReport>
+    {
+        @Override
+        public void execute()
+        {
+            // nothing to do
+        }
+
+        @Override
+        public int compareTo( NotAReport other )
+        {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.Plugin;
+import org.apache.maven.reporting.MavenReport;
+
+/**
+ * Tests for {@link MavenReportExecution} release on close.
+ */
+public class TestMavenReportExecution
+    extends TestCase
+{
+    public void testCloseMakesClassLoaderCollectable()
+        throws Exception
+    {
+        ClassLoader classLoader = new URLClassLoader( new URL[0], getClass().getClassLoader() );
+        WeakReference<ClassLoader> classLoaderReference = new WeakReference<ClassLoader>( classLoader );
+
+        MavenReportExecution mavenReportExecution =
+            new MavenReportExecution( "report", new Plugin(), newMavenReport( classLoader ), classLoader );
+        WeakReference<MavenReport> mavenReportReference =
+            new WeakReference<MavenReport>( mavenReportExecution.getMavenReport() );
+        classLoader = null;
+
+        mavenReportExecution.close();
+
+        assertTrue( mavenReportExecution.isClosed() );
+        assertNull( mavenReportExecution.getClassLoader() );
+        assertCollected( mavenReportReference );
+        assertCollected( classLoaderReference );
+
+        try
+        {
+            mavenReportExecution.getMavenReport();
+            fail( "closed report execution should not provide its report" );
+        }
+        catch ( IllegalStateException e )
+        {
+            // expected
+        }
+    }
+
+    public void testCloseReleasesCreatedReportOnce()
+        throws Exception
+    {
+        final ClassLoader classLoader = getClass().getClassLoader();
+        final AtomicInteger released = new AtomicInteger();
+        MavenReportReleaser releaser = new MavenReportReleaser()
+        {
+            @Override
+            public void release( MavenReport mavenReport )
+            {
+                released.incrementAndGet();
+            }
+        };
+
+        MavenReportExecution lazyReportExecution = new MavenReportExecution( "report", new Plugin(), null, null );
+        lazyReportExecution.setMavenReportFactory( new Callable<MavenReport>()
+        {
+            @Override
+            public MavenReport call()
+            {
+                return newMavenReport( classLoader );
+            }
+        } );
+        lazyReportExecution.setMavenReportReleaser( releaser );
+        lazyReportExecution.close();
+        assertEquals( "report never created should not be released", 0, released.get() );
+
+        MavenReportExecution mavenReportExecution =
+            new MavenReportExecution( "report", new Plugin(), newMavenReport( classLoader ), classLoader );
+        mavenReportExecution.setMavenReportReleaser( releaser );
+        mavenReportExecution.close();
+        mavenReportExecution.close();
+        assertEquals( 1, released.get() );
+    }
+
+    public void testClosedExecutionsMakePluginRealmCollectable()
+        throws Exception
+    {
+        ReportExecutorFixtures fixtures = new ReportExecutorFixtures();
+        fixtures.addReportPlugin( "plugin0", "report-a", "report-b" );
+        DefaultMavenReportExecutor mavenReportExecutor = fixtures.newMavenReportExecutor();
+        MavenReportExecutorRequest request = fixtures.newRequest( fixtures.newSession() );
+
+        List<MavenReportExecution> mavenReportExecutions = mavenReportExecutor.buildMavenReports( request );
+        assertEquals( 2, mavenReportExecutions.size() );
+        for ( MavenReportExecution mavenReportExecution : mavenReportExecutions )
+        {
+            assertTrue( mavenReportExecution.canGenerateReport() );
+            mavenReportExecution.close();
+        }
+        mavenReportExecutions = null;
+
+        assertEquals( 2, fixtures.getReleasedMojos().size() );
+        assertEquals( 1, fixtures.getPluginRealms().size() );
+
+        // the executor, its caches and the session don't keep the plugin realm
+        assertCollected( fixtures.getPluginRealms().get( 0 ) );
+        assertNotNull( mavenReportExecutor );
+        assertNotNull( request.getMavenSession() );
+    }
+
+    private static MavenReport newMavenReport( ClassLoader classLoader )
+    {
+        return (MavenReport) Proxy.newProxyInstance( classLoader, new Class<?>[] { MavenReport.class },
+                                                     new InvocationHandler()
+                                                     {
+                                                         @Override
+                                                         public Object invoke( Object proxy, Method method,
+                                                                               Object[] args )
+                                                         {
+                                                             return method.getReturnType() == boolean.class
+                                                                             ? Boolean.TRUE : null;
+                                                         }
+                                                     } );
+    }
+
+    private static void assertCollected( WeakReference<?> reference )
+        throws InterruptedException
+    {
+        for ( int i = 0; i < 50 && reference.get() != null; i++ )
+        {
+            System.gc();
+            Thread.sleep( 20 );
+        }
+        assertNull( "object should have been garbage collected", reference.get() );
+    }
+}
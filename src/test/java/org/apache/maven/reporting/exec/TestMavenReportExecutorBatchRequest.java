@@ -0,0 +1,128 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.ReportPlugin;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.PluginResolutionException;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Tests for {@link MavenReportExecutorBatchRequest}.
+ */
+public class TestMavenReportExecutorBatchRequest
+    extends TestCase
+{
+    public void testSameDefaultsAsSingleRequest()
+    {
+        MavenReportExecutorRequest single = new MavenReportExecutorRequest();
+        MavenReportExecutorRequest request =
+            new MavenReportExecutorBatchRequest().newRequest( new MavenProject() );
+
+        assertEquals( single.isReactorRealmReuse(), request.isReactorRealmReuse() );
+        assertEquals( single.getThreadCount(), request.getThreadCount() );
+        assertEquals( single.isLazyForkedExecution(), request.isLazyForkedExecution() );
+        assertEquals( single.getIncludes(), request.getIncludes() );
+    }
+
+    public void testProjectRequestCopiesTemplate()
+    {
+        MavenReportExecutorRequest template = new MavenReportExecutorRequest();
+        template.setThreadCount( 3 );
+        template.setReactorRealmReuse( true );
+        template.setIncludes( Arrays.asList( "*:report" ) );
+
+        MavenReportExecutorBatchRequest batchRequest = new MavenReportExecutorBatchRequest( template );
+        MavenProject project = new MavenProject();
+        ReportPlugin reportPlugin = new ReportPlugin();
+        reportPlugin.setGroupId( "org.apache.maven.plugins" );
+        reportPlugin.setArtifactId( "maven-project-info-reports-plugin" );
+        batchRequest.addProject( project, new ReportPlugin[] { reportPlugin } );
+
+        MavenReportExecutorRequest request = batchRequest.newRequest( project );
+        assertNotSame( template, request );
+        assertSame( project, request.getProject() );
+        assertEquals( 1, request.getReportPlugins().length );
+        assertEquals( "maven-project-info-reports-plugin", request.getReportPlugins()[0].getArtifactId() );
+        assertEquals( 3, request.getThreadCount() );
+        assertTrue( request.isReactorRealmReuse() );
+        assertEquals( template.getIncludes(), request.getIncludes() );
+        assertNotSame( template.getIncludes(), request.getIncludes() );
+
+        // the template is left unchanged
+        assertNull( template.getProject() );
+        assertNull( template.getReportPlugins() );
+    }
+
+    public void testPreviousProjectsClosedOnFailure()
+        throws Exception
+    {
+        ReportExecutorFixtures fixtures = new ReportExecutorFixtures();
+        fixtures.addReportPlugin( "plugin0", "report-a", "report-b" );
+        fixtures.addReportPlugin( "plugin1", "report-c" );
+        Plugin failing = new Plugin();
+        failing.setGroupId( ReportExecutorFixtures.GROUP_ID );
+        failing.setArtifactId( "plugin1" );
+        failing.setVersion( "1.0" );
+        fixtures.failPluginDescriptor( "plugin1",
+                                       new PluginResolutionException( failing, new Exception( "unresolvable" ) ) );
+
+        MavenReportExecutorRequest template = new MavenReportExecutorRequest();
+        template.setMavenSession( fixtures.newSession() );
+        MavenReportExecutorBatchRequest batchRequest = new MavenReportExecutorBatchRequest( template );
+        batchRequest.addProject( newProject( "module0" ), new ReportPlugin[] { newReportPlugin( "plugin0" ) } );
+        batchRequest.addProject( newProject( "module1" ), new ReportPlugin[] { newReportPlugin( "plugin1" ) } );
+
+        try
+        {
+            fixtures.newMavenReportExecutor().buildMavenReports( batchRequest );
+            fail( "plugin descriptor failure should be reported" );
+        }
+        catch ( MojoExecutionException e )
+        {
+            assertEquals( "failed to get report for " + ReportExecutorFixtures.GROUP_ID + ":plugin1", e.getMessage() );
+        }
+
+        assertEquals( "mojos of the first project released", 2, fixtures.getReleasedMojos().size() );
+    }
+
+    private static MavenProject newProject( String artifactId )
+    {
+        MavenProject project = new MavenProject();
+        project.setGroupId( "org.example" );
+        project.setArtifactId( artifactId );
+        project.setVersion( "1.0" );
+        return project;
+    }
+
+    private static ReportPlugin newReportPlugin( String artifactId )
+    {
+        ReportPlugin reportPlugin = new ReportPlugin();
+        reportPlugin.setGroupId( ReportExecutorFixtures.GROUP_ID );
+        reportPlugin.setArtifactId( artifactId );
+        reportPlugin.setVersion( "1.0" );
+        return reportPlugin;
+    }
+}
@@ -0,0 +1,142 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Tests for {@link StreamingMavenReportExecutor#planMavenReports(MavenReportExecutorRequest)}.
+ */
+public class TestMavenReportPlan
+    extends TestCase
+{
+    private File directory;
+
+    private ReportExecutorFixtures fixtures;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        directory = File.createTempFile( "report-plan", "" );
+        assertTrue( directory.delete() && directory.mkdir() );
+
+        fixtures = new ReportExecutorFixtures();
+        fixtures.addReportPlugin( "plugin0", "report-a", "report-b" );
+        fixtures.addReportPlugin( "plugin1", "report-c" );
+        fixtures.getMojoDescriptor( "plugin1", "report-c" ).setExecutePhase( "generate-sources" );
+        for ( String artifactId : new String[] { "plugin0", "plugin1" } )
+        {
+            File pluginArtifactFile = new File( directory, artifactId + ".jar" );
+            FileUtils.fileWrite( pluginArtifactFile.getPath(), "UTF-8", artifactId );
+            fixtures.setPluginArtifactFile( artifactId, pluginArtifactFile );
+        }
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        FileUtils.deleteDirectory( directory );
+        super.tearDown();
+    }
+
+    public void testPlanWithoutMojosNorForks()
+        throws Exception
+    {
+        StreamingMavenReportExecutor mavenReportExecutor = fixtures.newMavenReportExecutor();
+        MavenReportPlan plan = mavenReportExecutor.planMavenReports( fixtures.newRequest( fixtures.newSession() ) );
+
+        assertEquals( 0, fixtures.getConfiguredMojoThreads().size() );
+        assertEquals( 0, fixtures.getExecutedForks().size() );
+
+        List<String> planned = new ArrayList<>();
+        for ( MavenReportPlan.PlannedReport report : plan.getReports() )
+        {
+            planned.add( report.getArtifactId() + ':' + report.getGoal() + ':' + report.getForkedExecution() );
+        }
+        assertEquals( "[plugin0:report-a:null, plugin0:report-b:null, plugin1:report-c:phase:generate-sources]",
+                      planned.toString() );
+
+        // the same reports as built ones
+        List<String> built = new ArrayList<>();
+        for ( MavenReportExecution execution : mavenReportExecutor.buildMavenReports(
+            fixtures.newRequest( fixtures.newSession() ) ) )
+        {
+            built.add( execution.getPlugin().getArtifactId() + ':' + execution.getGoal() );
+        }
+        assertEquals( "[plugin0:report-a, plugin0:report-b, plugin1:report-c]", built.toString() );
+    }
+
+    public void testPlanFromClassificationCache()
+        throws Exception
+    {
+        MavenReportExecutorRequest request = fixtures.newRequest( fixtures.newSession() );
+        request.setClassificationCache( true );
+        request.setClassificationCacheDirectory( new File( directory, "classification" ) );
+        MavenReportPlan plan = fixtures.newMavenReportExecutor().planMavenReports( request );
+        int pluginRealms = fixtures.getPluginRealms().size();
+        assertTrue( pluginRealms > 0 );
+
+        // next build: every goal is classified from the cache
+        request = fixtures.newRequest( fixtures.newSession() );
+        request.setClassificationCache( true );
+        request.setClassificationCacheDirectory( new File( directory, "classification" ) );
+        assertEquals( plan, fixtures.newMavenReportExecutor().planMavenReports( request ) );
+
+        assertEquals( "no plugin realm set up", pluginRealms, fixtures.getPluginRealms().size() );
+        assertEquals( 0, fixtures.getConfiguredMojoThreads().size() );
+        assertEquals( 0, fixtures.getExecutedForks().size() );
+    }
+
+    public void testSerialization()
+        throws Exception
+    {
+        MavenReportPlan plan =
+            fixtures.newMavenReportExecutor().planMavenReports( fixtures.newRequest( fixtures.newSession() ) );
+        assertEquals( 3, plan.getReports().size() );
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try ( ObjectOutputStream out = new ObjectOutputStream( bytes ) )
+        {
+            out.writeObject( plan );
+        }
+        MavenReportPlan deserialized;
+        try ( ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) )
+        {
+            deserialized = (MavenReportPlan) in.readObject();
+        }
+
+        assertNotSame( plan, deserialized );
+        assertEquals( plan, deserialized );
+        assertEquals( plan.hashCode(), deserialized.hashCode() );
+        assertEquals( plan.toString(), deserialized.toString() );
+    }
+}
@@ -0,0 +1,201 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.version.PluginVersionResolver;
+import org.apache.maven.plugin.version.PluginVersionResult;
+import org.codehaus.plexus.logging.AbstractLogger;
+import org.codehaus.plexus.logging.Logger;
+import org.eclipse.aether.repository.RemoteRepository;
+
+/**
+ * Tests for report plugin versions resolved from repositories, when no version is configured.
+ */
+public class TestPluginVersionResolution
+    extends TestCase
+{
+    private final AtomicInteger resolutions = new AtomicInteger();
+
+    private final List<String> warnings = Collections.synchronizedList( new ArrayList<String>() );
+
+    private ReportExecutorFixtures fixtures;
+
+    private DefaultMavenReportExecutor mavenReportExecutor;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        fixtures = new ReportExecutorFixtures();
+        mavenReportExecutor = fixtures.newMavenReportExecutor();
+        ReportExecutorFixtures.inject( mavenReportExecutor, "logger", new AbstractLogger( Logger.LEVEL_WARN, "test" )
+        {
+            @Override
+            public void debug( String message, Throwable throwable )
+            {
+            }
+
+            @Override
+            public void info( String message, Throwable throwable )
+            {
+            }
+
+            @Override
+            public void warn( String message, Throwable throwable )
+            {
+                warnings.add( message );
+            }
+
+            @Override
+            public void error( String message, Throwable throwable )
+            {
+            }
+
+            @Override
+            public void fatalError( String message, Throwable throwable )
+            {
+            }
+
+            @Override
+            public Logger getChildLogger( String name )
+            {
+                return this;
+            }
+        } );
+        mavenReportExecutor.pluginVersionResolver =
+            ReportExecutorFixtures.stub( PluginVersionResolver.class, new InvocationHandler()
+            {
+                @Override
+                public Object invoke( Object proxy, Method method, Object[] args )
+                    throws Throwable
+                {
+                    resolutions.incrementAndGet();
+                    Thread.sleep( 100 );
+                    return ReportExecutorFixtures.stub( PluginVersionResult.class, new InvocationHandler()
+                    {
+                        @Override
+                        public Object invoke( Object proxy, Method method, Object[] args )
+                        {
+                            return "getVersion".equals( method.getName() ) ? "2.0" : null;
+                        }
+                    } );
+                }
+            } );
+    }
+
+    public void testConcurrentCallersShareResolution()
+        throws Exception
+    {
+        final MavenReportExecutorRequest request = fixtures.newRequest( fixtures.newSession() );
+        final CountDownLatch start = new CountDownLatch( 1 );
+
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            List<Future<String>> versions = new ArrayList<>();
+            for ( int i = 0; i < 4; i++ )
+            {
+                versions.add( executor.submit( new Callable<String>()
+                {
+                    @Override
+                    public String call()
+                        throws Exception
+                    {
+                        start.await();
+                        return mavenReportExecutor.resolvePluginVersion( newReportPlugin(), request );
+                    }
+                } ) );
+            }
+            start.countDown();
+
+            for ( Future<String> version : versions )
+            {
+                assertEquals( "2.0", version.get() );
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        assertEquals( 1, resolutions.get() );
+        assertEquals( 1, getEmptyVersionWarnings() );
+    }
+
+    public void testSingleWarningPerPlugin()
+        throws Exception
+    {
+        MavenSession session = fixtures.newSession();
+        MavenReportExecutorRequest request = fixtures.newRequest( session );
+
+        assertEquals( "2.0", mavenReportExecutor.resolvePluginVersion( newReportPlugin(), request ) );
+        assertEquals( "2.0", mavenReportExecutor.resolvePluginVersion( newReportPlugin(), request ) );
+
+        // another set of plugin repositories needs another resolution, but not another warning
+        ReportExecutorFixtures.inject( fixtures.getProject(), "remotePluginRepositories", Collections.singletonList(
+            new RemoteRepository.Builder( "mirror", "default", "https://mirror.example.org/maven2" ).build() ) );
+        assertEquals( "2.0", mavenReportExecutor.resolvePluginVersion( newReportPlugin(), request ) );
+        assertEquals( 2, resolutions.get() );
+        assertEquals( 1, getEmptyVersionWarnings() );
+
+        // a new session warns again
+        mavenReportExecutor.resolvePluginVersion( newReportPlugin(), fixtures.newRequest( fixtures.newSession() ) );
+        assertEquals( 2, getEmptyVersionWarnings() );
+    }
+
+    private int getEmptyVersionWarnings()
+    {
+        int count = 0;
+        synchronized ( warnings )
+        {
+            for ( String warning : warnings )
+            {
+                if ( warning.equals( "Report plugin org.example:versionless has an empty version." ) )
+                {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static ReportPlugin newReportPlugin()
+    {
+        ReportPlugin reportPlugin = new ReportPlugin();
+        reportPlugin.setGroupId( "org.example" );
+        reportPlugin.setArtifactId( "versionless" );
+        return reportPlugin;
+    }
+}
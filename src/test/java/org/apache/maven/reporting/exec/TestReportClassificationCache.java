@@ -0,0 +1,142 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Tests for {@link ReportClassificationCache}.
+ */
+public class TestReportClassificationCache
+    extends TestCase
+{
+    private File directory;
+
+    private File cacheDirectory;
+
+    private File pluginFile;
+
+    private PluginDescriptor pluginDescriptor;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        directory = File.createTempFile( "report-classification-cache", "" );
+        assertTrue( directory.delete() && directory.mkdir() );
+        cacheDirectory = new File( directory, "cache" );
+
+        pluginFile = new File( directory, "plugin.jar" );
+        FileUtils.fileWrite( pluginFile.getPath(), "UTF-8", "plugin" );
+
+        Artifact pluginArtifact =
+            new DefaultArtifact( "org.example", "plugin", "1.0", null, "maven-plugin", null,
+                                 new DefaultArtifactHandler( "maven-plugin" ) );
+        pluginArtifact.setFile( pluginFile );
+
+        pluginDescriptor = new PluginDescriptor();
+        pluginDescriptor.setGroupId( "org.example" );
+        pluginDescriptor.setArtifactId( "plugin" );
+        pluginDescriptor.setVersion( "1.0" );
+        pluginDescriptor.setPluginArtifact( pluginArtifact );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        FileUtils.deleteDirectory( directory );
+        super.tearDown();
+    }
+
+    public void testRecordStoreReload()
+        throws Exception
+    {
+        ReportClassificationCache cache = new ReportClassificationCache( new ArtifactChecksums() );
+        MavenSession session = newSession();
+
+        assertNull( cache.isMavenReport( session, cacheDirectory, pluginDescriptor, "report" ) );
+        cache.record( session, cacheDirectory, pluginDescriptor, "report", true );
+        cache.record( session, cacheDirectory, pluginDescriptor, "help", false );
+        cache.store( session, cacheDirectory, pluginDescriptor );
+
+        File[] files = cacheDirectory.listFiles();
+        assertEquals( 1, files.length );
+        assertEquals( ArtifactChecksums.sha1( pluginFile ) + ".properties", files[0].getName() );
+
+        // next build: classifications are read back from the stored file
+        ReportClassificationCache reloaded = new ReportClassificationCache( new ArtifactChecksums() );
+        MavenSession nextSession = newSession();
+        assertEquals( Boolean.TRUE, reloaded.isMavenReport( nextSession, cacheDirectory, pluginDescriptor, "report" ) );
+        assertEquals( Boolean.FALSE, reloaded.isMavenReport( nextSession, cacheDirectory, pluginDescriptor, "help" ) );
+        assertNull( reloaded.isMavenReport( nextSession, cacheDirectory, pluginDescriptor, "other" ) );
+    }
+
+    public void testChangedPluginArtifact()
+        throws Exception
+    {
+        ReportClassificationCache cache = new ReportClassificationCache( new ArtifactChecksums() );
+        MavenSession session = newSession();
+        cache.record( session, cacheDirectory, pluginDescriptor, "report", true );
+        cache.store( session, cacheDirectory, pluginDescriptor );
+
+        FileUtils.fileWrite( pluginFile.getPath(), "UTF-8", "changed plugin" );
+
+        ReportClassificationCache reloaded = new ReportClassificationCache( new ArtifactChecksums() );
+        assertNull( "classification of another plugin artifact",
+                    reloaded.isMavenReport( newSession(), cacheDirectory, pluginDescriptor, "report" ) );
+    }
+
+    public void testClassificationsScopedToSession()
+        throws Exception
+    {
+        ReportClassificationCache cache = new ReportClassificationCache( new ArtifactChecksums() );
+        MavenSession session = newSession();
+        cache.record( session, cacheDirectory, pluginDescriptor, "report", true );
+        assertEquals( Boolean.TRUE, cache.isMavenReport( session, cacheDirectory, pluginDescriptor, "report" ) );
+
+        // not stored: another session of the same cache doesn't see it
+        assertNull( cache.isMavenReport( newSession(), cacheDirectory, pluginDescriptor, "report" ) );
+        assertFalse( cacheDirectory.exists() );
+
+        // storing twice only writes once
+        cache.store( session, cacheDirectory, pluginDescriptor );
+        File file = cacheDirectory.listFiles()[0];
+        assertTrue( file.delete() );
+        cache.store( session, cacheDirectory, pluginDescriptor );
+        assertFalse( file.exists() );
+    }
+
+    private static MavenSession newSession()
+    {
+        return new MavenSession( null, null, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult() );
+    }
+}
@@ -0,0 +1,195 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link ReportFilter} patterns.
+ */
+public class TestReportFilter
+    extends TestCase
+{
+    private static final String GROUP_ID = "org.apache.maven.plugins";
+
+    public void testNoPattern()
+    {
+        assertNull( newRequest( Collections.<String>emptyList(), null ).getReportFilter() );
+    }
+
+    public void testGlobs()
+    {
+        ReportFilter filter = newFilter( Arrays.asList( "*-jxr-plugin", "maven-javadoc-plugin:test-*",
+                                                        "org.apache.*:maven-pmd-plugin:?pd" ), null );
+
+        assertTrue( filter.includes( GROUP_ID, "maven-jxr-plugin", "jxr" ) );
+        assertTrue( filter.includes( GROUP_ID, "maven-jxr-plugin", "test-jxr" ) );
+        assertTrue( filter.includes( GROUP_ID, "maven-javadoc-plugin", "test-javadoc" ) );
+        assertFalse( filter.includes( GROUP_ID, "maven-javadoc-plugin", "javadoc" ) );
+        assertTrue( filter.includes( GROUP_ID, "maven-pmd-plugin", "cpd" ) );
+        assertFalse( filter.includes( GROUP_ID, "maven-pmd-plugin", "pmd" ) );
+        assertFalse( filter.includes( "com.example", "maven-pmd-plugin", "cpd" ) );
+
+        // wildcards only: regular expression characters are literals
+        assertFalse( newFilter( Arrays.asList( "maven.jxr.plugin" ), null ).includes( GROUP_ID, "maven-jxr-plugin",
+                                                                                        "jxr" ) );
+
+        assertTrue( filter.includesPlugin( GROUP_ID, "maven-javadoc-plugin" ) );
+        assertFalse( filter.includesPlugin( GROUP_ID, "maven-surefire-report-plugin" ) );
+    }
+
+    public void testExcludesTakePrecedence()
+    {
+        ReportFilter filter =
+            newFilter( Arrays.asList( "maven-javadoc-plugin", "maven-jxr-plugin" ), Arrays.asList( "*:test-*" ) );
+
+        assertTrue( filter.includes( GROUP_ID, "maven-javadoc-plugin", "javadoc" ) );
+        assertFalse( filter.includes( GROUP_ID, "maven-javadoc-plugin", "test-javadoc" ) );
+        assertFalse( filter.includes( GROUP_ID, "maven-surefire-report-plugin", "report" ) );
+
+        // a plugin is skipped only if every goal is excluded
+        assertTrue( filter.includesPlugin( GROUP_ID, "maven-javadoc-plugin" ) );
+        filter = newFilter( Arrays.asList( "maven-javadoc-plugin" ), Arrays.asList( "maven-javadoc-plugin:*" ) );
+        assertFalse( filter.includesPlugin( GROUP_ID, "maven-javadoc-plugin" ) );
+
+        // excludes only
+        filter = newFilter( null, Arrays.asList( "maven-javadoc-plugin" ) );
+        assertFalse( filter.includesPlugin( GROUP_ID, "maven-javadoc-plugin" ) );
+        assertTrue( filter.includes( GROUP_ID, "maven-jxr-plugin", "jxr" ) );
+    }
+
+    public void testIncludesMatchingNoPlugin()
+    {
+        ReportPlugin[] reportPlugins =
+            { newReportPlugin( "maven-javadoc-plugin" ), newReportPlugin( "maven-jxr-plugin" ) };
+
+        assertEquals( Collections.emptyList(),
+                      newFilter( Arrays.asList( "maven-javadoc-plugin:javadoc", "*:maven-jxr-plugin:*" ), null )
+                          .checkIncludes( reportPlugins ) );
+
+        List<String> warnings = newFilter( Arrays.asList( GROUP_ID + ":maven-javadoc-plugin", "maven-pmd-plugin" ),
+                                           null ).checkIncludes( reportPlugins );
+        assertEquals( 2, warnings.size() );
+        assertTrue( warnings.get( 0 ), warnings.get( 0 ).contains( "use '" + GROUP_ID + ":maven-javadoc-plugin:*'" ) );
+        assertEquals( "report include pattern 'maven-pmd-plugin' matches no report plugin", warnings.get( 1 ) );
+    }
+
+    public void testParsedOncePerRequest()
+    {
+        MavenReportExecutorRequest request = newRequest( Arrays.asList( "maven-javadoc-plugin" ), null );
+        ReportFilter filter = request.getReportFilter();
+        assertSame( filter, request.getReportFilter() );
+
+        request.setExcludes( Arrays.asList( "maven-javadoc-plugin:test-*" ) );
+        assertNotSame( filter, request.getReportFilter() );
+        assertFalse( request.getReportFilter().includes( GROUP_ID, "maven-javadoc-plugin", "test-javadoc" ) );
+    }
+
+    public void testPatternListsCopied()
+    {
+        List<String> includes = new ArrayList<>( Arrays.asList( "maven-javadoc-plugin" ) );
+        MavenReportExecutorRequest request = newRequest( includes, null );
+        ReportFilter filter = request.getReportFilter();
+
+        // the parsed filter can't get stale
+        includes.add( "maven-jxr-plugin" );
+        assertEquals( Arrays.asList( "maven-javadoc-plugin" ), request.getIncludes() );
+        assertSame( filter, request.getReportFilter() );
+        assertFalse( filter.includesPlugin( GROUP_ID, "maven-jxr-plugin" ) );
+        try
+        {
+            request.getIncludes().add( "maven-jxr-plugin" );
+            fail( "includes should not be modifiable" );
+        }
+        catch ( UnsupportedOperationException e )
+        {
+            // expected
+        }
+        try
+        {
+            request.getExcludes().add( "maven-jxr-plugin" );
+            fail( "excludes should not be modifiable" );
+        }
+        catch ( UnsupportedOperationException e )
+        {
+            // expected
+        }
+
+        request.setIncludes( includes );
+        assertTrue( request.getReportFilter().includesPlugin( GROUP_ID, "maven-jxr-plugin" ) );
+    }
+
+    public void testSystemPropertyOverride()
+    {
+        System.setProperty( ReportFilter.INCLUDES_PROPERTY, "maven-jxr-plugin, maven-pmd-plugin" );
+        try
+        {
+            ReportFilter filter = newFilter( Arrays.asList( "maven-javadoc-plugin" ), null );
+            assertFalse( filter.includesPlugin( GROUP_ID, "maven-javadoc-plugin" ) );
+            assertTrue( filter.includesPlugin( GROUP_ID, "maven-jxr-plugin" ) );
+            assertTrue( filter.includesPlugin( GROUP_ID, "maven-pmd-plugin" ) );
+        }
+        finally
+        {
+            System.clearProperty( ReportFilter.INCLUDES_PROPERTY );
+        }
+    }
+
+    public void testInvalidPattern()
+    {
+        try
+        {
+            newFilter( Arrays.asList( "a:b:c:d" ), null );
+            fail( "invalid pattern should be rejected" );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().contains( "'a:b:c:d'" ) );
+        }
+    }
+
+    private static ReportFilter newFilter( List<String> includes, List<String> excludes )
+    {
+        ReportFilter filter = newRequest( includes, excludes ).getReportFilter();
+        assertNotNull( filter );
+        return filter;
+    }
+
+    private static MavenReportExecutorRequest newRequest( List<String> includes, List<String> excludes )
+    {
+        MavenReportExecutorRequest request = new MavenReportExecutorRequest();
+        request.setIncludes( includes );
+        request.setExcludes( excludes );
+        return request;
+    }
+
+    private static ReportPlugin newReportPlugin( String artifactId )
+    {
+        ReportPlugin reportPlugin = new ReportPlugin();
+        reportPlugin.setGroupId( GROUP_ID );
+        reportPlugin.setArtifactId( artifactId );
+        return reportPlugin;
+    }
+}
@@ -0,0 +1,254 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.Plugin;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Tests for {@link ReportOutputCache} and {@link CachingReportRenderer}.
+ */
+public class TestReportOutputCache
+    extends TestCase
+{
+    private File directory;
+
+    private ReportOutputCache cache;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        directory = File.createTempFile( "report-output-cache", "" );
+        assertTrue( directory.delete() && directory.mkdir() );
+        cache = new ReportOutputCache( new File( directory, "cache" ) );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        FileUtils.deleteDirectory( directory );
+        super.tearDown();
+    }
+
+    public void testStoreRestore()
+        throws Exception
+    {
+        File outputDirectory = new File( directory, "output" );
+        write( new File( outputDirectory, "report.html" ), "report" );
+        write( new File( outputDirectory, "apidocs/index.html" ), "index" );
+        write( new File( outputDirectory, "apidocs/copy.html" ), "index" );
+
+        cache.store( "key", outputDirectory,
+                     Arrays.asList( "report.html", "apidocs/index.html", "apidocs/copy.html" ) );
+        assertEquals( "same content stored once", 2, FileUtils.getFiles( new File( cache.getDirectory(), "objects" ),
+                                                                        null, null ).size() );
+
+        File restoreDirectory = new File( directory, "restored" );
+        assertTrue( cache.restore( "key", restoreDirectory ) );
+        assertEquals( "report", FileUtils.fileRead( new File( restoreDirectory, "report.html" ), "UTF-8" ) );
+        assertEquals( "index", FileUtils.fileRead( new File( restoreDirectory, "apidocs/index.html" ), "UTF-8" ) );
+        assertEquals( "index", FileUtils.fileRead( new File( restoreDirectory, "apidocs/copy.html" ), "UTF-8" ) );
+
+        // restored files replace stale output
+        write( new File( restoreDirectory, "report.html" ), "stale" );
+        assertTrue( cache.restore( "key", restoreDirectory ) );
+        assertEquals( "report", FileUtils.fileRead( new File( restoreDirectory, "report.html" ), "UTF-8" ) );
+    }
+
+    public void testRestoreUnknownKey()
+        throws Exception
+    {
+        File restoreDirectory = new File( directory, "restored" );
+        assertFalse( cache.restore( "unknown", restoreDirectory ) );
+        assertFalse( restoreDirectory.exists() );
+    }
+
+    public void testRestoreMissingObject()
+        throws Exception
+    {
+        File outputDirectory = new File( directory, "output" );
+        write( new File( outputDirectory, "a.html" ), "a" );
+        write( new File( outputDirectory, "b.html" ), "b" );
+        cache.store( "key", outputDirectory, Arrays.asList( "a.html", "b.html" ) );
+
+        File object = new File( cache.getDirectory(), "objects/e9/e9d71f5ee7c92d6dc9e92ffdad17b8bd49418f98" );
+        assertTrue( "object of b.html", object.delete() );
+
+        File restoreDirectory = new File( directory, "restored" );
+        assertFalse( cache.restore( "key", restoreDirectory ) );
+        assertFalse( "nothing restored", new File( restoreDirectory, "a.html" ).exists() );
+    }
+
+    public void testCachingReportRenderer()
+        throws Exception
+    {
+        final int[] renders = new int[1];
+        ReportRenderer delegate = new ReportRenderer()
+        {
+            @Override
+            public void render( MavenReportExecution mavenReportExecution )
+                throws Exception
+            {
+                renders[0]++;
+                File output = new File( mavenReportExecution.getMavenReport().getReportOutputDirectory(),
+                                        mavenReportExecution.getMavenReport().getOutputName() + ".html" );
+                write( output, "rendered" );
+            }
+        };
+
+        File outputDirectory = new File( directory, "site" );
+        CachingReportRenderer renderer = new CachingReportRenderer( delegate, cache, outputDirectory, Locale.ENGLISH );
+
+        renderer.render( newExecution( outputDirectory ) );
+        assertEquals( 1, renders[0] );
+
+        File output = new File( outputDirectory, "fixture.html" );
+        assertTrue( output.delete() );
+        renderer.render( newExecution( outputDirectory ) );
+        assertEquals( "restored from the cache", 1, renders[0] );
+        assertEquals( "rendered", FileUtils.fileRead( output, "UTF-8" ) );
+
+        renderer = new CachingReportRenderer( delegate, cache, outputDirectory, Locale.FRENCH );
+        renderer.render( newExecution( outputDirectory ) );
+        assertEquals( "other locale", 2, renders[0] );
+    }
+
+    public void testCachingSupportingFiles()
+        throws Exception
+    {
+        final File outputDirectory = new File( directory, "site" );
+        write( new File( outputDirectory, "index.html" ), "index" );
+        write( new File( outputDirectory, "css/site.css" ), "site" );
+
+        ReportRenderer delegate = new ReportRenderer()
+        {
+            @Override
+            public void render( MavenReportExecution mavenReportExecution )
+                throws Exception
+            {
+                write( new File( outputDirectory, "fixture.html" ), "<img src=\"images/chart.png\"/>" );
+                write( new File( outputDirectory, "images/chart.png" ), "chart" );
+                write( new File( outputDirectory, "css/site.css" ), "site with fixture" );
+            }
+        };
+        CachingReportRenderer renderer = new CachingReportRenderer( delegate, cache, outputDirectory, Locale.ENGLISH );
+        renderer.render( newExecution( outputDirectory ) );
+
+        File restoreDirectory = new File( directory, "restored" );
+        MavenReportExecution execution = newExecution( restoreDirectory );
+        assertTrue( cache.restore( execution.getCacheKey( outputDirectory, Locale.ENGLISH ), restoreDirectory ) );
+        assertEquals( "chart", FileUtils.fileRead( new File( restoreDirectory, "images/chart.png" ), "UTF-8" ) );
+        assertEquals( "modified file", "site with fixture",
+                      FileUtils.fileRead( new File( restoreDirectory, "css/site.css" ), "UTF-8" ) );
+        assertTrue( new File( restoreDirectory, "fixture.html" ).isFile() );
+        assertFalse( "not written by the report", new File( restoreDirectory, "index.html" ).exists() );
+    }
+
+    public void testConcurrentRenderingNotStored()
+        throws Exception
+    {
+        final File outputDirectory = new File( directory, "site" );
+        final CountDownLatch started = new CountDownLatch( 1 );
+        final CountDownLatch rendered = new CountDownLatch( 1 );
+        ReportRenderer delegate = new ReportRenderer()
+        {
+            @Override
+            public void render( MavenReportExecution mavenReportExecution )
+                throws Exception
+            {
+                String outputName = mavenReportExecution.getMavenReport().getOutputName();
+                write( new File( outputDirectory, outputName + ".html" ), outputName );
+                if ( "other".equals( mavenReportExecution.getGoal() ) )
+                {
+                    started.countDown();
+                    assertTrue( rendered.await( 10, TimeUnit.SECONDS ) );
+                }
+            }
+        };
+        final CachingReportRenderer renderer =
+            new CachingReportRenderer( delegate, cache, outputDirectory, Locale.ENGLISH );
+
+        final MavenReportExecution other = newExecution( outputDirectory );
+        other.setInputFiles( Collections.singletonList( new File( directory, "other" ) ) );
+        Thread thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    renderer.render( new MavenReportExecution( "other", other.getPlugin(), other.getMavenReport(),
+                                                               null ) );
+                }
+                catch ( Exception e )
+                {
+                    throw new IllegalStateException( e );
+                }
+            }
+        };
+        thread.start();
+        assertTrue( started.await( 10, TimeUnit.SECONDS ) );
+
+        MavenReportExecution execution = newExecution( outputDirectory );
+        renderer.render( execution );
+        rendered.countDown();
+        thread.join();
+
+        assertFalse( "files written by the other report can't be told apart",
+                     cache.restore( execution.getCacheKey( outputDirectory, Locale.ENGLISH ),
+                                    new File( directory, "restored" ) ) );
+    }
+
+    private MavenReportExecution newExecution( File outputDirectory )
+    {
+        Plugin plugin = new Plugin();
+        plugin.setGroupId( "org.example" );
+        plugin.setArtifactId( "example-report-plugin" );
+        plugin.setVersion( "1.0" );
+
+        FixtureReport report = new FixtureReport( new ReportExecutorFixtures(), null );
+        report.setReportOutputDirectory( outputDirectory );
+
+        MavenReportExecution execution = new MavenReportExecution( "report", plugin, report, null );
+        execution.setProjectId( "org.example:example:jar:1.0" );
+        execution.setCacheKeyStrategy( new DefaultReportCacheKeyStrategy() );
+        execution.setInputFiles( Collections.<File>emptyList() );
+        return execution;
+    }
+
+    private static void write( File file, String content )
+        throws IOException
+    {
+        assertTrue( file.getParentFile().isDirectory() || file.getParentFile().mkdirs() );
+        FileUtils.fileWrite( file, "UTF-8", content );
+    }
+}
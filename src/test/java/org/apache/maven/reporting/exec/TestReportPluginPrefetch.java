@@ -0,0 +1,107 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.PluginResolutionException;
+
+/**
+ * Tests for report plugins resolved concurrently before being prepared serially, with
+ * {@link MavenReportExecutorRequest#setPrefetchThreadCount(int)}.
+ */
+public class TestReportPluginPrefetch
+    extends TestCase
+{
+    private ReportExecutorFixtures fixtures;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        fixtures = new ReportExecutorFixtures();
+        for ( int i = 0; i < 4; i++ )
+        {
+            fixtures.addReportPlugin( "plugin" + i, "report-a", "report-b" );
+        }
+        // declared twice
+        fixtures.addReportPlugin( "plugin1", "report-a", "report-b" );
+    }
+
+    public void testDistinctPluginsResolvedOnce()
+        throws Exception
+    {
+        MavenReportExecutorRequest request = fixtures.newRequest( fixtures.newSession() );
+        request.setPrefetchThreadCount( 4 );
+        List<MavenReportExecution> reports = fixtures.newMavenReportExecutor().buildMavenReports( request );
+
+        assertEquals( 10, reports.size() );
+        List<String> resolved = fixtures.getResolvedPluginDescriptors();
+        assertEquals( resolved.toString(), 4, resolved.size() );
+        for ( int i = 0; i < 4; i++ )
+        {
+            assertEquals( resolved.toString(), 1, Collections.frequency( resolved, "plugin" + i ) );
+        }
+        for ( Thread thread : fixtures.getPluginDescriptorThreads() )
+        {
+            assertTrue( "resolved by prefetch threads", thread.getName().startsWith( "report-prefetch-" ) );
+        }
+    }
+
+    public void testFailureReportedBySerialPreparation()
+        throws Exception
+    {
+        fixtures.failPluginDescriptor( "plugin2", newPluginResolutionException( "plugin2" ) );
+
+        MavenReportExecutorRequest request = fixtures.newRequest( fixtures.newSession() );
+        request.setPrefetchThreadCount( 4 );
+        try
+        {
+            fixtures.newMavenReportExecutor().buildMavenReports( request );
+            fail( "plugin descriptor failure should be reported" );
+        }
+        catch ( MojoExecutionException e )
+        {
+            assertEquals( "failed to get report for " + ReportExecutorFixtures.GROUP_ID + ":plugin2", e.getMessage() );
+            assertTrue( e.getCause() instanceof PluginResolutionException );
+        }
+
+        // prefetch failure is not cached: preparing plugin2 resolves it again, after preparing previous plugins
+        List<String> resolved = fixtures.getResolvedPluginDescriptors();
+        assertEquals( resolved.toString(), 2, Collections.frequency( resolved, "plugin2" ) );
+        assertEquals( resolved.toString(), 1, Collections.frequency( resolved, "plugin3" ) );
+        assertEquals( "plugin2", resolved.get( resolved.size() - 1 ) );
+        assertEquals( "mojos of plugin0 and plugin1 released", 4, fixtures.getReleasedMojos().size() );
+    }
+
+    private static PluginResolutionException newPluginResolutionException( String artifactId )
+    {
+        Plugin plugin = new Plugin();
+        plugin.setGroupId( ReportExecutorFixtures.GROUP_ID );
+        plugin.setArtifactId( artifactId );
+        plugin.setVersion( "1.0" );
+        return new PluginResolutionException( plugin, new Exception( "unresolvable " + artifactId ) );
+    }
+}
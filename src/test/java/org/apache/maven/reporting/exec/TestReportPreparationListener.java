@@ -0,0 +1,148 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link ReportPreparationListener} notifications of {@link DefaultMavenReportExecutor}.
+ */
+public class TestReportPreparationListener
+    extends TestCase
+{
+    private static final String PLUGIN0 = ReportExecutorFixtures.GROUP_ID + ":plugin0";
+
+    private static final String PLUGIN1 = ReportExecutorFixtures.GROUP_ID + ":plugin1";
+
+    private final List<ReportPreparationEvent> events = new CopyOnWriteArrayList<>();
+
+    private final ReportPreparationListener listener = new ReportPreparationListener()
+    {
+        @Override
+        public void stageDone( ReportPreparationEvent event )
+        {
+            events.add( event );
+        }
+    };
+
+    private ReportExecutorFixtures fixtures;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        fixtures = new ReportExecutorFixtures();
+        fixtures.addReportPlugin( "plugin0", "report-a" );
+        fixtures.getMojoDescriptor( "plugin0", "report-a" ).setExecutePhase( "generate-sources" );
+        fixtures.addReportPlugin( "plugin1", "report-b" );
+    }
+
+    public void testEveryStageNotified()
+        throws Exception
+    {
+        DefaultMavenReportExecutor mavenReportExecutor = fixtures.newMavenReportExecutor();
+        mavenReportExecutor.addReportPreparationListener( listener );
+        mavenReportExecutor.buildMavenReports( fixtures.newRequest( fixtures.newSession() ) );
+
+        Set<ReportPreparationStage> stages = EnumSet.noneOf( ReportPreparationStage.class );
+        for ( ReportPreparationEvent event : events )
+        {
+            stages.add( event.getStage() );
+            assertSame( fixtures.getProject(), event.getProject() );
+            assertTrue( event.getDurationNanos() >= 0 );
+        }
+        assertEquals( EnumSet.allOf( ReportPreparationStage.class ), stages );
+
+        for ( ReportPreparationStage stage : new ReportPreparationStage[] { ReportPreparationStage.VERSION_RESOLUTION,
+            ReportPreparationStage.DESCRIPTOR_RESOLUTION, ReportPreparationStage.REALM_SETUP,
+            ReportPreparationStage.REPORT_PLUGIN } )
+        {
+            ReportPreparationEvent event = getEvent( stage, PLUGIN0 );
+            assertNull( stage + " is done for every goal", event.getGoal() );
+        }
+        for ( ReportPreparationStage stage : new ReportPreparationStage[] {
+            ReportPreparationStage.REPORT_CLASSIFICATION, ReportPreparationStage.CONFIGURATION_MERGE,
+            ReportPreparationStage.MOJO_CONFIGURATION, ReportPreparationStage.FORKED_EXECUTION,
+            ReportPreparationStage.REPORT_GOAL } )
+        {
+            assertEquals( stage.toString(), "report-a", getEvent( stage, PLUGIN0 ).getGoal() );
+        }
+
+        ReportPreparationEvent projectReports = getEvent( ReportPreparationStage.PROJECT_REPORTS, null );
+        assertNull( projectReports.getGoal() );
+        ReportPreparationEvent reportPlugin = getEvent( ReportPreparationStage.REPORT_PLUGIN, PLUGIN0 );
+        assertTrue( "plugin preparation within project preparation",
+                    reportPlugin.getStartNanos() >= projectReports.getStartNanos()
+                        && reportPlugin.getDurationNanos() <= projectReports.getDurationNanos() );
+    }
+
+    public void testNotTimedWithoutListener()
+        throws Exception
+    {
+        final DefaultMavenReportExecutor mavenReportExecutor = fixtures.newMavenReportExecutor();
+        MavenReportExecutionListener registration = new MavenReportExecutionListener()
+        {
+            @Override
+            public void reportPrepared( int pluginIndex, int reportIndex, MavenReportExecution mavenReportExecution )
+            {
+                mavenReportExecutor.addReportPreparationListener( listener );
+            }
+        };
+        mavenReportExecutor.buildMavenReports( fixtures.newRequest( fixtures.newSession() ), registration );
+
+        // stages started before the listener was added are not timed, then not notified
+        List<String> notified = new ArrayList<>();
+        for ( ReportPreparationEvent event : events )
+        {
+            notified.add( event.getStage() + " " + event.getPluginKey() );
+        }
+        assertFalse( notified.toString(), notified.contains( "PROJECT_REPORTS null" ) );
+        assertFalse( notified.toString(), notified.contains( "REPORT_PLUGIN " + PLUGIN0 ) );
+        assertFalse( notified.toString(), notified.contains( "VERSION_RESOLUTION " + PLUGIN0 ) );
+        assertTrue( notified.toString(), notified.contains( "VERSION_RESOLUTION " + PLUGIN1 ) );
+        assertTrue( notified.toString(), notified.contains( "REPORT_PLUGIN " + PLUGIN1 ) );
+
+        // removed: no more events
+        events.clear();
+        mavenReportExecutor.removeReportPreparationListener( listener );
+        mavenReportExecutor.buildMavenReports( fixtures.newRequest( fixtures.newSession() ) );
+        assertTrue( events.isEmpty() );
+    }
+
+    private ReportPreparationEvent getEvent( ReportPreparationStage stage, String pluginKey )
+    {
+        for ( ReportPreparationEvent event : events )
+        {
+            if ( event.getStage() == stage
+                && ( pluginKey == null ? event.getPluginKey() == null : pluginKey.equals( event.getPluginKey() ) ) )
+            {
+                return event;
+            }
+        }
+        fail( "no " + stage + " event for " + pluginKey + " in " + events );
+        return null;
+    }
+}
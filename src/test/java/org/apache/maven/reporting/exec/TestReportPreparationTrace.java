@@ -0,0 +1,80 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Tests for the report preparation trace enabled with {@link DefaultMavenReportExecutor#TRACE_PROPERTY}.
+ */
+public class TestReportPreparationTrace
+    extends TestCase
+{
+    private File traceFile;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        traceFile = File.createTempFile( "trace", ".jsonl" );
+        System.setProperty( DefaultMavenReportExecutor.TRACE_PROPERTY, traceFile.getPath() );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        System.clearProperty( DefaultMavenReportExecutor.TRACE_PROPERTY );
+        assertTrue( traceFile.delete() );
+        super.tearDown();
+    }
+
+    public void testTraceWrittenAtEndOfEachCall()
+        throws Exception
+    {
+        ReportExecutorFixtures fixtures = new ReportExecutorFixtures();
+        fixtures.addReportPlugin( "plugin0", "report-a" );
+        DefaultMavenReportExecutor mavenReportExecutor = fixtures.newMavenReportExecutor();
+
+        mavenReportExecutor.buildMavenReports( fixtures.newRequest( fixtures.newSession() ) );
+        assertEquals( 1, count( FileUtils.fileRead( traceFile, "UTF-8" ), "\"PROJECT_REPORTS\"" ) );
+
+        // next calls append to the trace of the JVM
+        mavenReportExecutor.buildMavenReports( fixtures.newRequest( fixtures.newSession() ) );
+        mavenReportExecutor.planMavenReports( fixtures.newRequest( fixtures.newSession() ) );
+        String trace = FileUtils.fileRead( traceFile, "UTF-8" );
+        assertEquals( 2, count( trace, "\"PROJECT_REPORTS\"" ) );
+        assertEquals( 3, count( trace, "\"VERSION_RESOLUTION\"" ) );
+    }
+
+    private static int count( String text, String searched )
+    {
+        int count = 0;
+        for ( int i = text.indexOf( searched ); i >= 0; i = text.indexOf( searched, i + 1 ) )
+        {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,120 @@
+package org.apache.maven.reporting.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for report executions notified to a {@link MavenReportExecutionListener} as soon as they are prepared, with
+ * {@link StreamingMavenReportExecutor#buildMavenReports(MavenReportExecutorRequest, MavenReportExecutionListener)}.
+ */
+public class TestStreamingReportPreparation
+    extends TestCase
+{
+    private ReportExecutorFixtures fixtures;
+
+    private final List<String> notified = new ArrayList<>();
+
+    private final List<MavenReportExecution> notifiedReports = new ArrayList<>();
+
+    private final List<Integer> configuredWhenNotified = new ArrayList<>();
+
+    private final MavenReportExecutionListener listener = new MavenReportExecutionListener()
+    {
+        @Override
+        public void reportPrepared( int pluginIndex, int reportIndex, MavenReportExecution mavenReportExecution )
+        {
+            notified.add( pluginIndex + "/" + reportIndex + " " + mavenReportExecution.getPlugin().getArtifactId()
+                + ':' + mavenReportExecution.getGoal() );
+            notifiedReports.add( mavenReportExecution );
+            configuredWhenNotified.add( fixtures.getConfiguredMojoThreads().size() );
+        }
+    };
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        fixtures = new ReportExecutorFixtures();
+        for ( int i = 0; i < 4; i++ )
+        {
+            fixtures.addReportPlugin( "plugin" + i, "report-a", "report-b" );
+        }
+    }
+
+    public void testNotifiedAsSoonAsPrepared()
+        throws Exception
+    {
+        List<MavenReportExecution> reports =
+            fixtures.newMavenReportExecutor().buildMavenReports( fixtures.newRequest( fixtures.newSession() ),
+                                                                 listener );
+
+        assertEquals( 8, reports.size() );
+        assertEquals( 8, notified.size() );
+        for ( int i = 0; i < notified.size(); i++ )
+        {
+            // each report is notified before the mojos of next report plugins are configured
+            assertTrue( notified.get( i ) + " notified late: " + configuredWhenNotified,
+                        configuredWhenNotified.get( i ) <= 2 * ( i / 2 + 1 ) );
+            assertSame( reports.get( i ), notifiedReports.get( i ) );
+        }
+    }
+
+    public void testDeclarationOrderKeptWhenNotifiedOutOfOrder()
+        throws Exception
+    {
+        // first plugin is the slowest to resolve: it is notified last
+        fixtures.delayPluginDescriptor( "plugin0", 200 );
+
+        MavenReportExecutorRequest request = fixtures.newRequest( fixtures.newSession() );
+        request.setThreadCount( 4 );
+        List<MavenReportExecution> reports = fixtures.newMavenReportExecutor().buildMavenReports( request, listener );
+
+        assertEquals( 8, notified.size() );
+        assertEquals( "0/0 plugin0:report-a", notified.get( 6 ) );
+        assertEquals( "0/1 plugin0:report-b", notified.get( 7 ) );
+
+        assertEquals( 8, reports.size() );
+        for ( int i = 0; i < notified.size(); i++ )
+        {
+            String indexes = notified.get( i ).substring( 0, notified.get( i ).indexOf( ' ' ) );
+            int pluginIndex = Integer.parseInt( indexes.substring( 0, indexes.indexOf( '/' ) ) );
+            int reportIndex = Integer.parseInt( indexes.substring( indexes.indexOf( '/' ) + 1 ) );
+
+            // indexes locate the notified report execution in the declaration order list
+            MavenReportExecution report = reports.get( 2 * pluginIndex + reportIndex );
+            assertSame( notified.get( i ), report, notifiedReports.get( i ) );
+            assertEquals( "plugin" + pluginIndex, report.getPlugin().getArtifactId() );
+            assertEquals( reportIndex == 0 ? "report-a" : "report-b", report.getGoal() );
+        }
+    }
+
+    public void testNullListener()
+        throws Exception
+    {
+        MavenReportExecutorRequest request = fixtures.newRequest( fixtures.newSession() );
+        request.setThreadCount( 4 );
+
+        assertEquals( 8, fixtures.newMavenReportExecutor().buildMavenReports( request, null ).size() );
+    }
+}